@@ -0,0 +1,83 @@
+package com.eventostec.api.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import com.eventostec.api.domain.address.Address;
+import com.eventostec.api.domain.coupon.Coupon;
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.ImageStatus;
+
+/**
+ * In-memory fixtures for the benchmarks that measure mapping rather than the
+ * database. Repositories are stubbed with plain proxies instead of Mockito so
+ * the stub costs a map lookup and does not show up in the measurements.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static List<Event> events(int count) {
+        List<Event> events = new ArrayList<>(count);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            Event event = Event.builder()
+                               .id(UUID.randomUUID())
+                               .title("Event " + i)
+                               .description("Description of event " + i + " with a realistic amount of text")
+                               .imgUrl("https://bucket.s3.amazonaws.com/" + i + ".jpg")
+                               .imgThumbnailUrl("https://bucket.s3.amazonaws.com/" + i + "-thumbnail.jpg")
+                               .imgMediumUrl("https://bucket.s3.amazonaws.com/" + i + "-medium.jpg")
+                               .eventUrl("https://events.example.com/" + i)
+                               .remote(i % 2 == 0)
+                               .data(new Date(now + i * 60_000L))
+                               .imgStatus(ImageStatus.UPLOADED)
+                               .build();
+            if (!event.getRemote()) {
+                Address address = new Address();
+                address.setCity("São Paulo");
+                address.setUf("SP");
+                address.setEvent(event);
+                event.setAddress(address);
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    static List<Coupon> coupons(Event event, int count) {
+        List<Coupon> coupons = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            coupons.add(new Coupon(UUID.randomUUID(), "CODE" + i, 10, new Date(System.currentTimeMillis() + 86_400_000L), null, 0, 0, null, event));
+        }
+        return coupons;
+    }
+
+    /**
+     * Answers the named repository methods and fails on any other call, so a
+     * benchmark cannot silently measure an unstubbed path.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return answer.apply(args);
+        });
+    }
+}
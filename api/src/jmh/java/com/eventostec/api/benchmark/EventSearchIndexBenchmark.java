@@ -0,0 +1,78 @@
+package com.eventostec.api.benchmark;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.PaginatedResponse;
+import com.eventostec.api.services.EventSearchIndex;
+
+/**
+ * Query latency of the in-memory search index, and the cost of building it:
+ * gc.alloc.rate.norm of build divided by the event count is an upper bound of
+ * the heap each indexed event takes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventSearchIndexBenchmark {
+    private static final String[] CITIES = { "São Paulo", "Rio de Janeiro", "Belo Horizonte", "Recife", "Salvador", "Curitiba" };
+    private static final String[] UFS = { "SP", "RJ", "MG", "PE", "BA", "PR" };
+    private static final String[] WORDS = { "java", "spring", "kotlin", "python", "dados", "nuvem", "segurança", "frontend", "devops", "mobile" };
+
+    @Param({"50000"})
+    private int events;
+
+    private EventResponseDTO[] documents;
+
+    private EventSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        this.documents = new EventResponseDTO[events];
+        for (int i = 0; i < events; i++) {
+            String title = "Meetup " + WORDS[i % WORDS.length] + " " + WORDS[(i / 7) % WORDS.length];
+            String description = "Evento número " + i + " sobre " + WORDS[(i / 3) % WORDS.length];
+            documents[i] = new EventResponseDTO(UUID.randomUUID(), title, description, new Date(1000L * i),
+                                                CITIES[i % CITIES.length], UFS[i % UFS.length], false,
+                                                "www.test.com.br", "www.test.com.br");
+        }
+        this.index = this.build();
+    }
+
+    @Benchmark
+    public PaginatedResponse<EventResponseDTO> search() {
+        return index.search(0, 10, "java spr", "paulo", "sp", new Date(0), new Date(Long.MAX_VALUE), "relevance");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public EventSearchIndex build() {
+        EventSearchIndex built = new EventSearchIndex();
+        ReflectionTestUtils.setField(built, "searchEngine", "memory");
+        for (EventResponseDTO document : documents) {
+            built.add(document);
+        }
+        return built;
+    }
+}
@@ -0,0 +1,110 @@
+package com.eventostec.api.benchmark;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventDetailsDTO;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.PaginatedResponse;
+import com.eventostec.api.repositories.CouponRepository;
+import com.eventostec.api.repositories.EventRepository;
+import com.eventostec.api.services.CouponService;
+import com.eventostec.api.services.EventDetailsCache;
+import com.eventostec.api.services.EventListingCache;
+import com.eventostec.api.services.EventService;
+
+/**
+ * EventService read paths with stubbed repositories, so the numbers are the
+ * cost of caching and of mapping entities to DTOs. With cached=false both
+ * caches hold nothing and every call maps the page again.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventServiceBenchmark {
+    @Param({"10", "50"})
+    private int size;
+
+    @Param({"false", "true"})
+    private boolean cached;
+
+    private EventService eventService;
+
+    private UUID eventId;
+
+    @Setup
+    public void setUp() {
+        List<Event> events = BenchmarkData.events(size);
+        Event event = events.get(1);
+        this.eventId = event.getId();
+
+        PageImpl<Event> page = new PageImpl<>(events, PageRequest.of(0, size), 10_000);
+        EventRepository eventRepository = BenchmarkData.stub(EventRepository.class, Map.of(
+            "findUpComingEvents", args -> page,
+            "findFilteredEvents", args -> page,
+            "findById", args -> Optional.of(event)));
+        CouponRepository couponRepository = BenchmarkData.stub(CouponRepository.class, Map.of(
+            "findByEventIdAndValidAfter", args -> BenchmarkData.coupons(event, 5)));
+
+        CouponService couponService = new CouponService();
+        ReflectionTestUtils.setField(couponService, "couponRepository", couponRepository);
+
+        EventListingCache eventListingCache = new EventListingCache();
+        ReflectionTestUtils.setField(eventListingCache, "maximumSize", cached ? 1000L : 0L);
+        ReflectionTestUtils.setField(eventListingCache, "expireAfterSeconds", 3600L);
+        ReflectionTestUtils.setField(eventListingCache, "refreshAfterSeconds", 3600L);
+        ReflectionTestUtils.setField(eventListingCache, "refreshThreads", 1);
+        ReflectionTestUtils.setField(eventListingCache, "refreshQueueSize", 1);
+        eventListingCache.init();
+
+        EventDetailsCache eventDetailsCache = new EventDetailsCache();
+        ReflectionTestUtils.setField(eventDetailsCache, "maximumSize", cached ? 1000L : 0L);
+        ReflectionTestUtils.setField(eventDetailsCache, "expireAfterSeconds", 3600L);
+        eventDetailsCache.init();
+
+        this.eventService = new EventService();
+        ReflectionTestUtils.setField(eventService, "searchEngine", "like");
+        ReflectionTestUtils.setField(eventService, "eventRepository", eventRepository);
+        ReflectionTestUtils.setField(eventService, "couponService", couponService);
+        ReflectionTestUtils.setField(eventService, "eventListingCache", eventListingCache);
+        ReflectionTestUtils.setField(eventService, "eventDetailsCache", eventDetailsCache);
+    }
+
+    @Benchmark
+    public PaginatedResponse<EventResponseDTO> upcomingEvents() {
+        return eventService.getUpcomingEvents(0, size);
+    }
+
+    @Benchmark
+    public PaginatedResponse<EventResponseDTO> filteredEvents() {
+        return eventService.getFilteredEvents(0, size, "Event", "São Paulo", "SP", new Date(0), null);
+    }
+
+    @Benchmark
+    public EventDetailsDTO eventDetails() {
+        return eventService.getEventDetails(eventId);
+    }
+}
@@ -0,0 +1,106 @@
+package com.eventostec.api.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.eventostec.api.domain.image.ImageVariantUrls;
+import com.eventostec.api.services.ImageStorageService;
+import com.eventostec.api.services.ImageVariantService;
+
+/**
+ * Thumbnail and medium variants of the test image, uploaded to a storage stub
+ * that only drains the stream. The variant pool is replaced by an executor
+ * that runs on the calling thread, because -prof gc only counts allocations
+ * of the benchmark thread; gc.alloc.rate.norm is then the memory one image
+ * costs, which subsampled decoding bounds by the largest variant rather than
+ * by the size of the original.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageVariantBenchmark {
+    private ImageVariantService imageVariantService;
+
+    private ClassPathResource source;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        this.source = new ClassPathResource("images/image-test.jpg");
+        this.imageVariantService = new ImageVariantService();
+        ReflectionTestUtils.setField(imageVariantService, "enabled", true);
+        ReflectionTestUtils.setField(imageVariantService, "poolSize", 2);
+        ReflectionTestUtils.setField(imageVariantService, "jpegQuality", 0.8f);
+        ReflectionTestUtils.setField(imageVariantService, "imageStorageService", new DrainingStorage());
+        imageVariantService.init();
+        imageVariantService.shutdown();
+        ReflectionTestUtils.setField(imageVariantService, "executor", new CallerThreadExecutor());
+    }
+
+    @Benchmark
+    public ImageVariantUrls generate() {
+        return imageVariantService.generate(source, "benchmark");
+    }
+
+    private static final class DrainingStorage extends ImageStorageService {
+        @Override
+        public String upload(String fileName, InputStream inputStream, long contentLength, String contentType) throws IOException {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+            return fileName;
+        }
+    }
+
+    private static final class CallerThreadExecutor extends AbstractExecutorService {
+        private volatile boolean shutdown;
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.eventostec.api.benchmark;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import com.eventostec.api.domain.coupon.Coupon;
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventDetailsRow;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.repositories.CouponRepository;
+import com.eventostec.api.repositories.EventRepository;
+import com.eventostec.api.repositories.SyntheticDatabase;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * The repository queries behind the listing and details endpoints, run
+ * through Spring Data and Hibernate against an embedded PostgreSQL seeded
+ * with the same synthetic dataset as the query plan tests. Only the JPA slice
+ * of the application is started.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+    private static final int EVENTS = 100_000;
+
+    private EmbeddedPostgres postgres;
+
+    private ConfigurableApplicationContext context;
+
+    private EventRepository eventRepository;
+
+    private CouponRepository couponRepository;
+
+    private UUID eventId;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        this.postgres = SyntheticDatabase.start(EVENTS, 3);
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT id FROM event WHERE NOT remote AND data >= now() LIMIT 1")) {
+            resultSet.next();
+            this.eventId = UUID.fromString(resultSet.getString(1));
+        }
+
+        // Command line arguments take precedence over application.properties.
+        this.context = new SpringApplicationBuilder(JpaSlice.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                 "--spring.datasource.username=postgres",
+                 "--spring.datasource.password=postgres",
+                 "--spring.flyway.enabled=false",
+                 "--spring.devtools.restart.enabled=false",
+                 "--spring.main.banner-mode=off",
+                 "--logging.level.root=WARN");
+        this.eventRepository = context.getBean(EventRepository.class);
+        this.couponRepository = context.getBean(CouponRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public Page<Event> findUpComingEvents() {
+        return eventRepository.findUpComingEvents(new Date(), PageRequest.of(0, 10));
+    }
+
+    @Benchmark
+    public List<Event> findUpComingEventsFirst() {
+        return eventRepository.findUpComingEventsFirst(new Date(), PageRequest.of(0, 11));
+    }
+
+    @Benchmark
+    public Page<Event> findFilteredEvents() {
+        return eventRepository.findFilteredEvents("Event 1", "", "", new Date(0), new Date(), PageRequest.of(0, 10));
+    }
+
+    @Benchmark
+    public Page<EventResponseDTO> findUpComingEventResponses() {
+        return eventRepository.findUpComingEventResponses(new Date(), PageRequest.of(0, 10));
+    }
+
+    @Benchmark
+    public Page<EventResponseDTO> findFilteredEventResponses() {
+        return eventRepository.findFilteredEventResponses("Event 1", "", "", new Date(0), new Date(), PageRequest.of(0, 10));
+    }
+
+    @Benchmark
+    public List<EventDetailsRow> findEventDetailsRows() {
+        return eventRepository.findEventDetailsRows(eventId, new Date());
+    }
+
+    @Benchmark
+    public Optional<Event> findById() {
+        return eventRepository.findById(eventId);
+    }
+
+    @Benchmark
+    public List<Coupon> findByEventIdAndValidAfter() {
+        return couponRepository.findByEventIdAndValidAfter(eventId, new Date());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableAutoConfiguration
+    @EntityScan(basePackages = "com.eventostec.api.domain")
+    @EnableJpaRepositories(basePackageClasses = EventRepository.class)
+    static class JpaSlice {
+    }
+}
@@ -0,0 +1,63 @@
+package com.eventostec.api.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.PaginatedResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson serialization of a listing page with the same ObjectMapper defaults
+ * Spring MVC uses for response bodies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    @Param({"10", "50"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private PaginatedResponse<EventResponseDTO> page;
+
+    @Setup
+    public void setUp() {
+        this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<EventResponseDTO> content = BenchmarkData.events(size).stream().map(SerializationBenchmark::toResponseDTO).toList();
+        this.page = new PaginatedResponse<>(content, 1000);
+    }
+
+    @Benchmark
+    public byte[] paginatedResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    private static EventResponseDTO toResponseDTO(Event event) {
+        return new EventResponseDTO(event.getId(), event.getTitle(), event.getDescription(), event.getData(),
+                                    event.getAddress() != null ? event.getAddress().getCity() : "",
+                                    event.getAddress() != null ? event.getAddress().getUf() : "",
+                                    event.getRemote(), event.getEventUrl(), event.getImgUrl(),
+                                    event.getImgThumbnailUrl(), event.getImgMediumUrl());
+    }
+}
@@ -0,0 +1,17 @@
+package com.eventostec.api.configuration;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only service method whose queries may be served by a read
+ * replica when datasource.replica.enabled is set. Connections taken while it
+ * runs come from a replica; with open-in-view the request keeps that
+ * connection, so only mark methods of requests that do not write afterwards.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReplicaRead {
+}
@@ -0,0 +1,26 @@
+package com.eventostec.api.configuration;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Lets ReplicaRoutingDataSource hand out replica connections for the duration
+ * of a @ReplicaRead method.
+ */
+@Aspect
+public class ReplicaReadAspect {
+
+    @Around("@annotation(com.eventostec.api.configuration.ReplicaRead)")
+    public Object readFromReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean outer = ReplicaRoutingDataSource.REPLICA_READ.get();
+        ReplicaRoutingDataSource.REPLICA_READ.set(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (!outer) {
+                ReplicaRoutingDataSource.REPLICA_READ.remove();
+            }
+        }
+    }
+}
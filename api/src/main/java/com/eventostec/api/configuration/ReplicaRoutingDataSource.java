@@ -0,0 +1,145 @@
+package com.eventostec.api.configuration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * The application DataSource when replicas are enabled. Connections come from
+ * the primary except inside @ReplicaRead methods, where replicas are picked
+ * round robin among the ones whose replication lag, measured on a schedule,
+ * is within maxLagSeconds. Those reads go to the primary too while no replica
+ * qualifies, when a replica refuses a connection, and for maxLagSeconds after
+ * the last local write, so a body cached under a new data version is never
+ * loaded from a replica that has not replayed that write yet.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+    /**
+     * Seconds since the last replayed transaction, or 0 when everything
+     * received has been replayed (an idle replica is not lagging) or the
+     * server is not in recovery at all.
+     */
+    static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+                                  + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+                                  + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    static final ThreadLocal<Boolean> REPLICA_READ = ThreadLocal.withInitial(() -> false);
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final LongSupplier lastWriteMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, double maxLagSeconds, LongSupplier lastWriteMillis) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+        }
+        this.maxLagSeconds = maxLagSeconds;
+        this.lastWriteMillis = lastWriteMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = REPLICA_READ.get() ? this.choose() : null;
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            replica.available = false;
+            logger.error("End - ReplicaRoutingDataSource - getConnection - {} unavailable, reading from primary", replica.name, e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval-millis:1000}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                double lag = resultSet.getDouble(1);
+                if (lag > maxLagSeconds && replica.lagSeconds <= maxLagSeconds) {
+                    logger.warn("End - ReplicaRoutingDataSource - checkLag - {} is {}s behind, reading from other replicas", replica.name, lag);
+                }
+                replica.lagSeconds = lag;
+                replica.available = true;
+            } catch (SQLException e) {
+                if (replica.available) {
+                    logger.error("End - ReplicaRoutingDataSource - checkLag - {} unavailable", replica.name, e);
+                }
+                replica.available = false;
+            }
+        }
+    }
+
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * The next eligible replica in round-robin order, or null to read from
+     * the primary.
+     */
+    Replica choose() {
+        if (System.currentTimeMillis() - lastWriteMillis.getAsLong() < maxLagSeconds * 1000) {
+            return null;
+        }
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.available && replica.lagSeconds <= maxLagSeconds) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Replicas start out unchecked and are only used once a lag check has
+     * measured them.
+     */
+    static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        volatile boolean available;
+        volatile double lagSeconds;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.eventostec.api.controller;
+
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+/**
+ * Per-request override of spring.mvc.async.request-timeout, or the
+ * container's own default when that is unset (30 seconds on Tomcat), for
+ * handlers whose async body legitimately runs longer. It has to be called
+ * before the handler returns, since the timeout is applied when async
+ * processing starts.
+ */
+final class AsyncTimeouts {
+    private AsyncTimeouts() {
+    }
+
+    /**
+     * A timeout of zero or less means none.
+     */
+    static void set(WebRequest request, long timeoutMillis) {
+        AsyncWebRequest asyncWebRequest = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        if (asyncWebRequest != null) {
+            asyncWebRequest.setTimeout(timeoutMillis > 0 ? timeoutMillis : -1L);
+        }
+    }
+}
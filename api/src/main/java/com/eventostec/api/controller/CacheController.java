@@ -0,0 +1,42 @@
+package com.eventostec.api.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.eventostec.api.domain.cache.CacheStatsDTO;
+import com.eventostec.api.services.EventCountCache;
+import com.eventostec.api.services.EventDetailsCache;
+import com.eventostec.api.services.EventListingCache;
+import com.eventostec.api.services.ResponseBytesCache;
+
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+    @Autowired
+    private EventListingCache eventListingCache;
+
+    @Autowired
+    private EventDetailsCache eventDetailsCache;
+
+    @Autowired
+    private EventCountCache eventCountCache;
+
+    @Autowired
+    private ResponseBytesCache responseBytesCache;
+
+    @GetMapping("stats")
+    public ResponseEntity<List<CacheStatsDTO>> getStats() {
+        List<CacheStatsDTO> stats = List.of(this.eventListingCache.stats(),
+                                            this.eventDetailsCache.stats(),
+                                            this.eventCountCache.stats(),
+                                            this.responseBytesCache.stats());
+
+        return ResponseEntity.ok(stats);
+    }
+}
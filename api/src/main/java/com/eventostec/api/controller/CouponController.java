@@ -1,18 +1,29 @@
 package com.eventostec.api.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.eventostec.api.domain.coupon.Coupon;
+import com.eventostec.api.domain.coupon.CouponBatchRequestDTO;
+import com.eventostec.api.domain.coupon.CouponRedemptionDTO;
 import com.eventostec.api.domain.coupon.CouponRequestDTO;
+import com.eventostec.api.services.CouponRedemptionService;
 import com.eventostec.api.services.CouponService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 
 @RestController
@@ -21,11 +32,59 @@ public class CouponController {
     @Autowired
     private CouponService couponService;
 
+    @Autowired
+    private CouponRedemptionService couponRedemptionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${coupon.batch.timeout-millis:3600000}")
+    private long batchTimeoutMillis;
+
     @PostMapping("/event/{eventId}")
     public ResponseEntity<Coupon> addCouponToEvent(@PathVariable UUID eventId, @RequestBody CouponRequestDTO couponRequestDTO) {
         Coupon coupon = this.couponService.addCouponToEvent(eventId, couponRequestDTO);
         
         return ResponseEntity.ok(coupon);
     }
+
+    @PostMapping(value = "/event/{eventId}/batch", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> generateCoupons(@PathVariable UUID eventId,
+                                                                 @RequestBody CouponBatchRequestDTO couponBatchRequestDTO,
+                                                                 WebRequest request) {
+        this.couponService.validateBatch(eventId, couponBatchRequestDTO);
+        AsyncTimeouts.set(request, this.batchTimeoutMillis);
+
+        StreamingResponseBody body = outputStream -> this.couponService.generateCoupons(eventId, couponBatchRequestDTO, progress -> {
+            try {
+                outputStream.write(this.objectMapper.writeValueAsBytes(progress));
+                outputStream.write('\n');
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/event/{eventId}/code/{code}")
+    public ResponseEntity<CouponRedemptionDTO> validateCoupon(@PathVariable UUID eventId, @PathVariable String code) {
+        return this.toResponse(this.couponRedemptionService.validate(eventId, code));
+    }
+
+    @PostMapping("/event/{eventId}/code/{code}/redeem")
+    public ResponseEntity<CouponRedemptionDTO> redeemCoupon(@PathVariable UUID eventId, @PathVariable String code) {
+        return this.toResponse(this.couponRedemptionService.redeem(eventId, code));
+    }
+
+    private ResponseEntity<CouponRedemptionDTO> toResponse(CouponRedemptionDTO redemption) {
+        HttpStatus status = switch (redemption.status()) {
+            case VALID -> HttpStatus.OK;
+            case NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case EXPIRED, EXHAUSTED -> HttpStatus.CONFLICT;
+        };
+        return ResponseEntity.status(status).body(redemption);
+    }
     
 }
@@ -0,0 +1,64 @@
+package com.eventostec.api.controller;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.eventostec.api.domain.diagnostics.RecordingStatusDTO;
+import com.eventostec.api.services.FlightRecordingService;
+
+/**
+ * Off unless diagnostics.recording.endpoint-enabled is set: a dump carries
+ * system properties and environment variables, credentials included.
+ */
+@RestController
+@RequestMapping("/api/diagnostics/recording")
+@ConditionalOnProperty(name = "diagnostics.recording.endpoint-enabled", havingValue = "true")
+public class DiagnosticsController {
+    @Autowired
+    private FlightRecordingService flightRecordingService;
+
+    @PostMapping
+    public ResponseEntity<RecordingStatusDTO> start() throws IOException {
+        return ResponseEntity.ok(this.flightRecordingService.start());
+    }
+
+    @GetMapping
+    public ResponseEntity<RecordingStatusDTO> status() {
+        return ResponseEntity.ok(this.flightRecordingService.status());
+    }
+
+    @GetMapping("dump")
+    public ResponseEntity<StreamingResponseBody> dump() throws IOException {
+        Path file = this.flightRecordingService.dump();
+        StreamingResponseBody body = outputStream -> {
+            try {
+                Files.copy(file, outputStream);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+
+        return ResponseEntity.ok()
+                             .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                             .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                             .body(body);
+    }
+
+    @DeleteMapping
+    public ResponseEntity<RecordingStatusDTO> stop() {
+        return ResponseEntity.ok(this.flightRecordingService.stop());
+    }
+}
@@ -1,28 +1,49 @@
 package com.eventostec.api.controller;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.eventostec.api.domain.event.CountMode;
+import com.eventostec.api.domain.event.CursorPaginatedResponse;
 import com.eventostec.api.domain.event.Event;
 import com.eventostec.api.domain.event.EventDetailsDTO;
+import com.eventostec.api.domain.event.EventImportResultDTO;
 import com.eventostec.api.domain.event.EventRequestDTO;
 import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.NearbyEventDTO;
 import com.eventostec.api.domain.event.PaginatedResponse;
+import com.eventostec.api.services.EventDataVersion;
+import com.eventostec.api.services.EventExportService;
+import com.eventostec.api.services.EventFeedService;
+import com.eventostec.api.services.EventImportService;
+import com.eventostec.api.services.EventListingCache;
 import com.eventostec.api.services.EventService;
+import com.eventostec.api.services.ResponseBytesCache;
 
 
 
@@ -32,6 +53,24 @@ public class EventController {
     @Autowired
     private EventService eventService;
 
+    @Autowired
+    private EventImportService eventImportService;
+
+    @Autowired
+    private EventExportService eventExportService;
+
+    @Autowired
+    private EventFeedService eventFeedService;
+
+    @Autowired
+    private EventDataVersion eventDataVersion;
+
+    @Autowired
+    private ResponseBytesCache responseBytesCache;
+
+    @Value("${event.export.timeout-millis:3600000}")
+    private long exportTimeoutMillis;
+
     private static final Logger logger = LoggerFactory.getLogger(EventController.class);
 
     @PostMapping(value = "event", consumes = "multipart/form-data")
@@ -50,10 +89,35 @@ public class EventController {
         return ResponseEntity.ok(newEvent);
     }
 
+    @PostMapping(value = "event/import", consumes = "application/x-ndjson")
+    public ResponseEntity<EventImportResultDTO> importEvents(InputStream body) throws IOException {
+        logger.info("Start - EventController - importEvents");
+        EventImportResultDTO result = this.eventImportService.importEvents(body);
+        logger.info("End - EventController - importEvents - imported: {}, failed: {}", result.imported(), result.failed());
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("event")
-    public ResponseEntity<PaginatedResponse<EventResponseDTO>> getEvents(@RequestParam(defaultValue = "0") int page,
-                                                                        @RequestParam(defaultValue = "10") int size) {
-        PaginatedResponse<EventResponseDTO> allEvents = this.eventService.getUpcomingEvents(page, size);
+    public ResponseEntity<byte[]> getEvents(@RequestParam(defaultValue = "0") int page,
+                                            @RequestParam(defaultValue = "10") int size,
+                                            @RequestParam(defaultValue = "exact") String count,
+                                            WebRequest request) {
+        CountMode countMode = CountMode.from(count);
+        boolean gzip = this.acceptsGzip(request);
+        EventDataVersion.Tag tag = this.eventDataVersion.current();
+        if (this.notModified(request, tag, gzip)) {
+            return null;
+        }
+        ResponseBytesCache.Entry allEvents = this.responseBytesCache.get(EventListingCache.Key.upcoming(page, size, countMode), tag.etag(),
+                                                                         () -> this.eventService.getUpcomingEvents(page, size, countMode));
+
+        return this.cachedJson(allEvents, gzip);
+    }
+
+    @GetMapping(value = "event", params = "cursor")
+    public ResponseEntity<CursorPaginatedResponse<EventResponseDTO>> getEventsByCursor(@RequestParam(required = false) String cursor,
+                                                                                      @RequestParam(defaultValue = "10") int size) {
+        CursorPaginatedResponse<EventResponseDTO> allEvents = this.eventService.getUpcomingEventsByCursor(cursor, size);
 
         return ResponseEntity.ok(allEvents);
     }
@@ -65,25 +129,128 @@ public class EventController {
                                                                @RequestParam(required = false) String city,
                                                                @RequestParam(required = false) String uf,
                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date startDate,
-                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate) {
-        PaginatedResponse<EventResponseDTO> events = eventService.getFilteredEvents(page, size, title, city, uf, startDate, endDate);
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate,
+                                                               @RequestParam(required = false) String sort,
+                                                               @RequestParam(defaultValue = "exact") String count,
+                                                               @RequestParam(defaultValue = "false") boolean facets,
+                                                               WebRequest request) {
+        if (this.notModified(request)) {
+            return null;
+        }
+        PaginatedResponse<EventResponseDTO> events = eventService.getFilteredEvents(page, size, title, city, uf, startDate, endDate, sort, CountMode.from(count));
+        if (facets) {
+            events = events.withFacets(this.eventService.getFilterFacets(title, city, uf, startDate, endDate));
+        }
+
+        return ResponseEntity.ok(events);
+    }
+
+    @GetMapping("event/nearby")
+    public ResponseEntity<List<NearbyEventDTO>> getNearbyEvents(@RequestParam double latitude,
+                                                                @RequestParam double longitude,
+                                                                @RequestParam(defaultValue = "50") double radiusKm,
+                                                                @RequestParam(defaultValue = "10") int size,
+                                                                WebRequest request) {
+        if (this.notModified(request)) {
+            return null;
+        }
+        List<NearbyEventDTO> events = this.eventService.getNearbyEvents(latitude, longitude, radiusKm, size);
 
         return ResponseEntity.ok(events);
     }
     
+    /**
+     * Live feed of created events; EventSource clients resume on their own by
+     * sending back the id of the last event they received.
+     */
+    @GetMapping(value = "event/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        if (!this.eventFeedService.acceptsSubscribers()) {
+            logger.warn("End - EventController - streamEvents - subscriber limit reached");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30").build();
+        }
+        SseEmitter emitter = this.eventFeedService.subscribe(lastEventId);
+
+        return ResponseEntity.ok()
+                             .cacheControl(CacheControl.noStore())
+                             .header("X-Accel-Buffering", "no")
+                             .body(emitter);
+    }
+
+    /**
+     * Details list only coupons still valid, so their tag also carries the
+     * earliest coupon expiry and the 304 check waits for the cached entry
+     * that knows it.
+     */
     @GetMapping("event/{eventId}")
-    public ResponseEntity<EventDetailsDTO> getEventDetails(@PathVariable UUID eventId) {
-        EventDetailsDTO eventDetails = this.eventService.getEventDetails(eventId);
+    public ResponseEntity<byte[]> getEventDetails(@PathVariable UUID eventId, WebRequest request) {
+        boolean gzip = this.acceptsGzip(request);
+        EventDataVersion.Tag tag = this.eventDataVersion.current();
+        ResponseBytesCache.Entry eventDetails = this.responseBytesCache.get(eventId, tag.etag(),
+                                                                            () -> this.eventService.getEventDetails(eventId),
+                                                                            EventDetailsDTO::earliestCouponExpiry);
+        if (this.notModified(request, tag.until(eventDetails.expiresAt()), gzip)) {
+            return null;
+        }
 
-        return ResponseEntity.ok(eventDetails);
+        return this.cachedJson(eventDetails, gzip);
     } 
 
     @GetMapping("event/history")
     public ResponseEntity<PaginatedResponse<EventResponseDTO>> getOlderEvents(@RequestParam(defaultValue = "0") int page,
-                                            @RequestParam(defaultValue = "10") int size) {
-        PaginatedResponse<EventResponseDTO> olderEvents = this.eventService.getOlderEvents(page, size);
+                                            @RequestParam(defaultValue = "10") int size,
+                                            @RequestParam(defaultValue = "exact") String count) {
+        PaginatedResponse<EventResponseDTO> olderEvents = this.eventService.getOlderEvents(page, size, CountMode.from(count));
 
         return ResponseEntity.ok(olderEvents);
     }
-    
+
+    @GetMapping(value = "event/history", params = "cursor")
+    public ResponseEntity<CursorPaginatedResponse<EventResponseDTO>> getOlderEventsByCursor(@RequestParam(required = false) String cursor,
+                                                                                           @RequestParam(defaultValue = "10") int size) {
+        CursorPaginatedResponse<EventResponseDTO> olderEvents = this.eventService.getOlderEventsByCursor(cursor, size);
+
+        return ResponseEntity.ok(olderEvents);
+    }
+
+    @GetMapping(value = "event/history/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportOlderEvents(@RequestParam(defaultValue = "false") boolean includeCoupons, WebRequest request) {
+        AsyncTimeouts.set(request, this.exportTimeoutMillis);
+        StreamingResponseBody body = outputStream -> this.eventExportService.exportHistory(includeCoupons, outputStream);
+
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Answers 304 from the data version alone, before anything is loaded or
+     * serialized; checkNotModified also sets the ETag on the response that
+     * does go out.
+     */
+    private boolean notModified(WebRequest request) {
+        return this.notModified(request, this.eventDataVersion.current(), false);
+    }
+
+    /**
+     * The gzip body is a different representation, so it gets its own strong
+     * tag, the same way Apache httpd suffixes it.
+     */
+    private boolean notModified(WebRequest request, EventDataVersion.Tag tag, boolean gzip) {
+        String etag = gzip ? tag.etag().substring(0, tag.etag().length() - 1) + "-gzip\"" : tag.etag();
+        return request.checkNotModified(etag);
+    }
+
+    private boolean acceptsGzip(WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+
+    private ResponseEntity<byte[]> cachedJson(ResponseBytesCache.Entry entry, boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                                                            .contentType(MediaType.APPLICATION_JSON)
+                                                            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(entry.gzip());
+        }
+        return response.body(entry.json());
+    }
 }
@@ -0,0 +1,25 @@
+package com.eventostec.api.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.eventostec.api.domain.image.ImageUploadStatsDTO;
+import com.eventostec.api.services.ImageUploadService;
+
+
+@RestController
+@RequestMapping("/api/image/upload")
+public class ImageUploadController {
+    @Autowired
+    private ImageUploadService imageUploadService;
+
+    @GetMapping("stats")
+    public ResponseEntity<ImageUploadStatsDTO> getStats() {
+        ImageUploadStatsDTO stats = this.imageUploadService.stats();
+
+        return ResponseEntity.ok(stats);
+    }
+}
\ No newline at end of file
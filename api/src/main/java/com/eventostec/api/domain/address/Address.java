@@ -31,6 +31,8 @@ public class Address {
 	
 	private String city;
 	private String uf;
+	private Double latitude;
+	private Double longitude;
 	
 	@ManyToOne
 	@JoinColumn(name = "event_id")
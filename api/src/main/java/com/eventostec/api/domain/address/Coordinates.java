@@ -0,0 +1,4 @@
+package com.eventostec.api.domain.address;
+
+public record Coordinates(double latitude, double longitude) {
+}
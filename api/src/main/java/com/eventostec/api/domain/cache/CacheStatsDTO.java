@@ -0,0 +1,4 @@
+package com.eventostec.api.domain.cache;
+
+public record CacheStatsDTO(String name, long size, long hitCount, long missCount, long evictionCount, long refreshCount) {
+}
@@ -30,6 +30,18 @@ public class Coupon {
 	private String code;
 	private Integer discount;
 	private Date valid;
+
+	/**
+	 * Null means unlimited. reservedUses counts uses already handed to
+	 * application instances as redemption leases, so it never exceeds
+	 * maxUses; redeemedUses counts confirmed redemptions. leaseExpiresAt is
+	 * when the latest lease stops being used, after which uses reserved but
+	 * not redeemed can be returned.
+	 */
+	private Integer maxUses;
+	private int reservedUses;
+	private int redeemedUses;
+	private Date leaseExpiresAt;
 	
 	@ManyToOne
 	@JoinColumn(name = "event_id")
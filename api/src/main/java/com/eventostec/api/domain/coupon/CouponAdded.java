@@ -0,0 +1,10 @@
+package com.eventostec.api.domain.coupon;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Published by CouponService once a coupon is saved for an event.
+ */
+public record CouponAdded(UUID eventId, String code, Date valid) {
+}
@@ -0,0 +1,10 @@
+package com.eventostec.api.domain.coupon;
+
+import java.util.List;
+
+/**
+ * One NDJSON line of a bulk generation response, written after every
+ * committed chunk with the codes it contains.
+ */
+public record CouponBatchProgressDTO(int inserted, int total, List<String> codes) {
+}
@@ -0,0 +1,8 @@
+package com.eventostec.api.domain.coupon;
+
+/**
+ * Bulk generation request: quantity codes of prefix plus codeLength random
+ * characters, all sharing the same discount and expiry.
+ */
+public record CouponBatchRequestDTO(Integer quantity, Integer discount, Long valid, String prefix, Integer codeLength) {
+}
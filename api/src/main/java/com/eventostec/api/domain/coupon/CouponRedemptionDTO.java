@@ -0,0 +1,6 @@
+package com.eventostec.api.domain.coupon;
+
+import java.util.Date;
+
+public record CouponRedemptionDTO(String code, Integer discount, Date validUntil, CouponStatus status) {
+}
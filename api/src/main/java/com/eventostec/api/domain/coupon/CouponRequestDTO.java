@@ -1,4 +1,8 @@
 package com.eventostec.api.domain.coupon;
 
-public record CouponRequestDTO(String code, Integer discount, Long valid) {
+public record CouponRequestDTO(String code, Integer discount, Long valid, Integer maxUses) {
+
+    public CouponRequestDTO(String code, Integer discount, Long valid) {
+        this(code, discount, valid, null);
+    }
 }
@@ -0,0 +1,8 @@
+package com.eventostec.api.domain.coupon;
+
+public enum CouponStatus {
+    VALID,
+    NOT_FOUND,
+    EXPIRED,
+    EXHAUSTED
+}
@@ -0,0 +1,18 @@
+package com.eventostec.api.domain.coupon;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Coupon columns needed alongside their event, read without loading the
+ * Coupon entity or its event association.
+ */
+public interface EventCouponSummary {
+    UUID getEventId();
+
+    String getCode();
+
+    Integer getDiscount();
+
+    Date getValid();
+}
@@ -0,0 +1,21 @@
+package com.eventostec.api.domain.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("eventostec.Coupon")
+@Label("Coupon Operation")
+@Category({"EventosTec", "Coupons"})
+@StackTrace(false)
+public class CouponJfrEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Event Id")
+    public String eventId;
+
+    @Label("Rows")
+    public int rows;
+}
@@ -0,0 +1,24 @@
+package com.eventostec.api.domain.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("eventostec.CreateEvent")
+@Label("Create Event")
+@Category({"EventosTec", "Events"})
+@StackTrace(false)
+public class CreateEventJfrEvent extends jdk.jfr.Event {
+    @Label("Event Id")
+    public String eventId;
+
+    @Label("Remote")
+    public boolean remote;
+
+    @Label("Has Image")
+    public boolean hasImage;
+
+    @Label("Upload Deferred")
+    public boolean uploadDeferred;
+}
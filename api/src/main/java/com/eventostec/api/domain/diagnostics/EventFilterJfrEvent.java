@@ -0,0 +1,55 @@
+package com.eventostec.api.domain.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timestamp;
+
+/**
+ * Filter values are the ones the client sent; an unset date is recorded as
+ * Long.MIN_VALUE and an unknown total page as -1.
+ */
+@Name("eventostec.EventFilter")
+@Label("Event Filter")
+@Category({"EventosTec", "Events"})
+@StackTrace(false)
+public class EventFilterJfrEvent extends jdk.jfr.Event {
+    @Label("Title")
+    public String title;
+
+    @Label("City")
+    public String city;
+
+    @Label("UF")
+    public String uf;
+
+    @Label("Start Date")
+    @Timestamp
+    public long startDate;
+
+    @Label("End Date")
+    @Timestamp
+    public long endDate;
+
+    @Label("Sort")
+    public String sort;
+
+    @Label("Count Mode")
+    public String countMode;
+
+    @Label("Search Engine")
+    public String searchEngine;
+
+    @Label("Page")
+    public int page;
+
+    @Label("Page Size")
+    public int size;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Total Page")
+    public int totalPage;
+}
@@ -0,0 +1,28 @@
+package com.eventostec.api.domain.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Copy of a multipart image to a private temp file before an asynchronous
+ * upload; a rename when the container already spooled the part to disk.
+ * It happens before the event is saved, so there is no event id yet.
+ */
+@Name("eventostec.ImageSpool")
+@Label("Image Spool")
+@Category({"EventosTec", "Images"})
+@StackTrace(false)
+public class ImageSpoolJfrEvent extends jdk.jfr.Event {
+    @Label("File Name")
+    public String fileName;
+
+    @Label("Size")
+    @DataAmount
+    public long size;
+
+    @Label("Queue Depth")
+    public int queueDepth;
+}
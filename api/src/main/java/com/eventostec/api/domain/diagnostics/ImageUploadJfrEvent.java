@@ -0,0 +1,26 @@
+package com.eventostec.api.domain.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("eventostec.ImageUpload")
+@Label("Image Upload")
+@Category({"EventosTec", "Images"})
+@StackTrace(false)
+public class ImageUploadJfrEvent extends jdk.jfr.Event {
+    @Label("File Name")
+    public String fileName;
+
+    @Label("Size")
+    @DataAmount
+    public long size;
+
+    @Label("Content Type")
+    public String contentType;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,6 @@
+package com.eventostec.api.domain.diagnostics;
+
+import java.util.Date;
+
+public record RecordingStatusDTO(String name, String state, String settings, Date startTime, long maxAgeSeconds, long maxSizeBytes, long sizeBytes) {
+}
@@ -0,0 +1,25 @@
+package com.eventostec.api.domain.event;
+
+import java.util.Locale;
+
+/**
+ * How a listing page reports its total. EXACT runs a COUNT with every page,
+ * NONE only reports whether a next page exists, and APPROXIMATE adds a total
+ * derived from a count that is cached and refreshed in the background.
+ */
+public enum CountMode {
+    EXACT,
+    NONE,
+    APPROXIMATE;
+
+    public static CountMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        try {
+            return CountMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid count mode: " + value);
+        }
+    }
+}
@@ -7,6 +7,8 @@ import com.eventostec.api.domain.address.Address;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToOne;
@@ -34,10 +36,16 @@ public class Event {
 	private String title;
 	private String description;
 	private String imgUrl;
+	private String imgThumbnailUrl;
+	private String imgMediumUrl;
 	private String eventUrl;
 	private Boolean remote;
 	private Date data;
 
+	@Enumerated(EnumType.STRING)
+	private ImageStatus imgStatus;
+	private Date imgPendingSince;
+
 	@OneToOne(mappedBy = "event", cascade = CascadeType.ALL)
 	private Address address;
 }
@@ -0,0 +1,7 @@
+package com.eventostec.api.domain.event;
+
+/**
+ * Published by EventService once a new event and its address are saved.
+ */
+public record EventCreated(EventResponseDTO event) {
+}
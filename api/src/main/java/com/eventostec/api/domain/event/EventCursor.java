@@ -0,0 +1,33 @@
+package com.eventostec.api.domain.event;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Position of the last event returned by a keyset query. Clients only see the
+ * opaque encoded form and send it back unchanged to fetch the next page.
+ */
+public record EventCursor(Date date, UUID id) {
+
+    public static EventCursor of(Event event) {
+        return new EventCursor(event.getData(), event.getId());
+    }
+
+    public String encode() {
+        String raw = date.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EventCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new EventCursor(new Date(Long.parseLong(raw.substring(0, separator))),
+                                   UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
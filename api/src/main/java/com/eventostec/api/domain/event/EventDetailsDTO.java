@@ -13,10 +13,33 @@ public record EventDetailsDTO(
     String city,
     String uf,
     String imgUrl,
+    String imgThumbnailUrl,
+    String imgMediumUrl,
     String eventUrl,
     List<CouponDTO> coupons
 ) {
 
+    public EventDetailsDTO(UUID id, String title, String description, Date date, String city, String uf,
+                           String imgUrl, String eventUrl, List<CouponDTO> coupons) {
+        this(id, title, description, date, city, uf, imgUrl, null, null, eventUrl, coupons);
+    }
+
+    /**
+     * When the first listed coupon stops being valid, and with it this body;
+     * Long.MAX_VALUE when none of them expires.
+     */
+    public long earliestCouponExpiry() {
+        long earliest = Long.MAX_VALUE;
+        if (coupons != null) {
+            for (CouponDTO coupon : coupons) {
+                if (coupon.validUntil() != null) {
+                    earliest = Math.min(earliest, coupon.validUntil().getTime());
+                }
+            }
+        }
+        return earliest;
+    }
+
     public record CouponDTO(
         String code,
         Integer discount,
@@ -0,0 +1,26 @@
+package com.eventostec.api.domain.event;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * One row of the details projection: the event and its address repeated for
+ * every valid coupon, with null coupon columns when it has none.
+ */
+public record EventDetailsRow(
+    UUID id,
+    String title,
+    String description,
+    Date date,
+    String city,
+    String uf,
+    String imgUrl,
+    String imgThumbnailUrl,
+    String imgMediumUrl,
+    String eventUrl,
+    String couponCode,
+    Integer couponDiscount,
+    Date couponValid
+) {
+
+}
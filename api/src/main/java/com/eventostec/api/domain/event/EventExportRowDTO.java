@@ -0,0 +1,24 @@
+package com.eventostec.api.domain.event;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One line of the NDJSON history export. Coupons are null unless the export
+ * was asked to include them.
+ */
+public record EventExportRowDTO(
+    UUID id,
+    String title,
+    String description,
+    Date date,
+    Boolean remote,
+    String eventUrl,
+    String imgUrl,
+    String city,
+    String uf,
+    List<EventDetailsDTO.CouponDTO> coupons
+) {
+
+}
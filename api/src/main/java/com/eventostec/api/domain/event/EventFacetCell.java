@@ -0,0 +1,16 @@
+package com.eventostec.api.domain.event;
+
+/**
+ * Number of events sharing a city, uf, remote flag and month, as returned by
+ * the grouped facet query.
+ */
+public record EventFacetCell(
+    String city,
+    String uf,
+    Boolean remote,
+    Integer year,
+    Integer month,
+    Long count
+) {
+
+}
@@ -0,0 +1,18 @@
+package com.eventostec.api.domain.event;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * The columns of an event that facet counts group by, as loaded into the
+ * facet counters.
+ */
+public record EventFacetRow(
+    UUID id,
+    Date date,
+    String city,
+    String uf,
+    Boolean remote
+) {
+
+}
@@ -0,0 +1,10 @@
+package com.eventostec.api.domain.event;
+
+import java.util.Map;
+
+/**
+ * Event counts per facet value for a filter. Months are yyyy-MM; remote has
+ * the keys "remote" and "inPerson".
+ */
+public record EventFacetsDTO(Map<String, Long> uf, Map<String, Long> city, Map<String, Long> month, Map<String, Long> remote) {
+}
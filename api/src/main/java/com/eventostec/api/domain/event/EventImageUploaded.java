@@ -0,0 +1,10 @@
+package com.eventostec.api.domain.event;
+
+import java.util.UUID;
+
+/**
+ * Published when an asynchronous image upload finishes and the event row has
+ * its final image and variant URLs.
+ */
+public record EventImageUploaded(UUID eventId, String imgUrl, String imgThumbnailUrl, String imgMediumUrl) {
+}
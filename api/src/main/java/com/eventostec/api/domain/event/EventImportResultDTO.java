@@ -0,0 +1,16 @@
+package com.eventostec.api.domain.event;
+
+import java.util.List;
+
+
+public record EventImportResultDTO(
+    long imported,
+    long failed,
+    List<RowErrorDTO> errors
+) {
+
+    public record RowErrorDTO(
+        long line,
+        String message
+    ) {}
+}
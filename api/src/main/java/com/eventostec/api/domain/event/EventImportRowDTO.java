@@ -0,0 +1,9 @@
+package com.eventostec.api.domain.event;
+
+/**
+ * One line of an NDJSON import. The date is epoch milliseconds, as in the
+ * multipart create endpoint; imgUrl points at an image that is already hosted.
+ */
+public record EventImportRowDTO(String title, String description, Long date, String city, String uf, Boolean remote, String eventUrl, String imgUrl) {
+
+}
@@ -0,0 +1,29 @@
+package com.eventostec.api.domain.event;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * An upcoming in-person event with the coordinates of its address, as loaded
+ * into the nearby index.
+ */
+public record EventLocationRow(
+    UUID id,
+    String title,
+    String description,
+    Date date,
+    String city,
+    String uf,
+    Boolean remote,
+    String eventUrl,
+    String imgUrl,
+    String imgThumbnailUrl,
+    String imgMediumUrl,
+    double latitude,
+    double longitude
+) {
+
+    public EventResponseDTO toResponseDTO() {
+        return new EventResponseDTO(id, title, description, date, city, uf, remote, eventUrl, imgUrl, imgThumbnailUrl, imgMediumUrl);
+    }
+}
@@ -3,6 +3,10 @@ package com.eventostec.api.domain.event;
 import java.util.Date;
 import java.util.UUID;
 
-public record EventResponseDTO(UUID id, String title, String description, Date date, String city, String uf, Boolean remote, String eventUrl, String imgUrl) {
-    
+public record EventResponseDTO(UUID id, String title, String description, Date date, String city, String uf, Boolean remote, String eventUrl, String imgUrl,
+                               String imgThumbnailUrl, String imgMediumUrl) {
+
+    public EventResponseDTO(UUID id, String title, String description, Date date, String city, String uf, Boolean remote, String eventUrl, String imgUrl) {
+        this(id, title, description, date, city, uf, remote, eventUrl, imgUrl, null, null);
+    }
 }
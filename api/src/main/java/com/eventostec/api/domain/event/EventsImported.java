@@ -0,0 +1,11 @@
+package com.eventostec.api.domain.event;
+
+import java.util.List;
+
+/**
+ * Published by EventImportService once per committed chunk, in place of one
+ * EventCreated per row, so listeners take their locks and invalidate once
+ * per chunk.
+ */
+public record EventsImported(List<EventResponseDTO> events) {
+}
@@ -0,0 +1,7 @@
+package com.eventostec.api.domain.event;
+
+public enum ImageStatus {
+    PENDING,
+    UPLOADED,
+    FAILED
+}
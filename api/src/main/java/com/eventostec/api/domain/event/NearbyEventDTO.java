@@ -0,0 +1,4 @@
+package com.eventostec.api.domain.event;
+
+public record NearbyEventDTO(EventResponseDTO event, double distanceKm) {
+}
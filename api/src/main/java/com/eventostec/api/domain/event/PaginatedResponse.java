@@ -2,18 +2,54 @@ package com.eventostec.api.domain.event;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+/**
+ * totalPage is null when the page was read without a count; hasNext is set
+ * whenever the page was read with one extra row; approximate marks a totalPage
+ * computed from a cached count. facets is only set when the filter endpoint
+ * is asked for facet counts.
+ */
 @Getter
 @Setter
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PaginatedResponse<T> {
     private List<T> content;
-    private int totalPage;
+    private Integer totalPage;
+    private Boolean hasNext;
+    private Boolean approximate;
+    private EventFacetsDTO facets;
+
+    public PaginatedResponse(List<T> content, int totalPage) {
+        this(content, totalPage, null, null);
+    }
+
+    public PaginatedResponse(List<T> content, Integer totalPage, Boolean hasNext, Boolean approximate) {
+        this(content, totalPage, hasNext, approximate, null);
+    }
+
+    /**
+     * A copy carrying the given facets; pages can be shared through the
+     * listing cache, so they are not modified in place.
+     */
+    public PaginatedResponse<T> withFacets(EventFacetsDTO facets) {
+        return new PaginatedResponse<>(content, totalPage, hasNext, approximate, facets);
+    }
+
+    public static <T> PaginatedResponse<T> withoutCount(List<T> content, boolean hasNext) {
+        return new PaginatedResponse<>(content, null, hasNext, null);
+    }
+
+    public static <T> PaginatedResponse<T> approximate(List<T> content, int totalPage, boolean hasNext) {
+        return new PaginatedResponse<>(content, totalPage, hasNext, true);
+    }
 }
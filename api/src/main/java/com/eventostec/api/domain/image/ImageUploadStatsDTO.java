@@ -0,0 +1,12 @@
+package com.eventostec.api.domain.image;
+
+public record ImageUploadStatsDTO(int queueDepth,
+                                  int remainingCapacity,
+                                  int activeWorkers,
+                                  long completed,
+                                  long failed,
+                                  long retried,
+                                  long ranOnCaller,
+                                  double averageLatencyMillis,
+                                  double maxLatencyMillis) {
+}
@@ -0,0 +1,26 @@
+package com.eventostec.api.domain.image;
+
+/**
+ * Resized copies generated for every uploaded event image. The size is the
+ * longest side in pixels; images are never scaled up.
+ */
+public enum ImageVariant {
+    THUMBNAIL("thumbnail", 320),
+    MEDIUM("medium", 1024);
+
+    private final String suffix;
+    private final int maxDimension;
+
+    ImageVariant(String suffix, int maxDimension) {
+        this.suffix = suffix;
+        this.maxDimension = maxDimension;
+    }
+
+    public String suffix() {
+        return suffix;
+    }
+
+    public int maxDimension() {
+        return maxDimension;
+    }
+}
@@ -0,0 +1,5 @@
+package com.eventostec.api.domain.image;
+
+public record ImageVariantUrls(String thumbnailUrl, String mediumUrl) {
+    public static final ImageVariantUrls NONE = new ImageVariantUrls(null, null);
+}
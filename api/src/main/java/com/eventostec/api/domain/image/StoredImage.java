@@ -0,0 +1,32 @@
+package com.eventostec.api.domain.image;
+
+import java.util.Date;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * An image object already in the bucket, keyed by the SHA-256 of its bytes.
+ */
+@Table(name = "stored_image")
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredImage {
+	@Id
+	private String hash;
+
+	private String url;
+	private String thumbnailUrl;
+	private String mediumUrl;
+	private Long size;
+	private String contentType;
+	private Date createdAt;
+}
@@ -1,13 +1,55 @@
 package com.eventostec.api.repositories;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.eventostec.api.domain.coupon.Coupon;
+import com.eventostec.api.domain.coupon.EventCouponSummary;
 
 public interface CouponRepository extends JpaRepository<Coupon, UUID> {
     List<Coupon> findByEventIdAndValidAfter(UUID eventId, Date date);
+
+    @Query("SELECT c.code FROM Coupon c WHERE c.event.id = :eventId")
+    Set<String> findCodesByEventId(@Param("eventId") UUID eventId);
+
+    @Query("SELECT c.event.id AS eventId, c.code AS code, c.discount AS discount, c.valid AS valid FROM Coupon c WHERE c.event.id IN :eventIds")
+    List<EventCouponSummary> findSummariesByEventIdIn(@Param("eventIds") Collection<UUID> eventIds);
+
+    Optional<Coupon> findFirstByEventIdAndCode(UUID eventId, String code);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Coupon c SET c.reservedUses = c.reservedUses + :uses, "
+         + "c.leaseExpiresAt = CASE WHEN c.leaseExpiresAt IS NULL OR c.leaseExpiresAt < :expiresAt THEN :expiresAt ELSE c.leaseExpiresAt END "
+         + "WHERE c.id = :id AND c.reservedUses + :uses <= c.maxUses")
+    int reserveUses(@Param("id") UUID id, @Param("uses") int uses, @Param("expiresAt") Date expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Coupon c SET c.reservedUses = c.reservedUses - :uses WHERE c.id = :id AND c.reservedUses - :uses >= c.redeemedUses")
+    int releaseUses(@Param("id") UUID id, @Param("uses") int uses);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Coupon c SET c.redeemedUses = c.redeemedUses + :uses WHERE c.id = :id")
+    int addRedeemedUses(@Param("id") UUID id, @Param("uses") int uses);
+
+    /**
+     * Returns uses reserved by leases that every instance stopped using
+     * before the given time, such as the lease of an instance that crashed.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Coupon c SET c.reservedUses = c.redeemedUses, c.leaseExpiresAt = NULL WHERE c.leaseExpiresAt < :before AND c.reservedUses > c.redeemedUses")
+    int reconcileExpiredLeases(@Param("before") Date before);
 }
@@ -1,15 +1,32 @@
 package com.eventostec.api.repositories;
 
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventDetailsRow;
+import com.eventostec.api.domain.event.EventFacetCell;
+import com.eventostec.api.domain.event.EventFacetRow;
+import com.eventostec.api.domain.event.EventLocationRow;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.ImageStatus;
+
+import jakarta.persistence.QueryHint;
 
 public interface EventRepository extends JpaRepository<Event, UUID> {
    @Query("SELECT e from Event e LEFT JOIN FETCH e.address a WHERE e.data >= :currentDate")
@@ -27,6 +44,219 @@ public interface EventRepository extends JpaRepository<Event, UUID> {
                                           @Param("endDate") Date endDate,
                                           Pageable pageable);
 
+   String FULL_TEXT_FILTER = "FROM event e LEFT JOIN address a ON a.event_id = e.id " +
+       "WHERE (:title = '' OR e.search_vector @@ websearch_to_tsquery('portuguese', :title)) AND " +
+       "(:city = '' OR a.city ILIKE '%' || :city || '%') AND " +
+       "(:uf = '' OR lower(a.uf) = lower(:uf)) AND " +
+       "(e.data >= :startDate AND e.data <= :endDate)";
+
+   @Query(value = "SELECT e.* " + FULL_TEXT_FILTER + " ORDER BY e.data",
+       countQuery = "SELECT count(*) " + FULL_TEXT_FILTER,
+       nativeQuery = true)
+   public Page<Event> findFullTextFilteredEvents(@Param("title") String title,
+                                                 @Param("city") String city,
+                                                 @Param("uf") String uf,
+                                                 @Param("startDate") Date startDate,
+                                                 @Param("endDate") Date endDate,
+                                                 Pageable pageable);
+
+   @Query(value = "SELECT e.* " + FULL_TEXT_FILTER +
+       " ORDER BY ts_rank_cd(e.search_vector, websearch_to_tsquery('portuguese', :title)) DESC, e.data",
+       countQuery = "SELECT count(*) " + FULL_TEXT_FILTER,
+       nativeQuery = true)
+   public Page<Event> findFullTextFilteredEventsByRank(@Param("title") String title,
+                                                       @Param("city") String city,
+                                                       @Param("uf") String uf,
+                                                       @Param("startDate") Date startDate,
+                                                       @Param("endDate") Date endDate,
+                                                       Pageable pageable);
+
    @Query("SELECT e from Event e LEFT JOIN FETCH e.address a WHERE e.data <= :currentDate")                             
    public Page<Event> findOlderEvents(Date currentDate, Pageable pageable);
+
+   /*
+    * Projections select straight into DTOs: one query per page, no managed
+    * entities and no per-row address lookups from the inverse one-to-one.
+    */
+   String RESPONSE_PROJECTION = "SELECT new com.eventostec.api.domain.event.EventResponseDTO(" +
+       "e.id, e.title, e.description, e.data, COALESCE(a.city, ''), COALESCE(a.uf, ''), " +
+       "e.remote, e.eventUrl, e.imgUrl, e.imgThumbnailUrl, e.imgMediumUrl) " +
+       "FROM Event e LEFT JOIN e.address a ";
+
+   String FILTER = "WHERE (:title = '' OR e.title LIKE %:title%) AND " +
+       "(:city = '' OR a.city LIKE %:city%) AND " +
+       "(:uf = '' OR a.uf LIKE %:uf%) AND " +
+       "(e.data >= :startDate AND e.data <= :endDate)";
+
+   @Query(value = RESPONSE_PROJECTION + "WHERE e.data >= :currentDate",
+       countQuery = "SELECT count(e) FROM Event e WHERE e.data >= :currentDate")
+   public Page<EventResponseDTO> findUpComingEventResponses(@Param("currentDate") Date currentDate, Pageable pageable);
+
+   @Query(value = RESPONSE_PROJECTION + "WHERE e.data <= :currentDate",
+       countQuery = "SELECT count(e) FROM Event e WHERE e.data <= :currentDate")
+   public Page<EventResponseDTO> findOlderEventResponses(@Param("currentDate") Date currentDate, Pageable pageable);
+
+   @Query(value = RESPONSE_PROJECTION + FILTER,
+       countQuery = "SELECT count(e) FROM Event e LEFT JOIN e.address a " + FILTER)
+   public Page<EventResponseDTO> findFilteredEventResponses(@Param("title") String title,
+                                                            @Param("city") String city,
+                                                            @Param("uf") String uf,
+                                                            @Param("startDate") Date startDate,
+                                                            @Param("endDate") Date endDate,
+                                                            Pageable pageable);
+
+   /*
+    * Slices read size + 1 rows to tell whether a next page exists and never
+    * run the count query.
+    */
+   @Query(RESPONSE_PROJECTION + "WHERE e.data >= :currentDate")
+   public Slice<EventResponseDTO> findUpComingEventSlice(@Param("currentDate") Date currentDate, Pageable pageable);
+
+   @Query(RESPONSE_PROJECTION + "WHERE e.data <= :currentDate")
+   public Slice<EventResponseDTO> findOlderEventSlice(@Param("currentDate") Date currentDate, Pageable pageable);
+
+   @Query(RESPONSE_PROJECTION + FILTER)
+   public Slice<EventResponseDTO> findFilteredEventSlice(@Param("title") String title,
+                                                         @Param("city") String city,
+                                                         @Param("uf") String uf,
+                                                         @Param("startDate") Date startDate,
+                                                         @Param("endDate") Date endDate,
+                                                         Pageable pageable);
+
+   @Query("SELECT count(e) FROM Event e WHERE e.data >= :currentDate")
+   public long countUpComingEvents(@Param("currentDate") Date currentDate);
+
+   @Query("SELECT count(e) FROM Event e WHERE e.data <= :currentDate")
+   public long countOlderEvents(@Param("currentDate") Date currentDate);
+
+   @Query("SELECT count(e) FROM Event e LEFT JOIN e.address a " + FILTER)
+   public long countFilteredEvents(@Param("title") String title,
+                                   @Param("city") String city,
+                                   @Param("uf") String uf,
+                                   @Param("startDate") Date startDate,
+                                   @Param("endDate") Date endDate);
+
+   @Query("SELECT new com.eventostec.api.domain.event.EventDetailsRow(" +
+       "e.id, e.title, e.description, e.data, COALESCE(a.city, ''), COALESCE(a.uf, ''), " +
+       "e.imgUrl, e.imgThumbnailUrl, e.imgMediumUrl, e.eventUrl, c.code, c.discount, c.valid) " +
+       "FROM Event e LEFT JOIN e.address a LEFT JOIN Coupon c ON c.event = e AND c.valid > :currentDate " +
+       "WHERE e.id = :id")
+   public List<EventDetailsRow> findEventDetailsRows(@Param("id") UUID id, @Param("currentDate") Date currentDate);
+
+   @Query("SELECT e FROM Event e LEFT JOIN FETCH e.address a WHERE e.data >= :currentDate ORDER BY e.data ASC, e.id ASC")
+   public List<Event> findUpComingEventsFirst(@Param("currentDate") Date currentDate, Pageable pageable);
+
+   @Query("SELECT e FROM Event e LEFT JOIN FETCH e.address a " +
+       "WHERE e.data >= :currentDate AND e.data >= :cursorDate AND " +
+       "(e.data > :cursorDate OR (e.data = :cursorDate AND e.id > :cursorId)) " +
+       "ORDER BY e.data ASC, e.id ASC")
+   public List<Event> findUpComingEventsAfter(@Param("currentDate") Date currentDate,
+                                              @Param("cursorDate") Date cursorDate,
+                                              @Param("cursorId") UUID cursorId,
+                                              Pageable pageable);
+
+   @Query("SELECT e FROM Event e LEFT JOIN FETCH e.address a WHERE e.data <= :currentDate ORDER BY e.data DESC, e.id DESC")
+   public List<Event> findOlderEventsFirst(@Param("currentDate") Date currentDate, Pageable pageable);
+
+   @Query("SELECT e FROM Event e LEFT JOIN FETCH e.address a " +
+       "WHERE e.data <= :currentDate AND e.data <= :cursorDate AND " +
+       "(e.data < :cursorDate OR (e.data = :cursorDate AND e.id < :cursorId)) " +
+       "ORDER BY e.data DESC, e.id DESC")
+   public List<Event> findOlderEventsBefore(@Param("currentDate") Date currentDate,
+                                            @Param("cursorDate") Date cursorDate,
+                                            @Param("cursorId") UUID cursorId,
+                                            Pageable pageable);
+
+   String EXPORT_FETCH_SIZE = "1000";
+
+   /**
+    * Backed by a server-side cursor; callers must consume it inside a
+    * transaction and close it.
+    */
+   @QueryHints({
+       @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+       @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+   })
+   @Query("SELECT e FROM Event e LEFT JOIN FETCH e.address a WHERE e.data <= :currentDate ORDER BY e.data DESC, e.id DESC")
+   public Stream<Event> streamOlderEvents(@Param("currentDate") Date currentDate);
+
+   @Query("SELECT e FROM Event e LEFT JOIN FETCH e.address a WHERE e.id > :afterId ORDER BY e.id")
+   public List<Event> findIndexBatch(@Param("afterId") UUID afterId, Pageable pageable);
+
+   @Query("SELECT new com.eventostec.api.domain.event.EventFacetRow(e.id, e.data, a.city, a.uf, e.remote) " +
+       "FROM Event e LEFT JOIN e.address a WHERE e.id > :afterId ORDER BY e.id")
+   public List<EventFacetRow> findFacetBatch(@Param("afterId") UUID afterId, Pageable pageable);
+
+   /**
+    * Every facet of a filter in one grouped read: a row per city, uf, remote
+    * flag and month, folded into the separate facets by the caller.
+    */
+   @Query("SELECT new com.eventostec.api.domain.event.EventFacetCell(a.city, a.uf, e.remote, " +
+       "extract(year from e.data), extract(month from e.data), count(e)) " +
+       "FROM Event e LEFT JOIN e.address a " + FILTER + " " +
+       "GROUP BY a.city, a.uf, e.remote, extract(year from e.data), extract(month from e.data)")
+   public List<EventFacetCell> findFacetCells(@Param("title") String title,
+                                               @Param("city") String city,
+                                               @Param("uf") String uf,
+                                               @Param("startDate") Date startDate,
+                                               @Param("endDate") Date endDate);
+
+   @Query(value = "SELECT a.city, a.uf, e.remote, CAST(extract(year from e.data) AS int), " +
+       "CAST(extract(month from e.data) AS int), count(*) " + FULL_TEXT_FILTER + " " +
+       "GROUP BY a.city, a.uf, e.remote, extract(year from e.data), extract(month from e.data)",
+       nativeQuery = true)
+   public List<Object[]> findFullTextFacetRows(@Param("title") String title,
+                                               @Param("city") String city,
+                                               @Param("uf") String uf,
+                                               @Param("startDate") Date startDate,
+                                               @Param("endDate") Date endDate);
+
+   /**
+    * findFacetCells with the filter of the "fulltext" engine.
+    */
+   public default List<EventFacetCell> findFullTextFacetCells(String title, String city, String uf, Date startDate, Date endDate) {
+      return this.findFullTextFacetRows(title, city, uf, startDate, endDate).stream()
+         .map(row -> new EventFacetCell((String) row[0], (String) row[1], (Boolean) row[2],
+                                        (Integer) row[3], (Integer) row[4], ((Number) row[5]).longValue()))
+         .toList();
+   }
+
+   @Query("SELECT e.id FROM Event e WHERE e.id IN :ids")
+   public List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+   String LOCATION_PROJECTION = "SELECT new com.eventostec.api.domain.event.EventLocationRow(" +
+       "e.id, e.title, e.description, e.data, a.city, a.uf, e.remote, e.eventUrl, e.imgUrl, " +
+       "e.imgThumbnailUrl, e.imgMediumUrl, a.latitude, a.longitude) " +
+       "FROM Event e JOIN e.address a ";
+
+   @Query(LOCATION_PROJECTION + "WHERE e.data >= :currentDate AND a.latitude IS NOT NULL AND e.id > :afterId ORDER BY e.id")
+   public List<EventLocationRow> findLocationBatch(@Param("currentDate") Date currentDate, @Param("afterId") UUID afterId, Pageable pageable);
+
+   /**
+    * Bounding-box read for the nearby search while the in-memory index is not
+    * built yet; served by idx_address_coordinates.
+    */
+   @Query(LOCATION_PROJECTION + "WHERE e.data >= :currentDate AND " +
+       "a.latitude BETWEEN :minLatitude AND :maxLatitude AND " +
+       "a.longitude BETWEEN :minLongitude AND :maxLongitude")
+   public List<EventLocationRow> findLocationsWithin(@Param("currentDate") Date currentDate,
+                                                     @Param("minLatitude") double minLatitude,
+                                                     @Param("maxLatitude") double maxLatitude,
+                                                     @Param("minLongitude") double minLongitude,
+                                                     @Param("maxLongitude") double maxLongitude);
+
+   @Transactional
+   @Modifying
+   @Query("UPDATE Event e SET e.imgUrl = :imgUrl, e.imgThumbnailUrl = :imgThumbnailUrl, e.imgMediumUrl = :imgMediumUrl, e.imgStatus = :imgStatus WHERE e.id = :id")
+   public int updateImage(@Param("id") UUID id,
+                          @Param("imgUrl") String imgUrl,
+                          @Param("imgThumbnailUrl") String imgThumbnailUrl,
+                          @Param("imgMediumUrl") String imgMediumUrl,
+                          @Param("imgStatus") ImageStatus imgStatus);
+
+   @Transactional
+   @Modifying
+   @Query("UPDATE Event e SET e.imgStatus = com.eventostec.api.domain.event.ImageStatus.FAILED " +
+       "WHERE e.imgStatus = com.eventostec.api.domain.event.ImageStatus.PENDING AND e.imgPendingSince < :before")
+   public int failPendingImagesBefore(@Param("before") Date before);
 }
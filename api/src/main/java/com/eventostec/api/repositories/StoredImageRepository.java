@@ -0,0 +1,8 @@
+package com.eventostec.api.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.eventostec.api.domain.image.StoredImage;
+
+public interface StoredImageRepository extends JpaRepository<StoredImage, String> {
+}
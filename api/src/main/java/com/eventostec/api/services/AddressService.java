@@ -13,11 +13,15 @@ public class AddressService {
     @Autowired
     private AddressRepository addressRepository;
 
+    @Autowired
+    private CityCentroids cityCentroids;
+
     public Address createAddress(EventRequestDTO data, Event event) {
         Address address = new Address();
         address.setCity(data.city());
         address.setUf(data.uf());
         address.setEvent(event);
+        cityCentroids.locate(address);
 
         return addressRepository.save(address);
     };
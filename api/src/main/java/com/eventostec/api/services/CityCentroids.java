@@ -0,0 +1,74 @@
+package com.eventostec.api.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import com.eventostec.api.domain.address.Address;
+import com.eventostec.api.domain.address.Coordinates;
+
+/**
+ * Offline city centroid table shipped in geo/city-centroids.csv. Addresses
+ * only carry city and uf, so their coordinates are the centroid of the city;
+ * names are matched ignoring case, accents and repeated spaces.
+ */
+@Component
+public class CityCentroids {
+    private static final String RESOURCE = "geo/city-centroids.csv";
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final Map<String, Coordinates> centroids = new HashMap<>();
+
+    public CityCentroids() {
+        InputStream resource = CityCentroids.class.getClassLoader().getResourceAsStream(RESOURCE);
+        if (resource == null) {
+            throw new IllegalStateException("Missing " + RESOURCE);
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource, StandardCharsets.UTF_8))) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] columns = line.split(",");
+                centroids.put(key(columns[0], columns[1]),
+                              new Coordinates(Double.parseDouble(columns[2]), Double.parseDouble(columns[3])));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Optional<Coordinates> find(String city, String uf) {
+        if (city == null || uf == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(centroids.get(key(city, uf)));
+    }
+
+    public void locate(Address address) {
+        this.find(address.getCity(), address.getUf()).ifPresent(coordinates -> {
+            address.setLatitude(coordinates.latitude());
+            address.setLongitude(coordinates.longitude());
+        });
+    }
+
+    private static String key(String city, String uf) {
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(city, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(normalized.trim().toLowerCase(Locale.ROOT)).replaceAll(" ") + "|" + uf.trim().toUpperCase(Locale.ROOT);
+    }
+}
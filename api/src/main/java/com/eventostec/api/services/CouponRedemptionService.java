@@ -0,0 +1,354 @@
+package com.eventostec.api.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.eventostec.api.domain.coupon.Coupon;
+import com.eventostec.api.domain.coupon.CouponRedemptionDTO;
+import com.eventostec.api.domain.coupon.CouponStatus;
+import com.eventostec.api.repositories.CouponRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Validates and redeems coupons from an in-memory (eventId, code) index.
+ *
+ * Limited coupons are redeemed against leases: an instance reserves a block of
+ * uses with a conditional UPDATE that can never push reserved_uses past
+ * max_uses, then hands them out with a CAS on a local counter. Only a lease
+ * refill touches the database, so the hot path is lock-free and the coupon
+ * cannot be oversold across instances. Redemptions are added to
+ * redeemed_uses in periodic batches; unused leases are released when an entry
+ * leaves the index, goes idle or the application stops.
+ *
+ * A lease is only used until lease-ttl-millis after it was reserved, and the
+ * coupon row keeps the latest expiry. Uses still reserved one more TTL after
+ * that, left behind by an instance that stopped without releasing them, are
+ * returned by a periodic reconcile. Validating never reserves anything.
+ */
+@Service
+public class CouponRedemptionService {
+    @Value("${coupon.redemption.index-maximum-size:100000}")
+    private long indexMaximumSize;
+
+    @Value("${coupon.redemption.lease-size:50}")
+    private int leaseSize;
+
+    @Value("${coupon.redemption.exhausted-recheck-millis:1000}")
+    private long exhaustedRecheckMillis;
+
+    @Value("${coupon.redemption.lease-idle-millis:60000}")
+    private long leaseIdleMillis;
+
+    @Value("${coupon.redemption.lease-ttl-millis:300000}")
+    private long leaseTtlMillis;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    private static final Logger logger = LoggerFactory.getLogger(CouponRedemptionService.class);
+
+    private static final int MAX_LEASE_ATTEMPTS = 5;
+
+    private Cache<Key, CouponState> index;
+
+    @PostConstruct
+    public void init() {
+        this.index = Caffeine.newBuilder()
+                             .maximumSize(indexMaximumSize)
+                             .expireAfterAccess(Duration.ofMillis(leaseIdleMillis))
+                             .executor(Runnable::run)
+                             .removalListener((Key key, CouponState state, RemovalCause cause) -> {
+                                 if (state != null) {
+                                     this.retire(state);
+                                 }
+                             })
+                             .build();
+    }
+
+    public CouponRedemptionDTO validate(UUID eventId, String code) {
+        CouponState state = index.get(new Key(eventId, code), this::load);
+        if (state == null) {
+            return new CouponRedemptionDTO(code, null, null, CouponStatus.NOT_FOUND);
+        }
+
+        if (state.isExpired()) {
+            return state.toDTO(CouponStatus.EXPIRED);
+        }
+        boolean redeemable = state.maxUses == null || (state.available.get() > 0 && !state.isLeaseExpired()) || this.hasUnreservedUses(state);
+        return state.toDTO(redeemable ? CouponStatus.VALID : CouponStatus.EXHAUSTED);
+    }
+
+    public CouponRedemptionDTO redeem(UUID eventId, String code) {
+        Key key = new Key(eventId, code);
+        CouponState state = index.get(key, this::load);
+        if (state == null) {
+            return new CouponRedemptionDTO(code, null, null, CouponStatus.NOT_FOUND);
+        }
+        if (state.isExpired()) {
+            return state.toDTO(CouponStatus.EXPIRED);
+        }
+        if (state.maxUses == null) {
+            this.addPending(state);
+            return state.toDTO(CouponStatus.VALID);
+        }
+
+        while (true) {
+            int available = state.available.get();
+            if (available > 0 && state.isLeaseExpired()) {
+                this.expireLease(state);
+                continue;
+            }
+            if (available > 0) {
+                if (state.available.compareAndSet(available, available - 1)) {
+                    this.addPending(state);
+                    return state.toDTO(CouponStatus.VALID);
+                }
+                continue;
+            }
+            if (state.retired) {
+                // The entry left the index and released its lease; continue on a freshly loaded one.
+                state = index.get(key, this::load);
+                if (state == null) {
+                    return new CouponRedemptionDTO(code, null, null, CouponStatus.NOT_FOUND);
+                }
+                continue;
+            }
+            if (state.isExhausted() || !this.refill(state)) {
+                if (!state.retired) {
+                    return state.toDTO(CouponStatus.EXHAUSTED);
+                }
+            }
+        }
+    }
+
+    /**
+     * A retire that set retired before this increment may already have
+     * flushed, and the entry is no longer in the index for the scheduled
+     * flush to find, so the redemption is flushed here instead.
+     */
+    private void addPending(CouponState state) {
+        state.pendingRedemptions.incrementAndGet();
+        if (state.retired) {
+            this.flush(state);
+        }
+    }
+
+    /**
+     * Read-only: a limited coupon without a local lease is redeemable while
+     * the database still has unreserved uses. The answer is kept for the
+     * recheck interval either way.
+     */
+    private boolean hasUnreservedUses(CouponState state) {
+        if (state.isExhausted()) {
+            return false;
+        }
+        if (state.isKnownUnreserved()) {
+            return true;
+        }
+        Coupon coupon = couponRepository.findById(state.couponId).orElse(null);
+        if (coupon == null || coupon.getMaxUses() == null) {
+            return coupon != null;
+        }
+        state.observe(coupon.getReservedUses(), this.exhaustedRecheckNanos());
+        return !state.exhausted;
+    }
+
+    /**
+     * Only one thread per coupon refills; the others find the new lease when
+     * they retry their CAS. A failed refill marks the coupon exhausted for a
+     * short while so a sold-out code does not send every attempt to the
+     * database.
+     */
+    private boolean refill(CouponState state) {
+        synchronized (state) {
+            if (state.available.get() > 0) {
+                return true;
+            }
+            if (state.retired) {
+                return false;
+            }
+
+            int requested = Math.min(leaseSize, state.maxUses);
+            for (int attempt = 0; attempt < MAX_LEASE_ATTEMPTS && requested > 0; attempt++) {
+                long expiresAt = System.currentTimeMillis() + leaseTtlMillis;
+                if (couponRepository.reserveUses(state.couponId, requested, new Date(expiresAt)) == 1) {
+                    state.leaseExpiresAt = expiresAt;
+                    state.available.addAndGet(requested);
+                    state.exhausted = false;
+                    return true;
+                }
+                Coupon coupon = couponRepository.findById(state.couponId).orElse(null);
+                requested = coupon != null && coupon.getMaxUses() != null
+                          ? Math.min(requested, coupon.getMaxUses() - coupon.getReservedUses())
+                          : 0;
+            }
+
+            state.markExhausted(this.exhaustedRecheckNanos());
+            return false;
+        }
+    }
+
+    /**
+     * Also retires entries that went idle and gives back leases that expired
+     * while their entry was in use, so neither waits for the next redemption.
+     */
+    @Scheduled(fixedDelayString = "${coupon.redemption.flush-interval-millis:1000}")
+    public void flushRedemptions() {
+        index.cleanUp();
+        List<CouponState> flushed = new ArrayList<>();
+        for (CouponState state : index.asMap().values()) {
+            if (state.isLeaseExpired() && state.available.get() > 0) {
+                this.expireLease(state);
+            }
+            if (state.pendingRedemptions.get() > 0) {
+                flushed.add(state);
+            }
+        }
+        for (CouponState state : flushed) {
+            this.flush(state);
+        }
+    }
+
+    /**
+     * Returns the uses of leases nobody released, once every lease on the
+     * coupon has been expired for a full TTL. Redemptions made under those
+     * leases were flushed long before.
+     */
+    @Scheduled(fixedDelayString = "${coupon.redemption.lease-reconcile-interval-millis:60000}")
+    public void reconcileExpiredLeases() {
+        int reconciled = couponRepository.reconcileExpiredLeases(new Date(System.currentTimeMillis() - leaseTtlMillis));
+        if (reconciled > 0) {
+            logger.info("End - CouponRedemptionService - reconcileExpiredLeases - coupons: {}", reconciled);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        index.invalidateAll();
+        index.cleanUp();
+    }
+
+    private void flush(CouponState state) {
+        int redeemed = state.pendingRedemptions.getAndSet(0);
+        if (redeemed == 0) {
+            return;
+        }
+        try {
+            couponRepository.addRedeemedUses(state.couponId, redeemed);
+        } catch (RuntimeException e) {
+            state.pendingRedemptions.addAndGet(redeemed);
+            logger.error("End - CouponRedemptionService - flush - coupon: {}", state.couponId, e);
+        }
+    }
+
+    private void retire(CouponState state) {
+        synchronized (state) {
+            state.retired = true;
+            this.release(state);
+        }
+        this.flush(state);
+    }
+
+    private void expireLease(CouponState state) {
+        synchronized (state) {
+            if (state.isLeaseExpired()) {
+                this.release(state);
+            }
+        }
+    }
+
+    /**
+     * Gives back the unused part of the lease unless it expired so long ago
+     * that the reconcile may already have returned it.
+     */
+    private void release(CouponState state) {
+        int unused = state.available.getAndSet(0);
+        if (unused > 0 && System.currentTimeMillis() - state.leaseExpiresAt < leaseTtlMillis) {
+            couponRepository.releaseUses(state.couponId, unused);
+        }
+    }
+
+    private CouponState load(Key key) {
+        return couponRepository.findFirstByEventIdAndCode(key.eventId(), key.code())
+                               .map(coupon -> new CouponState(coupon, this.exhaustedRecheckNanos()))
+                               .orElse(null);
+    }
+
+    private long exhaustedRecheckNanos() {
+        return Duration.ofMillis(exhaustedRecheckMillis).toNanos();
+    }
+
+    private record Key(UUID eventId, String code) {
+    }
+
+    private static final class CouponState {
+        private final UUID couponId;
+        private final String code;
+        private final Integer discount;
+        private final Date valid;
+        private final Integer maxUses;
+        private final AtomicInteger available = new AtomicInteger();
+        private final AtomicInteger pendingRedemptions = new AtomicInteger();
+        private volatile boolean exhausted;
+        private volatile long recheckAfterNanos;
+        private volatile boolean retired;
+        private volatile long leaseExpiresAt;
+
+        CouponState(Coupon coupon, long exhaustedRecheckNanos) {
+            this.couponId = coupon.getId();
+            this.code = coupon.getCode();
+            this.discount = coupon.getDiscount();
+            this.valid = coupon.getValid();
+            this.maxUses = coupon.getMaxUses();
+            if (maxUses != null) {
+                this.observe(coupon.getReservedUses(), exhaustedRecheckNanos);
+            }
+        }
+
+        void observe(int reservedUses, long recheckNanos) {
+            this.recheckAfterNanos = System.nanoTime() + recheckNanos;
+            this.exhausted = reservedUses >= maxUses;
+        }
+
+        void markExhausted(long recheckNanos) {
+            this.recheckAfterNanos = System.nanoTime() + recheckNanos;
+            this.exhausted = true;
+        }
+
+        boolean isLeaseExpired() {
+            return System.currentTimeMillis() >= leaseExpiresAt;
+        }
+
+        boolean isKnownUnreserved() {
+            return !exhausted && System.nanoTime() - recheckAfterNanos < 0;
+        }
+
+        boolean isExpired() {
+            return valid != null && valid.before(new Date());
+        }
+
+        boolean isExhausted() {
+            return maxUses != null && available.get() == 0 && exhausted && System.nanoTime() - recheckAfterNanos < 0;
+        }
+
+        CouponRedemptionDTO toDTO(CouponStatus status) {
+            return new CouponRedemptionDTO(code, discount, valid, status);
+        }
+    }
+}
@@ -1,42 +1,236 @@
 package com.eventostec.api.services;
 
+import java.security.SecureRandom;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.eventostec.api.domain.coupon.Coupon;
+import com.eventostec.api.domain.coupon.CouponAdded;
+import com.eventostec.api.domain.coupon.CouponBatchProgressDTO;
+import com.eventostec.api.domain.coupon.CouponBatchRequestDTO;
 import com.eventostec.api.domain.coupon.CouponRequestDTO;
+import com.eventostec.api.domain.diagnostics.CouponJfrEvent;
 import com.eventostec.api.domain.event.Event;
 import com.eventostec.api.repositories.CouponRepository;
 import com.eventostec.api.repositories.EventRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 @Service
 public class CouponService {
+    private static final String CODE_ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+    private static final int MIN_CODE_LENGTH = 6;
+    private static final int MAX_CODE_LENGTH = 32;
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    @Value("${coupon.batch.chunk-size:5000}")
+    private int batchChunkSize;
+
+    @Value("${coupon.batch.max-quantity:100000}")
+    private int batchMaxQuantity;
+
     @Autowired
     private CouponRepository couponRepository;
 
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EventDataVersion eventDataVersion;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private static final Logger logger = LoggerFactory.getLogger(CouponService.class);
+
     public Coupon addCouponToEvent(UUID eventId, CouponRequestDTO couponRequestDTO) {
+        if (couponRequestDTO.maxUses() != null && couponRequestDTO.maxUses() < 1) {
+            throw new IllegalArgumentException("Max uses must be at least 1");
+        }
+        CouponJfrEvent jfrEvent = new CouponJfrEvent();
+        jfrEvent.begin();
         Event event = eventRepository.findById(eventId).orElseThrow(() -> new IllegalArgumentException("Event not found"));
 
         Coupon coupon = new Coupon();
         coupon.setCode(couponRequestDTO.code());
         coupon.setDiscount(couponRequestDTO.discount());
         coupon.setValid(new Date(couponRequestDTO.valid()));
+        coupon.setMaxUses(couponRequestDTO.maxUses());
         coupon.setEvent(event);
 
-        couponRepository.save(coupon);
+        try {
+            couponRepository.save(coupon);
+        } catch (DataIntegrityViolationException e) {
+            if (!isUniqueViolation(e)) {
+                throw e;
+            }
+            throw new IllegalArgumentException("Coupon code already exists for this event");
+        }
+        eventPublisher.publishEvent(new CouponAdded(eventId, coupon.getCode(), coupon.getValid()));
+        eventDataVersion.changed();
+        this.commit(jfrEvent, "addCouponToEvent", eventId, 1);
 
         return coupon;
     }
 
+    public void validateBatch(UUID eventId, CouponBatchRequestDTO request) {
+        if (request.quantity() == null || request.quantity() < 1 || request.quantity() > batchMaxQuantity) {
+            throw new IllegalArgumentException("Quantity must be between 1 and " + batchMaxQuantity);
+        }
+        if (request.discount() == null || request.valid() == null) {
+            throw new IllegalArgumentException("Discount and valid are required");
+        }
+        int codeLength = this.codeLength(request);
+        if (codeLength < MIN_CODE_LENGTH || codeLength > MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException("Code length must be between " + MIN_CODE_LENGTH + " and " + MAX_CODE_LENGTH);
+        }
+        if (request.prefix() != null && !request.prefix().trim().matches("[A-Za-z0-9-]{0,32}")) {
+            throw new IllegalArgumentException("Prefix must have at most 32 letters, digits or dashes");
+        }
+        if (!eventRepository.existsById(eventId)) {
+            throw new IllegalArgumentException("Event not found");
+        }
+    }
+
+    /**
+     * Generates quantity single-use codes for the event. Existing codes are
+     * loaded once into a set, so uniqueness is checked in memory instead of
+     * with one query per code; codes are then inserted in chunks of one
+     * transaction each and every committed chunk is reported to progress.
+     * A concurrent batch for the same event can take a code after the set
+     * was loaded; the unique index on (event_id, code) then rejects the
+     * chunk, which is regenerated against a fresh set and retried.
+     */
+    public void generateCoupons(UUID eventId, CouponBatchRequestDTO request, Consumer<CouponBatchProgressDTO> progress) {
+        this.validateBatch(eventId, request);
+        logger.info("Start - CouponService - generateCoupons - eventId: {}, quantity: {}", eventId, request.quantity());
+        CouponJfrEvent jfrEvent = new CouponJfrEvent();
+        jfrEvent.begin();
+
+        String prefix = request.prefix() != null ? request.prefix().trim().toUpperCase(Locale.ROOT) : "";
+        int codeLength = this.codeLength(request);
+        Date valid = new Date(request.valid());
+        Set<String> taken = new HashSet<>(couponRepository.findCodesByEventId(eventId));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        int inserted = 0;
+        while (inserted < request.quantity()) {
+            int chunkSize = Math.min(batchChunkSize, request.quantity() - inserted);
+            List<String> codes = this.newCodes(taken, prefix, codeLength, chunkSize);
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    List<String> chunk = codes;
+                    transactionTemplate.executeWithoutResult(status -> this.insertCoupons(eventId, chunk, request.discount(), valid));
+                    break;
+                } catch (RuntimeException e) {
+                    if (!isUniqueViolation(e) || attempt == MAX_CHUNK_ATTEMPTS) {
+                        throw e;
+                    }
+                    logger.warn("End - CouponService - generateCoupons - eventId: {}, code taken concurrently, attempt: {}", eventId, attempt);
+                    taken.addAll(couponRepository.findCodesByEventId(eventId));
+                    codes = this.newCodes(taken, prefix, codeLength, chunkSize);
+                }
+            }
+
+            inserted += codes.size();
+            eventPublisher.publishEvent(new CouponAdded(eventId, codes.get(codes.size() - 1), valid));
+            eventDataVersion.changed();
+            progress.accept(new CouponBatchProgressDTO(inserted, request.quantity(), codes));
+        }
+
+        this.commit(jfrEvent, "generateCoupons", eventId, inserted);
+        logger.info("End - CouponService - generateCoupons - eventId: {}, inserted: {}", eventId, inserted);
+    }
+
+    private List<String> newCodes(Set<String> taken, String prefix, int codeLength, int count) {
+        List<String> codes = new ArrayList<>(count);
+        while (codes.size() < count) {
+            String code = prefix + this.randomCode(codeLength);
+            if (taken.add(code)) {
+                codes.add(code);
+            }
+        }
+        return codes;
+    }
+
+    private void insertCoupons(UUID eventId, List<String> codes, Integer discount, Date valid) {
+        Event event = entityManager.getReference(Event.class, eventId);
+        for (String code : codes) {
+            Coupon coupon = new Coupon();
+            coupon.setCode(code);
+            coupon.setDiscount(discount);
+            coupon.setValid(valid);
+            coupon.setMaxUses(1);
+            coupon.setEvent(event);
+            entityManager.persist(coupon);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static boolean isUniqueViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String randomCode(int length) {
+        char[] code = new char[length];
+        for (int i = 0; i < length; i++) {
+            code[i] = CODE_ALPHABET.charAt(random.nextInt(CODE_ALPHABET.length()));
+        }
+        return new String(code);
+    }
+
+    private int codeLength(CouponBatchRequestDTO request) {
+        return request.codeLength() != null ? request.codeLength() : 10;
+    }
+
     List<Coupon> consultCoupons(UUID eventId, Date date) {
-        return this.couponRepository.findByEventIdAndValidAfter(eventId, date);
+        CouponJfrEvent jfrEvent = new CouponJfrEvent();
+        jfrEvent.begin();
+        List<Coupon> coupons = this.couponRepository.findByEventIdAndValidAfter(eventId, date);
+        this.commit(jfrEvent, "consultCoupons", eventId, coupons.size());
+        return coupons;
+    }
+
+    private void commit(CouponJfrEvent jfrEvent, String operation, UUID eventId, int rows) {
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.operation = operation;
+            jfrEvent.eventId = String.valueOf(eventId);
+            jfrEvent.rows = rows;
+            jfrEvent.commit();
+        }
     }
     
 }
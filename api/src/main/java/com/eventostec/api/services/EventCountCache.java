@@ -0,0 +1,107 @@
+package com.eventostec.api.services;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.eventostec.api.domain.cache.CacheStatsDTO;
+import com.eventostec.api.repositories.EventRepository;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Row counts behind approximate listing totals. Each listing or filter pays
+ * for its COUNT once; after the refresh window the stale count keeps being
+ * served while Caffeine recounts in the background, so no request waits on a
+ * count except the first one for a given filter.
+ */
+@Service
+public class EventCountCache {
+    @Value("${event.cache.count.maximum-size:1000}")
+    private long maximumSize;
+
+    @Value("${event.cache.count.refresh-after-seconds:60}")
+    private long refreshAfterSeconds;
+
+    @Value("${event.cache.count.expire-after-seconds:600}")
+    private long expireAfterSeconds;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    private LoadingCache<Key, Long> counts;
+    private final LongAdder refreshCount = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        this.counts = Caffeine.newBuilder()
+                              .maximumSize(maximumSize)
+                              .refreshAfterWrite(Duration.ofSeconds(refreshAfterSeconds))
+                              .expireAfterWrite(Duration.ofSeconds(expireAfterSeconds))
+                              .recordStats()
+                              .build(new CacheLoader<Key, Long>() {
+                                  @Override
+                                  public Long load(Key key) {
+                                      return count(key);
+                                  }
+
+                                  @Override
+                                  public Long reload(Key key, Long oldValue) {
+                                      refreshCount.increment();
+                                      return count(key);
+                                  }
+                              });
+    }
+
+    public long upcoming() {
+        return counts.get(Key.UPCOMING);
+    }
+
+    public long older() {
+        return counts.get(Key.OLDER);
+    }
+
+    /**
+     * Filter values are the ones the client sent, null meaning "not filtered",
+     * so the moving end date default does not split the key space.
+     */
+    public long filtered(String title, String city, String uf, Date startDate, Date endDate) {
+        return counts.get(new Key("filtered", title, city, uf, startDate, endDate));
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats stats = counts.stats();
+        return new CacheStatsDTO("event-count",
+                                 counts.estimatedSize(),
+                                 stats.hitCount(),
+                                 stats.missCount(),
+                                 stats.evictionCount(),
+                                 refreshCount.sum());
+    }
+
+    private long count(Key key) {
+        Date now = new Date();
+        return switch (key.listing()) {
+            case "upcoming" -> eventRepository.countUpComingEvents(now);
+            case "older" -> eventRepository.countOlderEvents(now);
+            default -> eventRepository.countFilteredEvents(key.title() != null ? key.title() : "",
+                                                           key.city() != null ? key.city() : "",
+                                                           key.uf() != null ? key.uf() : "",
+                                                           key.startDate() != null ? key.startDate() : new Date(0),
+                                                           key.endDate() != null ? key.endDate() : now);
+        };
+    }
+
+    private record Key(String listing, String title, String city, String uf, Date startDate, Date endDate) {
+        static final Key UPCOMING = new Key("upcoming", null, null, null, null, null);
+        static final Key OLDER = new Key("older", null, null, null, null, null);
+    }
+}
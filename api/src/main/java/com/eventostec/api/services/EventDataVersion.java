@@ -0,0 +1,68 @@
+package com.eventostec.api.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Version of the event data behind the conditional GETs, bumped by every
+ * write that can change a listing or details body. Callers bump it after
+ * publishing their change, once the caches have already been invalidated,
+ * and read it before loading a body, so a tag never vouches for older data
+ * than it was issued with.
+ *
+ * Listings and coupon validity also move with the clock, so the tag rolls
+ * over every time bucket even without writes. The startup time keeps tags
+ * from two instances or two runs from matching.
+ *
+ * Only an ETag is issued, never Last-Modified: a date has one-second
+ * resolution, so a write in the same second as a cached response, or a
+ * coupon expiring inside the bucket, would still answer If-Modified-Since
+ * with a stale 304.
+ *
+ * The version is kept in memory and only sees this instance's writes, which
+ * assumes a single node. Behind a load balancer a tag from one instance never
+ * matches on another, so no stale 304 is served across nodes, but a write on
+ * one instance reaches another's cached bodies only once those expire: one
+ * time bucket for response bytes and the listing and details cache TTLs
+ * beneath them. Running several instances with read-your-writes needs sticky
+ * sessions, or a version kept in shared state.
+ */
+@Service
+public class EventDataVersion {
+    @Value("${event.etag.time-bucket-seconds:15}")
+    private long timeBucketSeconds;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+    private volatile long changedAt = System.currentTimeMillis();
+
+    public void changed() {
+        version.incrementAndGet();
+        changedAt = System.currentTimeMillis();
+    }
+
+    public long changedAt() {
+        return changedAt;
+    }
+
+    public Tag current() {
+        long bucket = System.currentTimeMillis() / (timeBucketSeconds * 1000);
+        return new Tag("\"" + epoch + "-" + version.get() + "-" + bucket + "\"");
+    }
+
+    public record Tag(String etag) {
+        /**
+         * The tag of a body that also changes at expiresAt, before the
+         * bucket ends, so an If-None-Match from before that time no longer
+         * matches after it.
+         */
+        public Tag until(long expiresAt) {
+            if (expiresAt == Long.MAX_VALUE) {
+                return this;
+            }
+            return new Tag(etag.substring(0, etag.length() - 1) + "-" + Long.toString(expiresAt, 36) + "\"");
+        }
+    }
+}
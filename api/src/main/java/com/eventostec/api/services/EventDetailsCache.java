@@ -0,0 +1,100 @@
+package com.eventostec.api.services;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.eventostec.api.domain.cache.CacheStatsDTO;
+import com.eventostec.api.domain.coupon.CouponAdded;
+import com.eventostec.api.domain.event.EventDetailsDTO;
+import com.eventostec.api.domain.event.EventImageUploaded;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cache for event details. Details only list coupons that are still valid, so
+ * each entry expires when the earliest of its coupons does (or after the
+ * configured maximum when it has none) and is dropped as soon as a coupon is
+ * added to the event.
+ */
+@Service
+public class EventDetailsCache {
+    @Value("${event.cache.details.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${event.cache.details.expire-after-seconds:300}")
+    private long expireAfterSeconds;
+
+    private Cache<UUID, Entry> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = Caffeine.newBuilder()
+                             .maximumSize(maximumSize)
+                             .expireAfter(new CouponExpiry())
+                             .executor(Runnable::run)
+                             .recordStats()
+                             .build();
+    }
+
+    public EventDetailsDTO get(UUID eventId, Function<UUID, EventDetailsDTO> loader) {
+        return cache.get(eventId, missing -> this.toEntry(loader.apply(missing))).value();
+    }
+
+    @EventListener
+    public void onCouponAdded(CouponAdded added) {
+        this.invalidate(added.eventId());
+    }
+
+    @EventListener
+    public void onEventImageUploaded(EventImageUploaded uploaded) {
+        this.invalidate(uploaded.eventId());
+    }
+
+    public void invalidate(UUID eventId) {
+        cache.invalidate(eventId);
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO("event-details",
+                                 cache.estimatedSize(),
+                                 stats.hitCount(),
+                                 stats.missCount(),
+                                 stats.evictionCount(),
+                                 0);
+    }
+
+    private Entry toEntry(EventDetailsDTO details) {
+        long expiresAt = System.currentTimeMillis() + Duration.ofSeconds(expireAfterSeconds).toMillis();
+        return new Entry(details, Math.min(expiresAt, details.earliestCouponExpiry()));
+    }
+
+    private record Entry(EventDetailsDTO value, long expiresAt) {
+    }
+
+    private static final class CouponExpiry implements Expiry<UUID, Entry> {
+        @Override
+        public long expireAfterCreate(UUID key, Entry entry, long currentTime) {
+            return Duration.ofMillis(Math.max(0, entry.expiresAt() - System.currentTimeMillis())).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID key, Entry entry, long currentTime, long currentDuration) {
+            return this.expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
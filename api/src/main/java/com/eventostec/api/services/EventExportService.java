@@ -0,0 +1,133 @@
+package com.eventostec.api.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.eventostec.api.domain.coupon.EventCouponSummary;
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventDetailsDTO;
+import com.eventostec.api.domain.event.EventExportRowDTO;
+import com.eventostec.api.repositories.CouponRepository;
+import com.eventostec.api.repositories.EventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Streams the event history as NDJSON in a single pass over a server-side
+ * cursor. Rows are written in chunks: coupons for a chunk are loaded with one
+ * IN query, and the persistence context is cleared after every chunk, so heap
+ * use stays flat however many events are exported.
+ */
+@Service
+public class EventExportService {
+    @Value("${event.export.chunk-size:500}")
+    private int chunkSize;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final Logger logger = LoggerFactory.getLogger(EventExportService.class);
+
+    public long exportHistory(boolean includeCoupons, OutputStream outputStream) throws IOException {
+        logger.info("Start - EventExportService - exportHistory - includeCoupons: {}", includeCoupons);
+        long start = System.nanoTime();
+
+        // PostgreSQL only honours the fetch size inside a transaction; outside one the driver buffers the whole result.
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        Long exported;
+        try {
+            exported = transactionTemplate.execute(status -> {
+                long count = 0;
+                List<Event> chunk = new ArrayList<>(chunkSize);
+                try (Stream<Event> events = eventRepository.streamOlderEvents(new Date())) {
+                    for (Event event : (Iterable<Event>) events::iterator) {
+                        chunk.add(event);
+                        if (chunk.size() >= chunkSize) {
+                            count += this.writeChunk(chunk, includeCoupons, outputStream);
+                            chunk.clear();
+                        }
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    count += this.writeChunk(chunk, includeCoupons, outputStream);
+                }
+                return count;
+            });
+        } catch (UncheckedIOException e) {
+            logger.error("End - EventExportService - exportHistory - client stopped reading");
+            throw e.getCause();
+        }
+
+        logger.info("End - EventExportService - exportHistory - exported: {}, elapsed ms: {}",
+                    exported, (System.nanoTime() - start) / 1_000_000);
+        return exported;
+    }
+
+    private int writeChunk(List<Event> chunk, boolean includeCoupons, OutputStream outputStream) {
+        Map<UUID, List<EventDetailsDTO.CouponDTO>> coupons = includeCoupons ? this.loadCoupons(chunk) : Map.of();
+        try {
+            for (Event event : chunk) {
+                EventExportRowDTO row = new EventExportRowDTO(
+                    event.getId(),
+                    event.getTitle(),
+                    event.getDescription(),
+                    event.getData(),
+                    event.getRemote(),
+                    event.getEventUrl(),
+                    event.getImgUrl(),
+                    event.getAddress() != null ? event.getAddress().getCity() : "",
+                    event.getAddress() != null ? event.getAddress().getUf() : "",
+                    includeCoupons ? coupons.getOrDefault(event.getId(), List.of()) : null);
+                outputStream.write(objectMapper.writeValueAsBytes(row));
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        entityManager.clear();
+        return chunk.size();
+    }
+
+    private Map<UUID, List<EventDetailsDTO.CouponDTO>> loadCoupons(List<Event> chunk) {
+        List<UUID> eventIds = chunk.stream().map(Event::getId).toList();
+        Map<UUID, List<EventDetailsDTO.CouponDTO>> coupons = new HashMap<>();
+        for (EventCouponSummary coupon : couponRepository.findSummariesByEventIdIn(eventIds)) {
+            coupons.computeIfAbsent(coupon.getEventId(), id -> new ArrayList<>())
+                   .add(new EventDetailsDTO.CouponDTO(coupon.getCode(), coupon.getDiscount(), coupon.getValid()));
+        }
+        return coupons;
+    }
+}
@@ -0,0 +1,452 @@
+package com.eventostec.api.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.eventostec.api.domain.event.EventCreated;
+import com.eventostec.api.domain.event.EventFacetCell;
+import com.eventostec.api.domain.event.EventFacetRow;
+import com.eventostec.api.domain.event.EventFacetsDTO;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.EventsImported;
+import com.eventostec.api.repositories.EventRepository;
+
+/**
+ * Facet counts for the filter endpoint, kept as aggregate counters that are
+ * loaded once at startup and incremented from EventCreated and
+ * EventsImported. Counters are grouped by month and then by city, uf and
+ * remote flag. Cells of the current and later months keep their sorted event
+ * dates, so a range that starts or ends inside one of them is counted
+ * exactly; cells of past months keep only their count, and the rare range
+ * that cuts one of those months reads just that month from the grouped query.
+ *
+ * A title filter cannot be answered from the counters; those requests, and
+ * any made before the counters are built, read every facet in one grouped
+ * query instead, or from the search index with the "memory" engine. City and
+ * uf match the way the configured search engine's listing does.
+ */
+@Service
+public class EventFacetCounts {
+    private static final int BUILD_BATCH_SIZE = 1000;
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    @Value("${event.facets.city-limit:50}")
+    private int cityLimit;
+
+    @Value("${event.search.engine:like}")
+    private String searchEngine;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventSearchIndex eventSearchIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static final Logger logger = LoggerFactory.getLogger(EventFacetCounts.class);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Integer, Map<Cell, Dates>> months = new TreeMap<>();
+    private final Map<UUID, EventResponseDTO> pending = new LinkedHashMap<>();
+    private int openMonth = month(new Date());
+    private int size;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Reads every event in one repeatable-read snapshot. Events created until
+     * the counters are ready are held back and only counted if the snapshot
+     * did not already contain them, so each event is counted once without
+     * remembering the ids of all of them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        logger.info("Start - EventFacetCounts - build");
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        transactionTemplate.executeWithoutResult(status -> {
+            UUID lastId = FIRST_ID;
+            List<EventFacetRow> batch;
+            do {
+                batch = eventRepository.findFacetBatch(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+                for (EventFacetRow row : batch) {
+                    this.add(row.date(), row.city(), row.uf(), row.remote());
+                    lastId = row.id();
+                }
+            } while (batch.size() == BUILD_BATCH_SIZE);
+
+            lock.writeLock().lock();
+            try {
+                if (!pending.isEmpty()) {
+                    Set<UUID> counted = new HashSet<>(eventRepository.findExistingIds(new ArrayList<>(pending.keySet())));
+                    for (EventResponseDTO event : pending.values()) {
+                        if (!counted.contains(event.id())) {
+                            this.count(event.date(), event.city(), event.uf(), event.remote());
+                        }
+                    }
+                    pending.clear();
+                }
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+
+        logger.info("End - EventFacetCounts - build - events: {}", this.size());
+    }
+
+    /**
+     * EventCreated and EventsImported are published once per event, so after
+     * the build every event is simply counted.
+     */
+    @EventListener
+    public void onEventCreated(EventCreated created) {
+        this.created(List.of(created.event()));
+    }
+
+    @EventListener
+    public void onEventsImported(EventsImported imported) {
+        this.created(imported.events());
+    }
+
+    private void created(List<EventResponseDTO> events) {
+        lock.writeLock().lock();
+        try {
+            for (EventResponseDTO event : events) {
+                if (!ready) {
+                    pending.put(event.id(), event);
+                } else {
+                    this.count(event.date(), event.city(), event.uf(), event.remote());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(Date date, String city, String uf, Boolean remote) {
+        lock.writeLock().lock();
+        try {
+            this.count(date, city, uf, remote);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Once a month is over its dates are only needed by ranges that cut it,
+     * so its cells drop them and keep their count.
+     */
+    @Scheduled(fixedDelay = 1, initialDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void compact() {
+        int currentMonth = month(new Date());
+        lock.writeLock().lock();
+        try {
+            if (currentMonth > openMonth) {
+                months.subMap(openMonth, currentMonth).values().forEach(cells -> cells.values().forEach(Dates::compact));
+                openMonth = currentMonth;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Filters match the way the listing of the search engine does: city and
+     * uf by substring for "like", city by case-insensitive substring and uf
+     * by case-insensitive equality for "fulltext", and every folded term
+     * (the last one as a prefix) for "memory", which also answers title
+     * filters from its index. Dates are inclusive and null values mean "not
+     * filtered".
+     */
+    public EventFacetsDTO facets(String title, String city, String uf, Date startDate, Date endDate) {
+        String titleFilter = title != null ? title : "";
+        String cityFilter = city != null ? city : "";
+        String ufFilter = uf != null ? uf : "";
+        Date start = startDate != null ? startDate : new Date(0);
+        Date end = endDate != null ? endDate : new Date();
+        String engine = this.engine();
+        Facets facets = new Facets();
+
+        if (!titleFilter.isEmpty() || !ready) {
+            this.addCells(facets, engine, titleFilter, cityFilter, ufFilter, start, end);
+            return facets.toDTO(cityLimit);
+        }
+
+        int startMonth = month(start);
+        int endMonth = month(end);
+        if (startMonth > endMonth) {
+            return facets.toDTO(cityLimit);
+        }
+
+        Filter filter = Filter.of(engine, cityFilter, ufFilter);
+        List<Integer> compactedBoundaries = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Integer, Map<Cell, Dates>> month : months.subMap(startMonth, true, endMonth, true).entrySet()) {
+                boolean boundary = start.getTime() > monthStart(month.getKey()) || end.getTime() < monthStart(month.getKey() + 1) - 1;
+                if (boundary && month.getKey() < openMonth) {
+                    compactedBoundaries.add(month.getKey());
+                    continue;
+                }
+                for (Map.Entry<Cell, Dates> entry : month.getValue().entrySet()) {
+                    Cell cell = entry.getKey();
+                    if (!filter.matches(cell)) {
+                        continue;
+                    }
+                    long count = boundary ? entry.getValue().count(start.getTime(), end.getTime()) : entry.getValue().size;
+                    if (count > 0) {
+                        facets.add(cell.city(), cell.uf(), cell.remote(), month.getKey(), count);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        for (int month : compactedBoundaries) {
+            Date from = new Date(Math.max(start.getTime(), monthStart(month)));
+            Date to = new Date(Math.min(end.getTime(), monthStart(month + 1) - 1));
+            this.addCells(facets, engine, "", cityFilter, ufFilter, from, to);
+        }
+        return facets.toDTO(cityLimit);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The engine the listing uses right now; "memory" lists with "like"
+     * until its index is built.
+     */
+    private String engine() {
+        if ("memory".equals(searchEngine) && !eventSearchIndex.isReady()) {
+            return "like";
+        }
+        return searchEngine;
+    }
+
+    private void addCells(Facets facets, String engine, String title, String city, String uf, Date start, Date end) {
+        List<EventFacetCell> cells = switch (engine) {
+            case "fulltext" -> eventRepository.findFullTextFacetCells(title, city, uf, start, end);
+            case "memory" -> eventSearchIndex.facetCells(title, city, uf, start, end);
+            default -> eventRepository.findFacetCells(title, city, uf, start, end);
+        };
+        for (EventFacetCell cell : cells) {
+            facets.add(cell.city(), cell.uf(), Boolean.TRUE.equals(cell.remote()), cell.year() * 12 + cell.month() - 1, cell.count());
+        }
+    }
+
+    /**
+     * Callers hold the write lock.
+     */
+    private void count(Date date, String city, String uf, Boolean remote) {
+        if (date == null) {
+            return;
+        }
+        int month = month(date);
+        Cell cell = new Cell(blankToNull(city), blankToNull(uf), Boolean.TRUE.equals(remote));
+        months.computeIfAbsent(month, key -> new HashMap<>())
+              .computeIfAbsent(cell, key -> new Dates(month >= openMonth))
+              .add(date.getTime());
+        size++;
+    }
+
+    /**
+     * Months in the JVM time zone, the one Hibernate writes event dates in,
+     * so they agree with extract(month) in the grouped query.
+     */
+    private static int month(Date date) {
+        LocalDateTime dateTime = LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+        return dateTime.getYear() * 12 + dateTime.getMonthValue() - 1;
+    }
+
+    private static long monthStart(int month) {
+        return LocalDate.of(month / 12, month % 12 + 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private record Cell(String city, String uf, boolean remote) {
+    }
+
+    /**
+     * The city and uf filters of one request, prepared once for the match
+     * rule of the engine.
+     */
+    private interface Filter {
+        boolean matches(Cell cell);
+
+        static Filter of(String engine, String city, String uf) {
+            switch (engine) {
+                case "fulltext": {
+                    String lowerCity = city.toLowerCase(Locale.ROOT);
+                    return cell -> (city.isEmpty() || (cell.city() != null && cell.city().toLowerCase(Locale.ROOT).contains(lowerCity)))
+                                   && (uf.isEmpty() || uf.equalsIgnoreCase(cell.uf()));
+                }
+                case "memory": {
+                    List<String> cityTerms = EventSearchIndex.tokenize(city);
+                    List<String> ufTerms = EventSearchIndex.tokenize(uf);
+                    return cell -> termsMatch(cityTerms, cell.city()) && termsMatch(ufTerms, cell.uf());
+                }
+                default:
+                    return cell -> (city.isEmpty() || (cell.city() != null && cell.city().contains(city)))
+                                   && (uf.isEmpty() || (cell.uf() != null && cell.uf().contains(uf)));
+            }
+        }
+
+        /**
+         * EventSearchIndex's rule: every term is a token of the value, the
+         * last one a prefix of one.
+         */
+        private static boolean termsMatch(List<String> terms, String value) {
+            if (terms.isEmpty()) {
+                return true;
+            }
+            List<String> tokens = EventSearchIndex.tokenize(value);
+            for (int i = 0; i < terms.size() - 1; i++) {
+                if (!tokens.contains(terms.get(i))) {
+                    return false;
+                }
+            }
+            String last = terms.get(terms.size() - 1);
+            return tokens.stream().anyMatch(token -> token.startsWith(last));
+        }
+    }
+
+    /**
+     * Sorted event dates of one counter cell. Cells hold the events of a
+     * single month, so inserts stay cheap; once the month is compacted only
+     * the count is kept.
+     */
+    private static final class Dates {
+        private long[] values;
+        private int size;
+
+        Dates(boolean open) {
+            values = open ? new long[4] : null;
+        }
+
+        void add(long value) {
+            if (values == null) {
+                size++;
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int index = this.lowerBound(value);
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+        }
+
+        void compact() {
+            values = null;
+        }
+
+        long count(long from, long to) {
+            return this.lowerBound(to + 1) - this.lowerBound(from);
+        }
+
+        private int lowerBound(long value) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (values[middle] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class Facets {
+        private final Map<String, Long> uf = new HashMap<>();
+        private final Map<String, Long> city = new HashMap<>();
+        private final TreeMap<Integer, Long> month = new TreeMap<>();
+        private long remote;
+        private long inPerson;
+
+        void add(String cityValue, String ufValue, boolean isRemote, int monthValue, long count) {
+            if (ufValue != null && !ufValue.isBlank()) {
+                uf.merge(ufValue, count, Long::sum);
+            }
+            if (cityValue != null && !cityValue.isBlank()) {
+                city.merge(cityValue, count, Long::sum);
+            }
+            month.merge(monthValue, count, Long::sum);
+            if (isRemote) {
+                remote += count;
+            } else {
+                inPerson += count;
+            }
+        }
+
+        EventFacetsDTO toDTO(int cityLimit) {
+            Map<String, Long> months = new LinkedHashMap<>();
+            month.forEach((key, count) -> months.put(String.format("%04d-%02d", key / 12, key % 12 + 1), count));
+
+            Map<String, Long> remoteFacet = new LinkedHashMap<>();
+            remoteFacet.put("remote", remote);
+            remoteFacet.put("inPerson", inPerson);
+
+            return new EventFacetsDTO(byCount(uf, Integer.MAX_VALUE), byCount(city, cityLimit), months, remoteFacet);
+        }
+
+        private static Map<String, Long> byCount(Map<String, Long> counts, int limit) {
+            Map<String, Long> sorted = new LinkedHashMap<>();
+            counts.entrySet().stream()
+                  .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                  .limit(limit)
+                  .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.eventostec.api.services;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.eventostec.api.domain.event.EventCreated;
+import com.eventostec.api.domain.event.EventsImported;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Server-Sent Events feed of created events. Subscribers are async servlet
+ * requests, so an idle one holds a connection and a small queue but no
+ * thread; a few dispatch threads write to whichever subscribers have
+ * something queued. Each event is encoded once and the same frame is queued
+ * for every subscriber; a chunk of imported events is a single
+ * "events-imported" message.
+ *
+ * Queues are bounded: a subscriber that falls subscriber-buffer-size frames
+ * behind is disconnected, and its reconnect resumes from Last-Event-ID out of
+ * the last replay-size events. Ids are "epoch-sequence" with the epoch
+ * changing on every start, so a resume that cannot be served exactly, after a
+ * restart or a gap longer than the replay window, gets a "reset" event
+ * telling the client to reload the listing instead.
+ *
+ * Writes are blocking, so a client that stops reading holds its dispatch
+ * thread until the container gives up on the write. A send that takes longer
+ * than write-timeout-millis disconnects the subscriber and adds a thread to
+ * the pool for as long as the send stays blocked, so the other subscribers
+ * keep dispatch-threads writers.
+ */
+@Service
+public class EventFeedService {
+    static final String EVENT_CREATED = "event-created";
+    static final String EVENTS_IMPORTED = "events-imported";
+    static final String RESET = "reset";
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    @Value("${event.feed.replay-size:256}")
+    private int replaySize;
+
+    @Value("${event.feed.subscriber-buffer-size:256}")
+    private int subscriberBufferSize;
+
+    @Value("${event.feed.max-subscribers:50000}")
+    private int maxSubscribers;
+
+    @Value("${event.feed.timeout-millis:1800000}")
+    private long timeoutMillis;
+
+    @Value("${event.feed.dispatch-threads:4}")
+    private int dispatchThreads;
+
+    @Value("${event.feed.write-timeout-millis:10000}")
+    private long writeTimeoutMillis;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final Logger logger = LoggerFactory.getLogger(EventFeedService.class);
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private Frame[] ring;
+    private long sequence;
+    private ThreadPoolExecutor executor;
+    private int stalledSends;
+
+    @PostConstruct
+    public void init() {
+        this.ring = new Frame[replaySize];
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "event-feed-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (Subscriber subscriber : subscribers) {
+            this.close(subscriber);
+        }
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    public boolean acceptsSubscribers() {
+        return subscribers.size() < maxSubscribers;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * A new emitter that first receives what was published after
+     * lastEventId, when given, and then every event as it is created.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = this.createEmitter();
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> this.remove(subscriber));
+        emitter.onTimeout(() -> this.close(subscriber));
+        emitter.onError(error -> this.remove(subscriber));
+
+        // Replaying and registering under the ring lock means every frame is either replayed here or fanned out later.
+        synchronized (this) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                long missedFrom = this.resumeSequence(lastEventId.trim());
+                if (missedFrom < 0) {
+                    this.enqueue(subscriber, this.resetFrame());
+                } else {
+                    for (long next = missedFrom; next <= sequence; next++) {
+                        this.enqueue(subscriber, ring[(int) (next % replaySize)]);
+                    }
+                }
+            }
+            synchronized (subscriber) {
+                subscriber.lastSequence = sequence;
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    /**
+     * Runs after the creating transaction commits, or right away when the
+     * event was saved outside one, so subscribers never see a rolled-back
+     * event.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventCreated(EventCreated created) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(created.event());
+        } catch (JsonProcessingException e) {
+            logger.error("End - EventFeedService - onEventCreated - eventId: {}", created.event().id(), e);
+            return;
+        }
+        this.publish(EVENT_CREATED, json);
+    }
+
+    /**
+     * A committed import chunk goes out as one message holding the array of
+     * its events, so an import queues one frame per chunk rather than one per
+     * row and does not overflow subscriber queues.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventsImported(EventsImported imported) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(imported.events());
+        } catch (JsonProcessingException e) {
+            logger.error("End - EventFeedService - onEventsImported - events: {}", imported.events().size(), e);
+            return;
+        }
+        this.publish(EVENTS_IMPORTED, json);
+    }
+
+    private void publish(String name, String json) {
+        Frame frame;
+        synchronized (this) {
+            long next = sequence + 1;
+            frame = new Frame(next, SseEmitter.event().id(this.eventId(next)).name(name).data(json).build());
+            ring[(int) (next % replaySize)] = frame;
+            sequence = next;
+        }
+        for (Subscriber subscriber : subscribers) {
+            this.enqueue(subscriber, frame);
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and finds the ones whose
+     * client has gone away.
+     */
+    @Scheduled(fixedDelayString = "${event.feed.heartbeat-millis:20000}")
+    public void heartbeat() {
+        Frame heartbeat = new Frame(0, HEARTBEAT);
+        for (Subscriber subscriber : subscribers) {
+            this.enqueue(subscriber, heartbeat);
+        }
+    }
+
+    /**
+     * Disconnects subscribers whose send has been blocked for longer than
+     * write-timeout-millis. The emitter is completed once that send returns,
+     * since completing it waits for the send.
+     */
+    @Scheduled(fixedDelayString = "${event.feed.write-check-millis:1000}")
+    public void expireStalledWrites() {
+        long deadline = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        for (Subscriber subscriber : subscribers) {
+            boolean stalled;
+            synchronized (subscriber) {
+                stalled = subscriber.sending && !subscriber.stalled && subscriber.sendStartedAt - deadline < 0;
+                subscriber.stalled |= stalled;
+            }
+            if (stalled) {
+                logger.warn("End - EventFeedService - expireStalledWrites - send blocked for over {} ms, disconnecting", writeTimeoutMillis);
+                this.resizeDispatch(1);
+                this.close(subscriber);
+            }
+        }
+    }
+
+    /**
+     * The first sequence the client has not seen, or -1 when the id is not
+     * from this run or the events after it have left the ring.
+     */
+    private long resumeSequence(String lastEventId) {
+        int separator = lastEventId.indexOf('-');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return -1;
+        }
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        long missed = sequence - last;
+        if (last < 0 || missed < 0 || missed > Math.min(replaySize, subscriberBufferSize)) {
+            return -1;
+        }
+        return last + 1;
+    }
+
+    private Frame resetFrame() {
+        return new Frame(sequence, SseEmitter.event().id(this.eventId(sequence)).name(RESET).data("").build());
+    }
+
+    private String eventId(long value) {
+        return epoch + "-" + value;
+    }
+
+    private void enqueue(Subscriber subscriber, Frame frame) {
+        boolean overflow = false;
+        boolean schedule = false;
+        synchronized (subscriber) {
+            if (subscriber.closed || (frame.sequence > 0 && frame.sequence <= subscriber.lastSequence)) {
+                return;
+            }
+            if (subscriber.pending.size() >= subscriberBufferSize) {
+                overflow = true;
+            } else {
+                subscriber.pending.add(frame);
+                if (frame.sequence > 0) {
+                    subscriber.lastSequence = frame.sequence;
+                }
+                schedule = !subscriber.draining;
+                subscriber.draining = true;
+            }
+        }
+        if (overflow) {
+            logger.warn("End - EventFeedService - enqueue - subscriber {} frames behind, disconnecting", subscriberBufferSize);
+            this.close(subscriber);
+        } else if (schedule) {
+            executor.execute(() -> this.drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            Frame frame;
+            synchronized (subscriber) {
+                frame = subscriber.pending.poll();
+                if (frame == null || subscriber.closed) {
+                    subscriber.draining = false;
+                    return;
+                }
+                subscriber.sending = true;
+                subscriber.sendStartedAt = System.nanoTime();
+            }
+            try {
+                subscriber.emitter.send(frame.data);
+            } catch (IOException | IllegalStateException e) {
+                this.remove(subscriber);
+            } finally {
+                this.sent(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Completes the emitter if it was closed while the send was blocked, and
+     * gives back the thread added for a stalled send.
+     */
+    private void sent(Subscriber subscriber) {
+        boolean complete;
+        boolean stalled;
+        synchronized (subscriber) {
+            complete = subscriber.completeAfterSend;
+            stalled = subscriber.stalled;
+            subscriber.sending = false;
+            subscriber.completeAfterSend = false;
+            subscriber.stalled = false;
+        }
+        if (stalled) {
+            this.resizeDispatch(-1);
+        }
+        if (complete) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    /**
+     * SseEmitter.complete waits for a send in progress, so a subscriber that
+     * is being written to is completed by its dispatch thread instead.
+     */
+    private void close(Subscriber subscriber) {
+        this.remove(subscriber);
+        boolean completeNow;
+        synchronized (subscriber) {
+            completeNow = !subscriber.sending;
+            subscriber.completeAfterSend = subscriber.sending;
+        }
+        if (completeNow) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void resizeDispatch(int stalledDelta) {
+        synchronized (executor) {
+            stalledSends += stalledDelta;
+            int size = dispatchThreads + stalledSends;
+            if (size > executor.getMaximumPoolSize()) {
+                executor.setMaximumPoolSize(size);
+                executor.setCorePoolSize(size);
+            } else {
+                executor.setCorePoolSize(size);
+                executor.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        synchronized (subscriber) {
+            subscriber.closed = true;
+            subscriber.pending.clear();
+        }
+        subscribers.remove(subscriber);
+    }
+
+    /**
+     * One encoded SSE message; sequence is 0 for heartbeats, which are not
+     * replayed.
+     */
+    private record Frame(long sequence, Set<DataWithMediaType> data) {
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final ArrayDeque<Frame> pending = new ArrayDeque<>();
+        long lastSequence;
+        long sendStartedAt;
+        boolean draining;
+        boolean sending;
+        boolean stalled;
+        boolean completeAfterSend;
+        boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
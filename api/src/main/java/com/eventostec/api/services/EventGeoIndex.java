@@ -0,0 +1,298 @@
+package com.eventostec.api.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.eventostec.api.domain.event.EventCreated;
+import com.eventostec.api.domain.event.EventImageUploaded;
+import com.eventostec.api.domain.event.EventLocationRow;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.EventsImported;
+import com.eventostec.api.domain.event.NearbyEventDTO;
+import com.eventostec.api.repositories.EventRepository;
+
+/**
+ * In-memory geohash index over upcoming in-person events. Each event is keyed
+ * by a 52-bit geohash (26 bits per axis, interleaved longitude first) in a
+ * sorted map, so every geohash cell at any precision is one contiguous key
+ * range. A radius query picks the finest precision whose cells are at least
+ * as large as the query's bounding box, which leaves at most four cell
+ * ranges to scan, then keeps the nearest events in a bounded heap.
+ *
+ * Until the index is built at startup, queries read the bounding box from
+ * the database instead.
+ */
+@Service
+public class EventGeoIndex {
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final int BITS_PER_AXIS = 26;
+    private static final int BUILD_BATCH_SIZE = 1000;
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+    private static final Comparator<NearbyEventDTO> NEAREST_FIRST = Comparator.comparingDouble(NearbyEventDTO::distanceKm)
+                                                                               .thenComparing(nearby -> nearby.event().date());
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private CityCentroids cityCentroids;
+
+    private static final Logger logger = LoggerFactory.getLogger(EventGeoIndex.class);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Long, List<Entry>> cells = new TreeMap<>();
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        logger.info("Start - EventGeoIndex - build");
+
+        Date now = new Date();
+        UUID lastId = FIRST_ID;
+        List<EventLocationRow> batch;
+        do {
+            batch = eventRepository.findLocationBatch(now, lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+            for (EventLocationRow row : batch) {
+                this.add(row.toResponseDTO(), row.latitude(), row.longitude());
+                lastId = row.id();
+            }
+        } while (batch.size() == BUILD_BATCH_SIZE);
+
+        ready = true;
+        logger.info("End - EventGeoIndex - build - events: {}", entries.size());
+    }
+
+    @EventListener
+    public void onEventCreated(EventCreated created) {
+        EventResponseDTO event = created.event();
+        if (Boolean.TRUE.equals(event.remote())) {
+            return;
+        }
+        cityCentroids.find(event.city(), event.uf())
+                     .ifPresent(coordinates -> this.add(event, coordinates.latitude(), coordinates.longitude()));
+    }
+
+    @EventListener
+    public void onEventsImported(EventsImported imported) {
+        List<Entry> located = new ArrayList<>();
+        for (EventResponseDTO event : imported.events()) {
+            if (!Boolean.TRUE.equals(event.remote())) {
+                cityCentroids.find(event.city(), event.uf())
+                             .ifPresent(coordinates -> located.add(entry(event, coordinates.latitude(), coordinates.longitude())));
+            }
+        }
+        if (located.isEmpty()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            located.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onEventImageUploaded(EventImageUploaded uploaded) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(uploaded.eventId());
+            if (entry == null) {
+                return;
+            }
+            EventResponseDTO event = entry.event();
+            Entry updated = new Entry(new EventResponseDTO(event.id(), event.title(), event.description(), event.date(),
+                                                           event.city(), event.uf(), event.remote(), event.eventUrl(),
+                                                           uploaded.imgUrl(), uploaded.imgThumbnailUrl(), uploaded.imgMediumUrl()),
+                                      entry.latitude(), entry.longitude(), entry.hash());
+            List<Entry> cell = cells.get(entry.hash());
+            cell.set(cell.indexOf(entry), updated);
+            entries.put(event.id(), updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(EventResponseDTO event, double latitude, double longitude) {
+        Entry entry = entry(event, latitude, longitude);
+
+        lock.writeLock().lock();
+        try {
+            this.put(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Callers hold the write lock.
+     */
+    private void put(Entry entry) {
+        if (entries.putIfAbsent(entry.event().id(), entry) == null) {
+            cells.computeIfAbsent(entry.hash(), key -> new ArrayList<>()).add(entry);
+        }
+    }
+
+    private static Entry entry(EventResponseDTO event, double latitude, double longitude) {
+        long hash = interleave(cellIndex(longitude, -180, 360, BITS_PER_AXIS), cellIndex(latitude, -90, 180, BITS_PER_AXIS), BITS_PER_AXIS);
+        return new Entry(event, latitude, longitude, hash);
+    }
+
+    /**
+     * Events that have started are skipped by queries; this drops them so
+     * the index does not grow with the history.
+     */
+    @Scheduled(fixedDelay = 1, initialDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void prune() {
+        long now = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            entries.values().removeIf(entry -> entry.event().date().getTime() < now);
+            cells.values().forEach(cell -> cell.removeIf(entry -> entry.event().date().getTime() < now));
+            cells.values().removeIf(List::isEmpty);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The size nearest upcoming events within radiusKm of the point, by
+     * great-circle distance between city centroids.
+     */
+    public List<NearbyEventDTO> nearby(double latitude, double longitude, double radiusKm, int size, Date now) {
+        double deltaLatitude = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double deltaLongitude = deltaLongitude(latitude, radiusKm);
+        PriorityQueue<NearbyEventDTO> nearest = new PriorityQueue<>(size + 1, NEAREST_FIRST.reversed());
+
+        if (!ready) {
+            List<EventLocationRow> rows = eventRepository.findLocationsWithin(now,
+                                                                              latitude - deltaLatitude, latitude + deltaLatitude,
+                                                                              longitude - deltaLongitude, longitude + deltaLongitude);
+            for (EventLocationRow row : rows) {
+                offer(nearest, size, row.toResponseDTO(), distanceKm(latitude, longitude, row.latitude(), row.longitude()), radiusKm);
+            }
+            return drain(nearest);
+        }
+
+        int bits = BITS_PER_AXIS;
+        while (bits > 0 && (180.0 / (1L << bits) < 2 * deltaLatitude || 360.0 / (1L << bits) < 2 * deltaLongitude)) {
+            bits--;
+        }
+        long minLatitudeCell = cellIndex(latitude - deltaLatitude, -90, 180, bits);
+        long maxLatitudeCell = cellIndex(latitude + deltaLatitude, -90, 180, bits);
+        long minLongitudeCell = cellIndex(longitude - deltaLongitude, -180, 360, bits);
+        long maxLongitudeCell = cellIndex(longitude + deltaLongitude, -180, 360, bits);
+        int shift = 2 * (BITS_PER_AXIS - bits);
+        long nowMillis = now.getTime();
+
+        lock.readLock().lock();
+        try {
+            for (long latitudeCell = minLatitudeCell; latitudeCell <= maxLatitudeCell; latitudeCell++) {
+                for (long longitudeCell = minLongitudeCell; longitudeCell <= maxLongitudeCell; longitudeCell++) {
+                    long prefix = interleave(longitudeCell, latitudeCell, bits);
+                    for (List<Entry> cell : cells.subMap(prefix << shift, true, (prefix + 1) << shift, false).values()) {
+                        for (Entry entry : cell) {
+                            if (entry.event().date().getTime() < nowMillis) {
+                                continue;
+                            }
+                            offer(nearest, size, entry.event(), distanceKm(latitude, longitude, entry.latitude(), entry.longitude()), radiusKm);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return drain(nearest);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static double distanceKm(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double deltaLatitude = Math.toRadians(toLatitude - fromLatitude);
+        double deltaLongitude = Math.toRadians(toLongitude - fromLongitude);
+        double a = Math.pow(Math.sin(deltaLatitude / 2), 2)
+                   + Math.cos(Math.toRadians(fromLatitude)) * Math.cos(Math.toRadians(toLatitude)) * Math.pow(Math.sin(deltaLongitude / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Half-width in degrees of the longitude band that contains the circle;
+     * the whole band once the circle reaches a pole.
+     */
+    private static double deltaLongitude(double latitude, double radiusKm) {
+        double angularRadius = radiusKm / EARTH_RADIUS_KM;
+        double ratio = Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude));
+        if (Math.abs(latitude) + Math.toDegrees(angularRadius) >= 90 || ratio >= 1) {
+            return 180;
+        }
+        return Math.toDegrees(Math.asin(ratio));
+    }
+
+    private static long cellIndex(double value, double min, double span, int bits) {
+        long cells = 1L << bits;
+        long index = (long) Math.floor((value - min) / span * cells);
+        return Math.max(0, Math.min(cells - 1, index));
+    }
+
+    private static long interleave(long longitudeCell, long latitudeCell, int bits) {
+        long hash = 0;
+        for (int bit = bits - 1; bit >= 0; bit--) {
+            hash = (hash << 2) | (((longitudeCell >>> bit) & 1) << 1) | ((latitudeCell >>> bit) & 1);
+        }
+        return hash;
+    }
+
+    private static void offer(PriorityQueue<NearbyEventDTO> nearest, int size, EventResponseDTO event, double distanceKm, double radiusKm) {
+        if (distanceKm > radiusKm) {
+            return;
+        }
+        NearbyEventDTO candidate = new NearbyEventDTO(event, distanceKm);
+        if (nearest.size() < size) {
+            nearest.add(candidate);
+        } else if (NEAREST_FIRST.compare(candidate, nearest.peek()) < 0) {
+            nearest.poll();
+            nearest.add(candidate);
+        }
+    }
+
+    private static List<NearbyEventDTO> drain(PriorityQueue<NearbyEventDTO> nearest) {
+        List<NearbyEventDTO> sorted = new ArrayList<>(nearest);
+        sorted.sort(NEAREST_FIRST);
+        return sorted;
+    }
+
+    private record Entry(EventResponseDTO event, double latitude, double longitude, long hash) {
+    }
+}
@@ -0,0 +1,248 @@
+package com.eventostec.api.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.eventostec.api.domain.address.Address;
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventImportResultDTO;
+import com.eventostec.api.domain.event.EventImportRowDTO;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.EventsImported;
+import com.eventostec.api.domain.event.ImageStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Streams an NDJSON body into event and address rows. Lines are parsed and
+ * validated one at a time, valid rows are written in chunks of one
+ * transaction each (Hibernate groups the inserts into JDBC batches), and the
+ * persistence context is cleared after every chunk so memory does not grow
+ * with the size of the feed. A chunk that fails in the database is replayed
+ * row by row so only the offending rows are reported.
+ */
+@Service
+public class EventImportService {
+    @Value("${event.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${event.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EventDataVersion eventDataVersion;
+
+    @Autowired
+    private CityCentroids cityCentroids;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final Logger logger = LoggerFactory.getLogger(EventImportService.class);
+
+    public EventImportResultDTO importEvents(InputStream inputStream) throws IOException {
+        logger.info("Start - EventImportService - importEvents");
+        long start = System.nanoTime();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ObjectReader rowReader = objectMapper.readerFor(EventImportRowDTO.class);
+        ImportResult result = new ImportResult(maxReportedErrors);
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                EventImportRowDTO row;
+                try {
+                    row = rowReader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    result.fail(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+
+                String error = this.validate(row);
+                if (error != null) {
+                    result.fail(lineNumber, error);
+                    continue;
+                }
+
+                chunk.add(new PendingRow(lineNumber, row));
+                if (chunk.size() >= chunkSize) {
+                    this.writeChunk(chunk, transactionTemplate, result);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            this.writeChunk(chunk, transactionTemplate, result);
+        }
+
+        logger.info("End - EventImportService - importEvents - imported: {}, failed: {}, elapsed ms: {}",
+                    result.imported, result.failed, (System.nanoTime() - start) / 1_000_000);
+        return result.toDTO();
+    }
+
+    private void writeChunk(List<PendingRow> chunk, TransactionTemplate transactionTemplate, ImportResult result) {
+        try {
+            List<EventResponseDTO> created = transactionTemplate.execute(status -> this.persist(chunk));
+            this.publish(created, result);
+        } catch (RuntimeException e) {
+            logger.error("End - EventImportService - writeChunk - replaying {} rows one by one", chunk.size());
+            for (PendingRow row : chunk) {
+                try {
+                    this.publish(transactionTemplate.execute(status -> this.persist(List.of(row))), result);
+                } catch (RuntimeException rowError) {
+                    result.fail(row.line(), NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        }
+    }
+
+    private List<EventResponseDTO> persist(List<PendingRow> rows) {
+        List<EventResponseDTO> created = new ArrayList<>(rows.size());
+        for (PendingRow pending : rows) {
+            EventImportRowDTO row = pending.row();
+            Event event = new Event();
+            event.setTitle(row.title());
+            event.setDescription(row.description());
+            event.setEventUrl(row.eventUrl());
+            event.setData(new Date(row.date()));
+            event.setImgUrl(row.imgUrl());
+            event.setImgStatus(row.imgUrl() != null ? ImageStatus.UPLOADED : null);
+            event.setRemote(row.remote());
+            entityManager.persist(event);
+
+            String city = "";
+            String uf = "";
+            if (!row.remote()) {
+                Address address = new Address();
+                address.setCity(row.city());
+                address.setUf(row.uf());
+                address.setEvent(event);
+                cityCentroids.locate(address);
+                entityManager.persist(address);
+                city = row.city();
+                uf = row.uf();
+            }
+
+            created.add(new EventResponseDTO(event.getId(), event.getTitle(), event.getDescription(), event.getData(),
+                                             city, uf, event.getRemote(), event.getEventUrl(), event.getImgUrl()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return created;
+    }
+
+    /**
+     * One EventsImported per committed chunk, so the caches, indexes and the
+     * feed do their per-write work once per chunk rather than once per row.
+     */
+    private void publish(List<EventResponseDTO> created, ImportResult result) {
+        eventPublisher.publishEvent(new EventsImported(created));
+        eventDataVersion.changed();
+        result.imported += created.size();
+    }
+
+    /**
+     * Mirrors the NOT NULL and length constraints of the event and address
+     * tables, so invalid rows are rejected before they can fail a chunk.
+     */
+    String validate(EventImportRowDTO row) {
+        if (row == null) {
+            return "Empty row";
+        }
+        String error = this.required("title", row.title(), 100);
+        if (error == null) {
+            error = this.required("description", row.description(), 250);
+        }
+        if (error == null) {
+            error = this.required("eventUrl", row.eventUrl(), 100);
+        }
+        if (error == null && row.date() == null) {
+            error = "date is required";
+        }
+        if (error == null && row.remote() == null) {
+            error = "remote is required";
+        }
+        if (error == null && !row.remote()) {
+            error = this.required("city", row.city(), 100);
+            if (error == null) {
+                error = this.required("uf", row.uf(), 100);
+            }
+        }
+        if (error == null && row.imgUrl() != null && row.imgUrl().length() > 100) {
+            error = "imgUrl must have at most 100 characters";
+        }
+        return error;
+    }
+
+    private String required(String field, String value, int maxLength) {
+        if (value == null || value.isBlank()) {
+            return field + " is required";
+        }
+        if (value.length() > maxLength) {
+            return field + " must have at most " + maxLength + " characters";
+        }
+        return null;
+    }
+
+    private record PendingRow(long line, EventImportRowDTO row) {
+    }
+
+    private static final class ImportResult {
+        private final int maxReportedErrors;
+        private final List<EventImportResultDTO.RowErrorDTO> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        ImportResult(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new EventImportResultDTO.RowErrorDTO(line, message));
+            }
+        }
+
+        EventImportResultDTO toDTO() {
+            return new EventImportResultDTO(imported, failed, errors);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.eventostec.api.services;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.eventostec.api.domain.cache.CacheStatsDTO;
+import com.eventostec.api.domain.coupon.CouponAdded;
+import com.eventostec.api.domain.event.CountMode;
+import com.eventostec.api.domain.event.EventCreated;
+import com.eventostec.api.domain.event.EventImageUploaded;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.EventsImported;
+import com.eventostec.api.domain.event.PaginatedResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Read-through cache for listing pages. Entries are bounded by size and
+ * expire after a fixed time; once an entry is older than the refresh window it
+ * is still served while a single background reload replaces it. Reloads run
+ * on a few dedicated threads with a bounded queue; when it is full the stale
+ * entry keeps being served and the next read tries again.
+ */
+@Service
+public class EventListingCache {
+    @Value("${event.cache.listing.maximum-size:1000}")
+    private long maximumSize;
+
+    @Value("${event.cache.listing.expire-after-seconds:60}")
+    private long expireAfterSeconds;
+
+    @Value("${event.cache.listing.refresh-after-seconds:15}")
+    private long refreshAfterSeconds;
+
+    @Value("${event.cache.listing.refresh-threads:2}")
+    private int refreshThreads;
+
+    @Value("${event.cache.listing.refresh-queue-size:100}")
+    private int refreshQueueSize;
+
+    private static final Logger logger = LoggerFactory.getLogger(EventListingCache.class);
+
+    private Cache<Key, Entry> cache;
+    private Executor refreshExecutor;
+    private final Set<Key> refreshing = ConcurrentHashMap.newKeySet();
+    private final LongAdder refreshCount = new LongAdder();
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        this.cache = Caffeine.newBuilder()
+                             .maximumSize(maximumSize)
+                             .expireAfterWrite(Duration.ofSeconds(expireAfterSeconds))
+                             .executor(Runnable::run)
+                             .recordStats()
+                             .build();
+        if (refreshExecutor == null) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 60, TimeUnit.SECONDS,
+                                                          new ArrayBlockingQueue<>(refreshQueueSize), runnable -> {
+                Thread thread = new Thread(runnable, "listing-refresh-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (refreshExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+            executorService.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    public PaginatedResponse<EventResponseDTO> get(Key key, Function<Key, PaginatedResponse<EventResponseDTO>> loader) {
+        Entry[] loaded = new Entry[1];
+        Entry entry = cache.get(key, missing -> {
+            long loadGeneration = generation.get();
+            loaded[0] = new Entry(loader.apply(missing), System.nanoTime(), loadGeneration);
+            return loaded[0];
+        });
+
+        // An invalidation that ran while this page was loading could not see it, and the page may predate that write.
+        if (entry == loaded[0] && entry.generation() != generation.get()) {
+            cache.asMap().remove(key, entry);
+        }
+
+        if (System.nanoTime() - entry.loadedAt() >= Duration.ofSeconds(refreshAfterSeconds).toNanos() && refreshing.add(key)) {
+            try {
+                refreshExecutor.execute(() -> this.refresh(key, entry, loader));
+            } catch (RejectedExecutionException e) {
+                refreshing.remove(key);
+            }
+        }
+
+        return entry.value();
+    }
+
+    private void refresh(Key key, Entry stale, Function<Key, PaginatedResponse<EventResponseDTO>> loader) {
+        try {
+            Entry fresh = new Entry(loader.apply(key), System.nanoTime(), generation.get());
+            // Only replace the entry that was served stale; if a write invalidated it meanwhile, drop the reload.
+            cache.asMap().replace(key, stale, fresh);
+            refreshCount.increment();
+        } catch (RuntimeException e) {
+            logger.error("End - EventListingCache - refresh - key: {}", key, e);
+        } finally {
+            refreshing.remove(key);
+        }
+    }
+
+    @EventListener
+    public void onEventCreated(EventCreated created) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.mayContain(created.event(), new Date()));
+    }
+
+    /**
+     * A chunk of imported events matches most cached pages anyway, so the
+     * whole cache is dropped once instead of testing every key against every
+     * row.
+     */
+    @EventListener
+    public void onEventsImported(EventsImported imported) {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @EventListener
+    public void onCouponAdded(CouponAdded added) {
+        this.invalidateEvent(added.eventId());
+    }
+
+    @EventListener
+    public void onEventImageUploaded(EventImageUploaded uploaded) {
+        this.invalidateEvent(uploaded.eventId());
+    }
+
+    public void invalidateEvent(UUID eventId) {
+        generation.incrementAndGet();
+        cache.asMap().values().removeIf(entry -> entry.value().getContent().stream().anyMatch(event -> eventId.equals(event.id())));
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO("event-listing",
+                                 cache.estimatedSize(),
+                                 stats.hitCount(),
+                                 stats.missCount(),
+                                 stats.evictionCount(),
+                                 refreshCount.sum());
+    }
+
+    /**
+     * generation is the invalidation count when the load started.
+     */
+    private record Entry(PaginatedResponse<EventResponseDTO> value, long loadedAt, long generation) {
+    }
+
+    /**
+     * Raw request parameters of a listing call. Filter values are kept as the
+     * client sent them (null meaning "not filtered") so that defaults computed
+     * per request, such as "now" for the end date, do not split the key space.
+     */
+    public record Key(String listing, int page, int size, String title, String city, String uf,
+                      Date startDate, Date endDate, String sort, CountMode count) {
+
+        public static Key upcoming(int page, int size) {
+            return upcoming(page, size, CountMode.EXACT);
+        }
+
+        public static Key upcoming(int page, int size, CountMode count) {
+            return new Key("upcoming", page, size, null, null, null, null, null, null, count);
+        }
+
+        public static Key filtered(int page, int size, String title, String city, String uf,
+                                   Date startDate, Date endDate, String sort) {
+            return filtered(page, size, title, city, uf, startDate, endDate, sort, CountMode.EXACT);
+        }
+
+        public static Key filtered(int page, int size, String title, String city, String uf,
+                                   Date startDate, Date endDate, String sort, CountMode count) {
+            return new Key("filtered", page, size, title, city, uf, startDate, endDate, sort, count);
+        }
+
+        /**
+         * Conservative check used on writes: false only when the page provably
+         * cannot include the event. Title is not checked because the full-text
+         * engine matches stems rather than substrings.
+         */
+        boolean mayContain(EventResponseDTO event, Date now) {
+            Date date = event.date();
+            if ("upcoming".equals(listing)) {
+                return date == null || !date.before(now);
+            }
+            if (date != null && startDate != null && date.before(startDate)) {
+                return false;
+            }
+            if (date != null && date.after(endDate != null ? endDate : now)) {
+                return false;
+            }
+            return contains(event.city(), city) && contains(event.uf(), uf);
+        }
+
+        private static boolean contains(String value, String filter) {
+            if (filter == null || filter.isBlank()) {
+                return true;
+            }
+            return normalize(value).contains(normalize(filter).trim());
+        }
+
+        private static String normalize(String value) {
+            if (value == null) {
+                return "";
+            }
+            return Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}+", "").toLowerCase();
+        }
+    }
+}
@@ -0,0 +1,541 @@
+package com.eventostec.api.services;
+
+import java.text.Normalizer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventCreated;
+import com.eventostec.api.domain.event.EventFacetCell;
+import com.eventostec.api.domain.event.EventImageUploaded;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.EventsImported;
+import com.eventostec.api.domain.event.PaginatedResponse;
+import com.eventostec.api.repositories.EventRepository;
+
+/**
+ * In-memory inverted index over event title, description, city and uf, used by
+ * the "memory" search engine. Documents get sequential int ids, so every
+ * postings list is an append-only sorted int array and queries intersect them
+ * with a linear merge. Title and description terms are ranked with BM25;
+ * city and uf terms only filter.
+ */
+@Service
+public class EventSearchIndex {
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int TITLE_WEIGHT = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int BUILD_BATCH_SIZE = 1000;
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    @Value("${event.search.engine:like}")
+    private String searchEngine;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    private static final Logger logger = LoggerFactory.getLogger(EventSearchIndex.class);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> textPostings = new TreeMap<>();
+    private final TreeMap<String, Postings> cityPostings = new TreeMap<>();
+    private final TreeMap<String, Postings> ufPostings = new TreeMap<>();
+    private final Map<UUID, Integer> docIds = new HashMap<>();
+
+    private EventResponseDTO[] documents = new EventResponseDTO[1024];
+    private long[] dates = new long[1024];
+    private int[] lengths = new int[1024];
+    private int documentCount;
+    private long totalLength;
+    private volatile boolean ready;
+
+    public boolean isEnabled() {
+        return "memory".equals(searchEngine);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!this.isEnabled()) {
+            return;
+        }
+        logger.info("Start - EventSearchIndex - build");
+
+        UUID lastId = FIRST_ID;
+        List<Event> batch;
+        do {
+            batch = eventRepository.findIndexBatch(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+            for (Event event : batch) {
+                this.add(new EventResponseDTO(
+                    event.getId(),
+                    event.getTitle(),
+                    event.getDescription(),
+                    event.getData(),
+                    event.getAddress() != null ? event.getAddress().getCity() : "",
+                    event.getAddress() != null ? event.getAddress().getUf() : "",
+                    event.getRemote(),
+                    event.getEventUrl(),
+                    event.getImgUrl(),
+                    event.getImgThumbnailUrl(),
+                    event.getImgMediumUrl()));
+                lastId = event.getId();
+            }
+        } while (batch.size() == BUILD_BATCH_SIZE);
+
+        ready = true;
+        logger.info("End - EventSearchIndex - build - documents: {}", documentCount);
+    }
+
+    @EventListener
+    public void onEventCreated(EventCreated created) {
+        this.add(created.event());
+    }
+
+    @EventListener
+    public void onEventsImported(EventsImported imported) {
+        this.addAll(imported.events());
+    }
+
+    @EventListener
+    public void onEventImageUploaded(EventImageUploaded uploaded) {
+        if (!this.isEnabled()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer doc = docIds.get(uploaded.eventId());
+            if (doc == null) {
+                return;
+            }
+            EventResponseDTO event = documents[doc];
+            documents[doc] = new EventResponseDTO(event.id(), event.title(), event.description(), event.date(),
+                                                  event.city(), event.uf(), event.remote(), event.eventUrl(),
+                                                  uploaded.imgUrl(), uploaded.imgThumbnailUrl(), uploaded.imgMediumUrl());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(EventResponseDTO event) {
+        this.addAll(List.of(event));
+    }
+
+    public void addAll(List<EventResponseDTO> events) {
+        if (!this.isEnabled()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (EventResponseDTO event : events) {
+                this.index(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Callers hold the write lock.
+     */
+    private void index(EventResponseDTO event) {
+        if (docIds.containsKey(event.id())) {
+            return;
+        }
+        int doc = documentCount++;
+        this.ensureCapacity(documentCount);
+        docIds.put(event.id(), doc);
+        documents[doc] = event;
+        dates[doc] = event.date() != null ? event.date().getTime() : 0L;
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : tokenize(event.title())) {
+            frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String term : tokenize(event.description())) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            textPostings.computeIfAbsent(entry.getKey(), key -> new Postings()).add(doc, entry.getValue());
+            length += entry.getValue();
+        }
+        lengths[doc] = length;
+        totalLength += length;
+
+        for (String term : distinct(tokenize(event.city()))) {
+            cityPostings.computeIfAbsent(term, key -> new Postings()).add(doc, 1);
+        }
+        for (String term : distinct(tokenize(event.uf()))) {
+            ufPostings.computeIfAbsent(term, key -> new Postings()).add(doc, 1);
+        }
+    }
+
+    /**
+     * Every query term must match (the last one as a prefix, so results follow
+     * the user while typing). With a title query and sort=relevance results are
+     * ordered by BM25 score, otherwise by date.
+     */
+    public PaginatedResponse<EventResponseDTO> search(int page, int size, String title, String city, String uf,
+                                                      Date startDate, Date endDate, String sort) {
+        lock.readLock().lock();
+        try {
+            List<String> titleTerms = tokenize(title);
+            Matches matches = this.match(titleTerms, city, uf);
+
+            long start = startDate.getTime();
+            long end = endDate.getTime();
+            int[] docs = new int[matches.size];
+            float[] scores = new float[matches.size];
+            int count = 0;
+            for (int i = 0; i < matches.size; i++) {
+                int doc = matches.docs[i];
+                if (dates[doc] >= start && dates[doc] <= end) {
+                    docs[count] = doc;
+                    scores[count] = matches.scores[i];
+                    count++;
+                }
+            }
+
+            boolean byRelevance = "relevance".equals(sort) && !titleTerms.isEmpty();
+            int[] order = new int[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            sort(order, 0, count - 1, (a, b) -> {
+                if (byRelevance && scores[a] != scores[b]) {
+                    return scores[a] > scores[b] ? -1 : 1;
+                }
+                return Long.compare(dates[docs[a]], dates[docs[b]]);
+            });
+
+            int from = (int) Math.min((long) page * size, count);
+            int to = (int) Math.min((long) from + size, count);
+            List<EventResponseDTO> content = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                content.add(documents[docs[order[i]]]);
+            }
+            int totalPage = size == 0 ? 0 : (int) (((long) count + size - 1) / size);
+            return new PaginatedResponse<>(content, totalPage);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Facet cells of the events search would list for these filters, so
+     * title-filtered facets count the same documents as the listing.
+     */
+    public List<EventFacetCell> facetCells(String title, String city, String uf, Date startDate, Date endDate) {
+        Map<FacetKey, Long> counts = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            Matches matches = this.match(tokenize(title), city, uf);
+            long start = startDate.getTime();
+            long end = endDate.getTime();
+            for (int i = 0; i < matches.size; i++) {
+                int doc = matches.docs[i];
+                if (dates[doc] >= start && dates[doc] <= end) {
+                    EventResponseDTO event = documents[doc];
+                    LocalDateTime date = LocalDateTime.ofInstant(Instant.ofEpochMilli(dates[doc]), ZoneId.systemDefault());
+                    counts.merge(new FacetKey(event.city(), event.uf(), Boolean.TRUE.equals(event.remote()), date.getYear(), date.getMonthValue()),
+                                 1L, Long::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts.entrySet().stream()
+                     .map(entry -> new EventFacetCell(entry.getKey().city(), entry.getKey().uf(), entry.getKey().remote(),
+                                                      entry.getKey().year(), entry.getKey().month(), entry.getValue()))
+                     .toList();
+    }
+
+    public int size() {
+        return documentCount;
+    }
+
+    /**
+     * Approximate heap used by postings, the term dictionaries and per-document
+     * arrays, excluding the stored response DTOs.
+     */
+    public long estimatedIndexBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) dates.length * 8 + (long) lengths.length * 4 + (long) documents.length * 4;
+            bytes += docIds.size() * 80L;
+            for (TreeMap<String, Postings> dictionary : List.of(textPostings, cityPostings, ufPostings)) {
+                for (Map.Entry<String, Postings> entry : dictionary.entrySet()) {
+                    bytes += 40 + 40 + 2L * entry.getKey().length();
+                    bytes += 32 + 2 * (16 + 4L * entry.getValue().docs.length);
+                }
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase();
+        List<String> terms = new ArrayList<>();
+        for (String term : SEPARATORS.split(normalized)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Documents matching every title, city and uf term. Callers hold the read
+     * lock.
+     */
+    private Matches match(List<String> titleTerms, String city, String uf) {
+        Matches matches = null;
+        for (List<Postings> termPostings : this.lookup(textPostings, titleTerms)) {
+            matches = Matches.intersect(matches, this.union(termPostings, true));
+        }
+        for (List<Postings> termPostings : this.lookup(cityPostings, tokenize(city))) {
+            matches = Matches.intersect(matches, this.union(termPostings, false));
+        }
+        for (List<Postings> termPostings : this.lookup(ufPostings, tokenize(uf))) {
+            matches = Matches.intersect(matches, this.union(termPostings, false));
+        }
+        return matches != null ? matches : Matches.all(documentCount);
+    }
+
+    private static List<String> distinct(List<String> terms) {
+        return terms.stream().distinct().toList();
+    }
+
+    /**
+     * Resolves each query term to the postings it matches, rarest term first so
+     * intersections shrink as early as possible. A term with no postings makes
+     * the whole query empty.
+     */
+    private List<List<Postings>> lookup(TreeMap<String, Postings> dictionary, List<String> terms) {
+        List<List<Postings>> resolved = new ArrayList<>();
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            List<Postings> postings = new ArrayList<>();
+            if (i == terms.size() - 1) {
+                NavigableMap<String, Postings> expansions = dictionary.subMap(term, true, term + Character.MAX_VALUE, false);
+                for (Postings expansion : expansions.values()) {
+                    postings.add(expansion);
+                    if (postings.size() == MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                }
+            } else if (dictionary.containsKey(term)) {
+                postings.add(dictionary.get(term));
+            }
+            if (postings.isEmpty()) {
+                return List.of(List.of(Postings.EMPTY));
+            }
+            resolved.add(postings);
+        }
+        resolved.sort((a, b) -> Integer.compare(a.stream().mapToInt(p -> p.size).sum(), b.stream().mapToInt(p -> p.size).sum()));
+        return resolved;
+    }
+
+    private Matches union(List<Postings> termPostings, boolean score) {
+        if (termPostings.size() == 1) {
+            return this.toMatches(termPostings.get(0), score);
+        }
+
+        int total = 0;
+        for (Postings postings : termPostings) {
+            total += postings.size;
+        }
+        // Pack (doc, score) into a long so the union is a primitive sort plus a merge of equal docs.
+        long[] packed = new long[total];
+        int index = 0;
+        for (Postings postings : termPostings) {
+            Matches matches = this.toMatches(postings, score);
+            for (int i = 0; i < matches.size; i++) {
+                packed[index++] = ((long) matches.docs[i] << 32) | (Float.floatToRawIntBits(matches.scores[i]) & 0xffffffffL);
+            }
+        }
+        Arrays.sort(packed);
+
+        Matches union = new Matches(total);
+        for (long entry : packed) {
+            int doc = (int) (entry >>> 32);
+            float value = Float.intBitsToFloat((int) entry);
+            if (union.size > 0 && union.docs[union.size - 1] == doc) {
+                union.scores[union.size - 1] += value;
+            } else {
+                union.docs[union.size] = doc;
+                union.scores[union.size] = value;
+                union.size++;
+            }
+        }
+        return union;
+    }
+
+    private Matches toMatches(Postings postings, boolean score) {
+        Matches matches = new Matches(postings.size);
+        System.arraycopy(postings.docs, 0, matches.docs, 0, postings.size);
+        matches.size = postings.size;
+        if (score && documentCount > 0) {
+            float idf = (float) Math.log(1 + (documentCount - postings.size + 0.5) / (postings.size + 0.5));
+            float averageLength = (float) totalLength / documentCount;
+            for (int i = 0; i < postings.size; i++) {
+                int frequency = postings.frequencies[i];
+                float norm = K1 * (1 - B + B * lengths[postings.docs[i]] / averageLength);
+                matches.scores[i] = idf * frequency * (K1 + 1) / (frequency + norm);
+            }
+        }
+        return matches;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= documents.length) {
+            return;
+        }
+        int grown = Math.max(capacity, documents.length * 2);
+        documents = Arrays.copyOf(documents, grown);
+        dates = Arrays.copyOf(dates, grown);
+        lengths = Arrays.copyOf(lengths, grown);
+    }
+
+    private interface IntComparator {
+        int compare(int a, int b);
+    }
+
+    private static void sort(int[] values, int low, int high, IntComparator comparator) {
+        while (low < high) {
+            if (high - low < 16) {
+                for (int i = low + 1; i <= high; i++) {
+                    int value = values[i];
+                    int j = i - 1;
+                    while (j >= low && comparator.compare(values[j], value) > 0) {
+                        values[j + 1] = values[j];
+                        j--;
+                    }
+                    values[j + 1] = value;
+                }
+                return;
+            }
+            int pivot = values[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (comparator.compare(values[i], pivot) < 0) {
+                    i++;
+                }
+                while (comparator.compare(values[j], pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = values[i];
+                    values[i++] = values[j];
+                    values[j--] = swap;
+                }
+            }
+            if (j - low < high - i) {
+                sort(values, low, j, comparator);
+                low = i;
+            } else {
+                sort(values, i, high, comparator);
+                high = j;
+            }
+        }
+    }
+
+    private record FacetKey(String city, String uf, boolean remote, int year, int month) {
+    }
+
+    private static final class Postings {
+        static final Postings EMPTY = new Postings();
+
+        int[] docs = new int[2];
+        int[] frequencies = new int[2];
+        int size;
+
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+    }
+
+    private static final class Matches {
+        final int[] docs;
+        final float[] scores;
+        int size;
+
+        Matches(int capacity) {
+            docs = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        static Matches all(int documentCount) {
+            Matches matches = new Matches(documentCount);
+            for (int doc = 0; doc < documentCount; doc++) {
+                matches.docs[doc] = doc;
+            }
+            matches.size = documentCount;
+            return matches;
+        }
+
+        static Matches intersect(Matches left, Matches right) {
+            if (left == null) {
+                return right;
+            }
+            Matches result = new Matches(Math.min(left.size, right.size));
+            int i = 0;
+            int j = 0;
+            while (i < left.size && j < right.size) {
+                if (left.docs[i] < right.docs[j]) {
+                    i++;
+                } else if (left.docs[i] > right.docs[j]) {
+                    j++;
+                } else {
+                    result.docs[result.size] = left.docs[i];
+                    result.scores[result.size] = left.scores[i] + right.scores[j];
+                    result.size++;
+                    i++;
+                    j++;
+                }
+            }
+            return result;
+        }
+    }
+}
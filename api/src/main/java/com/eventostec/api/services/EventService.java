@@ -1,39 +1,59 @@
 package com.eventostec.api.services;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.amazonaws.services.s3.AmazonS3;
+import com.eventostec.api.configuration.ReplicaRead;
+import com.eventostec.api.domain.address.Address;
 import com.eventostec.api.domain.coupon.Coupon;
+import com.eventostec.api.domain.diagnostics.CreateEventJfrEvent;
+import com.eventostec.api.domain.diagnostics.EventFilterJfrEvent;
+import com.eventostec.api.domain.diagnostics.ImageUploadJfrEvent;
+import com.eventostec.api.domain.event.CountMode;
+import com.eventostec.api.domain.event.CursorPaginatedResponse;
 import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventCreated;
+import com.eventostec.api.domain.event.EventCursor;
 import com.eventostec.api.domain.event.EventDetailsDTO;
+import com.eventostec.api.domain.event.EventDetailsRow;
+import com.eventostec.api.domain.event.EventFacetsDTO;
 import com.eventostec.api.domain.event.EventRequestDTO;
 import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.ImageStatus;
+import com.eventostec.api.domain.event.NearbyEventDTO;
 import com.eventostec.api.domain.event.PaginatedResponse;
+import com.eventostec.api.domain.image.StoredImage;
 import com.eventostec.api.repositories.EventRepository;
 
 @Service
 public class EventService {
 	@Autowired
-	private AmazonS3 s3Client;
+	private ImageUploadService imageUploadService;
 
-	@Value("${aws.bucket.name}")
-    private String bucketName;
+	@Autowired
+	private StoredImageService storedImageService;
+
+	@Value("${event.search.engine:like}")
+	private String searchEngine;
+
+	@Value("${event.read.projection.enabled:false}")
+	private boolean projectionEnabled;
 
 	@Autowired
 	private EventRepository eventRepository;
@@ -44,15 +64,51 @@ public class EventService {
 	@Autowired
 	private CouponService couponService;
 
+	@Autowired
+	private EventSearchIndex eventSearchIndex;
+
+	@Autowired
+	private EventListingCache eventListingCache;
+
+	@Autowired
+	private EventDetailsCache eventDetailsCache;
+
+	@Autowired
+	private EventCountCache eventCountCache;
+
+	@Autowired
+	private EventDataVersion eventDataVersion;
+
+	@Autowired
+	private EventGeoIndex eventGeoIndex;
+
+	@Autowired
+	private EventFacetCounts eventFacetCounts;
+
+	@Value("${event.geo.max-radius-km:500}")
+	private double maxRadiusKm;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
 	private static final Logger logger = LoggerFactory.getLogger(EventService.class);
 
 
 	public Event createEvent(EventRequestDTO data) throws IOException {
 		logger.info("Start - EventService - createEvent - title: {}", data.title());
-		String imgUrl = null;
+		CreateEventJfrEvent jfrEvent = new CreateEventJfrEvent();
+		jfrEvent.begin();
+		StoredImage image = null;
+		ImageStatus imgStatus = null;
+		boolean uploadLater = data.image() != null && this.imageUploadService.isAsync();
 		
-		if(data.image() != null) {
-			imgUrl = this.uploadImg(data.image());
+		ImageUploadService.SpooledImage spooled = null;
+		if(uploadLater) {
+			spooled = this.imageUploadService.spool(data.image());
+			imgStatus = ImageStatus.PENDING;
+		} else if(data.image() != null) {
+			image = this.uploadImg(data.image());
+			imgStatus = ImageStatus.UPLOADED;
 		}
 
 		Event newEvent = new Event();
@@ -60,123 +116,351 @@ public class EventService {
 		newEvent.setDescription(data.description());
 		newEvent.setEventUrl(data.eventUrl());
 		newEvent.setData(new Date(data.date()));
-		newEvent.setImgUrl(imgUrl);
+		if(image != null) {
+			newEvent.setImgUrl(image.getUrl());
+			newEvent.setImgThumbnailUrl(image.getThumbnailUrl());
+			newEvent.setImgMediumUrl(image.getMediumUrl());
+		}
+		newEvent.setImgStatus(imgStatus);
+		if(uploadLater) {
+			newEvent.setImgPendingSince(new Date());
+		}
 		newEvent.setRemote(data.remote());
 
-		eventRepository.save(newEvent);
+		Address address = null;
+		try {
+			eventRepository.save(newEvent);
+			if(!data.remote()) {
+				address = this.addressService.createAddress(data, newEvent);
+			}
+		} catch (RuntimeException e) {
+			if(spooled != null) {
+				this.imageUploadService.discard(spooled);
+				if(newEvent.getId() != null) {
+					this.eventRepository.updateImage(newEvent.getId(), null, null, null, ImageStatus.FAILED);
+				}
+			}
+			throw e;
+		}
+		this.eventPublisher.publishEvent(new EventCreated(this.toResponseDTO(newEvent, address)));
+		this.eventDataVersion.changed();
 
-		if(!data.remote()) {
-			this.addressService.createAddress(data, newEvent);
+		if(uploadLater) {
+			this.imageUploadService.submit(newEvent.getId(), spooled);
+		}
+		if (jfrEvent.shouldCommit()) {
+			jfrEvent.eventId = String.valueOf(newEvent.getId());
+			jfrEvent.remote = data.remote();
+			jfrEvent.hasImage = data.image() != null;
+			jfrEvent.uploadDeferred = uploadLater;
+			jfrEvent.commit();
 		}
 		logger.info("End - EventService - createEvent - title: {}", data.title());
 
 		return newEvent;
 	}
 
+	@ReplicaRead
 	public PaginatedResponse<EventResponseDTO> getUpcomingEvents(int page, int size) {
+		return this.getUpcomingEvents(page, size, CountMode.EXACT);
+	}
+
+	@ReplicaRead
+	public PaginatedResponse<EventResponseDTO> getUpcomingEvents(int page, int size, CountMode count) {
+		return this.eventListingCache.get(EventListingCache.Key.upcoming(page, size, count), key -> this.loadUpcomingEvents(page, size, count));
+	}
+
+	private PaginatedResponse<EventResponseDTO> loadUpcomingEvents(int page, int size, CountMode count) {
 		Pageable pageable = PageRequest.of(page, size);
+		if (count != CountMode.EXACT) {
+			return this.toPaginatedResponse(eventRepository.findUpComingEventSlice(new Date(), pageable), count, eventCountCache::upcoming);
+		}
+		if (projectionEnabled) {
+			return this.toPaginatedResponse(eventRepository.findUpComingEventResponses(new Date(), pageable));
+		}
+
 		Page<Event> events = eventRepository.findUpComingEvents(new Date(), pageable);
-		List<EventResponseDTO> eventResponseDTOs = events.map(event -> new EventResponseDTO(
-																event.getId(), 
-																event.getTitle(), 
-																event.getDescription(), 
-																event.getData(), 
-																event.getAddress() != null ? event.getAddress().getCity() : "", 
-																event.getAddress() != null ? event.getAddress().getUf() : "", 
-																event.getRemote(), 
-																event.getEventUrl(),
-																event.getImgUrl()
-															)).stream().toList();
+		List<EventResponseDTO> eventResponseDTOs = events.map(this::toResponseDTO).stream().toList();
 		int totalPage = events.getTotalPages();
 		return new PaginatedResponse<>(eventResponseDTOs, totalPage);
 	}
 	
+	@ReplicaRead
 	public PaginatedResponse<EventResponseDTO> getFilteredEvents(int page, int size, String title, String city, String uf, Date startDate, Date endDate) {
+		return this.getFilteredEvents(page, size, title, city, uf, startDate, endDate, null);
+	}
+
+	@ReplicaRead
+	public PaginatedResponse<EventResponseDTO> getFilteredEvents(int page, int size, String title, String city, String uf, Date startDate, Date endDate, String sort) {
+		return this.getFilteredEvents(page, size, title, city, uf, startDate, endDate, sort, CountMode.EXACT);
+	}
+
+	@ReplicaRead
+	public PaginatedResponse<EventResponseDTO> getFilteredEvents(int page, int size, String title, String city, String uf, Date startDate, Date endDate, String sort, CountMode count) {
+		if (page < 0) {
+			throw new IllegalArgumentException("Page must not be negative");
+		}
+		if (size < 1) {
+			throw new IllegalArgumentException("Size must be at least 1");
+		}
+		EventFilterJfrEvent jfrEvent = new EventFilterJfrEvent();
+		jfrEvent.begin();
+
+		PaginatedResponse<EventResponseDTO> events;
+		if ("memory".equals(searchEngine) && this.eventSearchIndex.isReady()) {
+			events = this.loadFilteredEvents(page, size, title, city, uf, startDate, endDate, sort, count);
+		} else {
+			EventListingCache.Key cacheKey = EventListingCache.Key.filtered(page, size, title, city, uf, startDate, endDate, sort, count);
+			events = this.eventListingCache.get(cacheKey, key -> this.loadFilteredEvents(page, size, title, city, uf, startDate, endDate, sort, count));
+		}
+
+		if (jfrEvent.shouldCommit()) {
+			jfrEvent.title = title;
+			jfrEvent.city = city;
+			jfrEvent.uf = uf;
+			jfrEvent.startDate = startDate != null ? startDate.getTime() : Long.MIN_VALUE;
+			jfrEvent.endDate = endDate != null ? endDate.getTime() : Long.MIN_VALUE;
+			jfrEvent.sort = sort;
+			jfrEvent.countMode = count.name();
+			jfrEvent.searchEngine = searchEngine;
+			jfrEvent.page = page;
+			jfrEvent.size = size;
+			jfrEvent.rows = events.getContent().size();
+			jfrEvent.totalPage = events.getTotalPage() != null ? events.getTotalPage() : -1;
+			jfrEvent.commit();
+		}
+		return events;
+	}
+
+	@ReplicaRead
+	public EventFacetsDTO getFilterFacets(String title, String city, String uf, Date startDate, Date endDate) {
+		logger.info("Start - EventService - getFilterFacets");
+
+		return this.eventFacetCounts.facets(title, city, uf, startDate, endDate);
+	}
+
+	/**
+	 * The count mode only applies to the "like" engine: the memory index
+	 * counts for free and the native full-text queries keep their exact count.
+	 */
+	private PaginatedResponse<EventResponseDTO> loadFilteredEvents(int page, int size, String title, String city, String uf, Date startDate, Date endDate, String sort, CountMode count) {
+		String rawTitle = title;
+		String rawCity = city;
+		String rawUf = uf;
+		Date rawStartDate = startDate;
+		Date rawEndDate = endDate;
 		title = (title != null) ? title : "";
 		city = (city != null) ? city : "";
 		uf = (uf != null) ? uf : "";
 		startDate = (startDate != null) ? startDate : new Date(0);
 		endDate = (endDate != null) ? endDate : new Date();
 
+		if ("memory".equals(searchEngine) && this.eventSearchIndex.isReady()) {
+			return this.eventSearchIndex.search(page, size, title, city, uf, startDate, endDate, sort);
+		}
+
 		Pageable pageable = PageRequest.of(page, size);
-		Page<Event> events = eventRepository.findFilteredEvents(title, city, uf, startDate, endDate, pageable);
+		if (count != CountMode.EXACT && !"fulltext".equals(searchEngine)) {
+			Slice<EventResponseDTO> events = eventRepository.findFilteredEventSlice(title, city, uf, startDate, endDate, pageable);
+			return this.toPaginatedResponse(events, count, () -> eventCountCache.filtered(rawTitle, rawCity, rawUf, rawStartDate, rawEndDate));
+		}
+		if (projectionEnabled && !"fulltext".equals(searchEngine)) {
+			return this.toPaginatedResponse(eventRepository.findFilteredEventResponses(title, city, uf, startDate, endDate, pageable));
+		}
+
+		Page<Event> events = this.findFilteredEvents(title, city, uf, startDate, endDate, sort, pageable);
 
 		if (events == null) {
 			events = Page.empty(pageable);
 		}
 
-		List<EventResponseDTO> eventResponseDTOs = events.map(event -> new EventResponseDTO(
-			event.getId(), 
-			event.getTitle(), 
-			event.getDescription(), 
-			event.getData(), 
-			event.getAddress() != null ? event.getAddress().getCity() : "", 
-			event.getAddress() != null ? event.getAddress().getUf() : "", 
-			event.getRemote(), 
-			event.getEventUrl(),
-			event.getImgUrl()
-		)).stream().toList();
+		List<EventResponseDTO> eventResponseDTOs = events.map(this::toResponseDTO).stream().toList();
 
 		int totalPage = events.getTotalPages();
 		return new PaginatedResponse<>(eventResponseDTOs, totalPage);
 	};
 
+	/**
+	 * The "like" engine keeps the original substring query; "fulltext" uses the
+	 * tsvector and trigram indexes from V6 and can rank by relevance. The
+	 * "memory" engine also falls back to "like" while its index is being built.
+	 */
+	private Page<Event> findFilteredEvents(String title, String city, String uf, Date startDate, Date endDate, String sort, Pageable pageable) {
+		if (!"fulltext".equals(searchEngine)) {
+			return eventRepository.findFilteredEvents(title, city, uf, startDate, endDate, pageable);
+		}
+
+		if ("relevance".equals(sort) && !title.isBlank()) {
+			return eventRepository.findFullTextFilteredEventsByRank(title, city, uf, startDate, endDate, pageable);
+		}
+
+		return eventRepository.findFullTextFilteredEvents(title, city, uf, startDate, endDate, pageable);
+	}
+
+	private PaginatedResponse<EventResponseDTO> toPaginatedResponse(Page<EventResponseDTO> events) {
+		return new PaginatedResponse<>(events.getContent(), events.getTotalPages());
+	}
+
+	/**
+	 * Slices carry hasNext without a COUNT. In approximate mode the total
+	 * comes from the count cache, raised to at least the rows this page
+	 * proves exist.
+	 */
+	private PaginatedResponse<EventResponseDTO> toPaginatedResponse(Slice<EventResponseDTO> events, CountMode count, LongSupplier cachedCount) {
+		if (count == CountMode.NONE) {
+			return PaginatedResponse.withoutCount(events.getContent(), events.hasNext());
+		}
+
+		int size = events.getSize();
+		long seen = (long) events.getNumber() * size + events.getNumberOfElements() + (events.hasNext() ? 1 : 0);
+		long total = Math.max(cachedCount.getAsLong(), seen);
+		int totalPage = size == 0 ? 0 : (int) ((total + size - 1) / size);
+		return PaginatedResponse.approximate(events.getContent(), totalPage, events.hasNext());
+	}
+
+	@ReplicaRead
 	public PaginatedResponse<EventResponseDTO> getOlderEvents(int page, int size) {
+		return this.getOlderEvents(page, size, CountMode.EXACT);
+	}
+
+	@ReplicaRead
+	public PaginatedResponse<EventResponseDTO> getOlderEvents(int page, int size, CountMode count) {
 		Pageable pageable = PageRequest.of(page, size);
+		if (count != CountMode.EXACT) {
+			return this.toPaginatedResponse(eventRepository.findOlderEventSlice(new Date(), pageable), count, eventCountCache::older);
+		}
+		if (projectionEnabled) {
+			return this.toPaginatedResponse(eventRepository.findOlderEventResponses(new Date(), pageable));
+		}
+
 		Page<Event> events = eventRepository.findOlderEvents(new Date(), pageable);
-		List<EventResponseDTO> eventResponseDTOs = events.map(event -> new EventResponseDTO(
-			event.getId(), 
-			event.getTitle(), 
-			event.getDescription(), 
-			event.getData(), 
-			event.getAddress() != null ? event.getAddress().getCity() : "", 
-			event.getAddress() != null ? event.getAddress().getUf() : "", 
-			event.getRemote(), 
-			event.getEventUrl(),
-			event.getImgUrl()
-		)).stream().toList();
+		List<EventResponseDTO> eventResponseDTOs = events.map(this::toResponseDTO).stream().toList();
 
 		int totalPage = events.getTotalPages();
 
         return new PaginatedResponse<>(eventResponseDTOs, totalPage);
     }
 
-	private String uploadImg(MultipartFile multipartFile) throws IOException {
-		String fileName = UUID.randomUUID() + "-" + multipartFile.getOriginalFilename();
-		logger.info("Start - EventService - uploadImg - upload file name: {}", fileName);
+	@ReplicaRead
+	public CursorPaginatedResponse<EventResponseDTO> getUpcomingEventsByCursor(String cursor, int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Size must be at least 1");
+		}
+		Date currentDate = new Date();
+		Pageable pageable = PageRequest.of(0, size + 1);
+		List<Event> events;
+
+		if (cursor == null || cursor.isBlank()) {
+			events = eventRepository.findUpComingEventsFirst(currentDate, pageable);
+		} else {
+			EventCursor eventCursor = EventCursor.decode(cursor);
+			events = eventRepository.findUpComingEventsAfter(currentDate, eventCursor.date(), eventCursor.id(), pageable);
+		}
 
-		try {
-			File file = this.convertMultipartFile(multipartFile);
-			s3Client.putObject(bucketName, fileName, file);
-			file.delete();
+		return this.toCursorResponse(events, size);
+	}
 
-			String s3Url = s3Client.getUrl(bucketName, fileName).toString();
-			logger.info("End - EventService - uploadImg - upload file name: {}, s3 url", fileName, s3Url);
-			return s3Url;
-		} catch (IOException e) {
-			System.out.println(e);
-			logger.error("End - EventService - uploadImg - upload file name: {}", fileName);
-			throw e;
+	@ReplicaRead
+	public CursorPaginatedResponse<EventResponseDTO> getOlderEventsByCursor(String cursor, int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Size must be at least 1");
+		}
+		Date currentDate = new Date();
+		Pageable pageable = PageRequest.of(0, size + 1);
+		List<Event> events;
+
+		if (cursor == null || cursor.isBlank()) {
+			events = eventRepository.findOlderEventsFirst(currentDate, pageable);
+		} else {
+			EventCursor eventCursor = EventCursor.decode(cursor);
+			events = eventRepository.findOlderEventsBefore(currentDate, eventCursor.date(), eventCursor.id(), pageable);
+		}
+
+		return this.toCursorResponse(events, size);
+	}
+
+	@ReplicaRead
+	public List<NearbyEventDTO> getNearbyEvents(double latitude, double longitude, double radiusKm, int size) {
+		logger.info("Start - EventService - getNearbyEvents");
+
+		if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+			throw new IllegalArgumentException("Latitude must be between -90 and 90 and longitude between -180 and 180");
+		}
+		if (!(radiusKm > 0 && radiusKm <= maxRadiusKm)) {
+			throw new IllegalArgumentException("Radius must be greater than 0 and at most " + maxRadiusKm + " km");
+		}
+		if (size < 1) {
+			throw new IllegalArgumentException("Size must be at least 1");
 		}
+
+		return eventGeoIndex.nearby(latitude, longitude, radiusKm, size, new Date());
+	}
+
+	/**
+	 * Queries fetch one row more than requested, so the extra row tells whether
+	 * another page exists without running a COUNT.
+	 */
+	private CursorPaginatedResponse<EventResponseDTO> toCursorResponse(List<Event> events, int size) {
+		boolean hasNext = events.size() > size;
+		List<Event> pageEvents = hasNext ? events.subList(0, size) : events;
+		List<EventResponseDTO> eventResponseDTOs = pageEvents.stream().map(this::toResponseDTO).toList();
+		String nextCursor = hasNext ? EventCursor.of(pageEvents.get(pageEvents.size() - 1)).encode() : null;
+
+		return new CursorPaginatedResponse<>(eventResponseDTOs, nextCursor);
+	}
+
+	private EventResponseDTO toResponseDTO(Event event) {
+		return this.toResponseDTO(event, event.getAddress());
+	}
+
+	private EventResponseDTO toResponseDTO(Event event, Address address) {
+		return new EventResponseDTO(
+			event.getId(), 
+			event.getTitle(), 
+			event.getDescription(), 
+			event.getData(), 
+			address != null ? address.getCity() : "", 
+			address != null ? address.getUf() : "", 
+			event.getRemote(), 
+			event.getEventUrl(),
+			event.getImgUrl(),
+			event.getImgThumbnailUrl(),
+			event.getImgMediumUrl());
 	}
 
-	private File convertMultipartFile(MultipartFile multipartFile) throws IOException {
-		logger.info("Start - EventService - convertMultipartFile - upload file name: {}", multipartFile.getOriginalFilename());
+	private StoredImage uploadImg(MultipartFile multipartFile) throws IOException {
+		logger.info("Start - EventService - uploadImg - upload file name: {}", multipartFile.getOriginalFilename());
+		ImageUploadJfrEvent jfrEvent = new ImageUploadJfrEvent();
+		jfrEvent.begin();
 
 		try {
-			File convFile = new File(multipartFile.getOriginalFilename());
-			FileOutputStream fos = new FileOutputStream(convFile);
-			fos.write(multipartFile.getBytes());
-			fos.close();
-			logger.info("End - EventService - convertMultipartFile - upload file name: {}", multipartFile.getOriginalFilename());
-			return convFile;
+			StoredImage image = this.storedImageService.store(multipartFile);
+			jfrEvent.succeeded = true;
+			logger.info("End - EventService - uploadImg - upload file name: {}, s3 url: {}", multipartFile.getOriginalFilename(), image.getUrl());
+			return image;
 		} catch (IOException e) {
-			logger.error("End - EventService - convertMultipartFile - upload file name: {}", multipartFile.getOriginalFilename());
+			logger.error("End - EventService - uploadImg - upload file name: {}", multipartFile.getOriginalFilename());
 			throw e;
+		} finally {
+			if (jfrEvent.shouldCommit()) {
+				jfrEvent.fileName = multipartFile.getOriginalFilename();
+				jfrEvent.size = multipartFile.getSize();
+				jfrEvent.contentType = multipartFile.getContentType();
+				jfrEvent.commit();
+			}
 		}
 	}
 
+    @ReplicaRead
     public EventDetailsDTO getEventDetails(UUID eventId) {
+		return this.eventDetailsCache.get(eventId, this::loadEventDetails);
+	}
+
+	private EventDetailsDTO loadEventDetails(UUID eventId) {
+		if (projectionEnabled) {
+			return this.loadEventDetailsProjection(eventId);
+		}
+
 		Event event = this.eventRepository.findById(eventId)
 				.orElseThrow(() -> new IllegalArgumentException("Event not found"));
 
@@ -197,7 +481,42 @@ public class EventService {
 			event.getAddress() != null ? event.getAddress().getCity() : "",
 			event.getAddress() != null ? event.getAddress().getUf() : "",
 			event.getImgUrl(),
+			event.getImgThumbnailUrl(),
+			event.getImgMediumUrl(),
 			event.getEventUrl(),
 			couponDTOs);
     }
+
+	/**
+	 * Event, address and valid coupons come back in one query as one row per
+	 * coupon; the event columns are taken from the first row.
+	 */
+	private EventDetailsDTO loadEventDetailsProjection(UUID eventId) {
+		List<EventDetailsRow> rows = this.eventRepository.findEventDetailsRows(eventId, new Date());
+		if (rows.isEmpty()) {
+			throw new IllegalArgumentException("Event not found");
+		}
+
+		List<EventDetailsDTO.CouponDTO> couponDTOs = rows.stream()
+														.filter(row -> row.couponCode() != null)
+														.map(row -> new EventDetailsDTO.CouponDTO(
+															row.couponCode(),
+															row.couponDiscount(),
+															row.couponValid()))
+														.collect(Collectors.toList());
+
+		EventDetailsRow event = rows.get(0);
+		return new EventDetailsDTO(
+			event.id(),
+			event.title(),
+			event.description(),
+			event.date(),
+			event.city(),
+			event.uf(),
+			event.imgUrl(),
+			event.imgThumbnailUrl(),
+			event.imgMediumUrl(),
+			event.eventUrl(),
+			couponDTOs);
+	}
 }
@@ -0,0 +1,111 @@
+package com.eventostec.api.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Date;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.eventostec.api.domain.diagnostics.RecordingStatusDTO;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * One in-process flight recording that can be started, dumped and stopped
+ * over HTTP, for hosts where jcmd is not at hand. The recording is a ring
+ * bounded by max age and max size, so it can be left running and dumped
+ * right after a latency spike. The custom eventostec.* events are recorded
+ * under either settings file; while no recording is running they cost a
+ * disabled check.
+ */
+@Service
+public class FlightRecordingService {
+    private static final String RECORDING_NAME = "eventostec";
+
+    @Value("${diagnostics.recording.settings:default}")
+    private String settings;
+
+    @Value("${diagnostics.recording.max-age-seconds:900}")
+    private long maxAgeSeconds;
+
+    @Value("${diagnostics.recording.max-size-bytes:104857600}")
+    private long maxSizeBytes;
+
+    private Recording recording;
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecordingService.class);
+
+    public synchronized RecordingStatusDTO start() throws IOException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return this.status();
+        }
+        this.close();
+
+        logger.info("Start - FlightRecordingService - start - settings: {}", settings);
+        Recording started;
+        try {
+            started = new Recording(Configuration.getConfiguration(settings));
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid recording settings: " + settings);
+        }
+        started.setName(RECORDING_NAME);
+        started.setToDisk(true);
+        started.setMaxAge(Duration.ofSeconds(maxAgeSeconds));
+        started.setMaxSize(maxSizeBytes);
+        started.start();
+        this.recording = started;
+
+        return this.status();
+    }
+
+    /**
+     * Writes what the recording holds so far to a temp file the caller is
+     * expected to delete; the recording keeps running.
+     */
+    public synchronized Path dump() throws IOException {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            throw new IllegalArgumentException("No recording in progress");
+        }
+
+        Path file = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+        recording.dump(file);
+        logger.info("End - FlightRecordingService - dump - file: {}, size: {}", file, Files.size(file));
+        return file;
+    }
+
+    public synchronized RecordingStatusDTO stop() {
+        RecordingStatusDTO status = this.status();
+        this.close();
+        return status;
+    }
+
+    public synchronized RecordingStatusDTO status() {
+        if (recording == null) {
+            return new RecordingStatusDTO(RECORDING_NAME, RecordingState.NEW.name(), settings, null, maxAgeSeconds, maxSizeBytes, 0);
+        }
+        return new RecordingStatusDTO(recording.getName(),
+                                      recording.getState().name(),
+                                      settings,
+                                      recording.getStartTime() != null ? Date.from(recording.getStartTime()) : null,
+                                      maxAgeSeconds,
+                                      maxSizeBytes,
+                                      recording.getSize());
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.eventostec.api.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Streams images to S3 without staging them on disk or on the heap. Small
+ * images go in a single putObject with a known content length; images above
+ * the multipart threshold are sent as multipart-upload parts through one
+ * reusable buffer, so memory per upload is bounded by the part size.
+ */
+@Service
+public class ImageStorageService {
+    @Autowired
+    private AmazonS3 s3Client;
+
+    @Value("${aws.bucket.name}")
+    private String bucketName;
+
+    @Value("${aws.s3.multipart-threshold:16777216}")
+    private long multipartThreshold;
+
+    @Value("${aws.s3.part-size:5242880}")
+    private int partSize;
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageStorageService.class);
+
+    public String upload(MultipartFile multipartFile) throws IOException {
+        String fileName = UUID.randomUUID() + "-" + multipartFile.getOriginalFilename();
+
+        try (InputStream inputStream = multipartFile.getInputStream()) {
+            return this.upload(fileName, inputStream, multipartFile.getSize(), multipartFile.getContentType());
+        }
+    }
+
+    @Timed(value = "s3.upload", description = "Single or multipart upload of one object to S3", histogram = true)
+    public String upload(String fileName, InputStream inputStream, long contentLength, String contentType) throws IOException {
+        logger.info("Start - ImageStorageService - upload - file name: {}, size: {}", fileName, contentLength);
+
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(contentLength);
+        if (contentType != null) {
+            metadata.setContentType(contentType);
+        }
+
+        if (contentLength >= multipartThreshold) {
+            this.multipartUpload(fileName, inputStream, metadata);
+        } else {
+            s3Client.putObject(bucketName, fileName, inputStream, metadata);
+        }
+
+        String s3Url = s3Client.getUrl(bucketName, fileName).toString();
+        logger.info("End - ImageStorageService - upload - file name: {}, s3 url: {}", fileName, s3Url);
+        return s3Url;
+    }
+
+    private void multipartUpload(String fileName, InputStream inputStream, ObjectMetadata metadata) throws IOException {
+        String uploadId = s3Client.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucketName, fileName, metadata))
+                                  .getUploadId();
+        List<PartETag> partETags = new ArrayList<>();
+        byte[] buffer = new byte[partSize];
+
+        try {
+            int partNumber = 1;
+            int read;
+            while ((read = inputStream.readNBytes(buffer, 0, partSize)) > 0) {
+                UploadPartRequest part = new UploadPartRequest()
+                                            .withBucketName(bucketName)
+                                            .withKey(fileName)
+                                            .withUploadId(uploadId)
+                                            .withPartNumber(partNumber++)
+                                            .withInputStream(new ByteArrayInputStream(buffer, 0, read))
+                                            .withPartSize(read);
+                partETags.add(s3Client.uploadPart(part).getPartETag());
+            }
+
+            s3Client.completeMultipartUpload(new CompleteMultipartUploadRequest(bucketName, fileName, uploadId, partETags));
+        } catch (IOException | RuntimeException e) {
+            logger.error("End - ImageStorageService - multipartUpload - file name: {}", fileName);
+            s3Client.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, fileName, uploadId));
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.eventostec.api.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.eventostec.api.domain.diagnostics.ImageSpoolJfrEvent;
+import com.eventostec.api.domain.event.EventImageUploaded;
+import com.eventostec.api.domain.event.ImageStatus;
+import com.eventostec.api.domain.image.ImageUploadStatsDTO;
+import com.eventostec.api.domain.image.StoredImage;
+import com.eventostec.api.repositories.EventRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Uploads event images after the event row is saved. Uploads run on a fixed
+ * pool with a bounded queue; when the queue is full the request thread runs
+ * the upload itself, which slows producers down instead of piling up work.
+ * Failed uploads are retried with exponential backoff before the event is
+ * marked FAILED.
+ *
+ * Events whose upload never finished, because the node stopped or the task
+ * was dropped on shutdown, stay PENDING; a sweep at startup and on a schedule
+ * marks the ones pending for longer than pending-timeout-seconds as FAILED.
+ */
+@Service
+public class ImageUploadService implements MeterBinder {
+    @Value("${aws.s3.upload.async:false}")
+    private boolean async;
+
+    @Value("${aws.s3.upload.pool-size:4}")
+    private int poolSize;
+
+    @Value("${aws.s3.upload.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${aws.s3.upload.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${aws.s3.upload.retry-backoff-millis:500}")
+    private long retryBackoffMillis;
+
+    @Value("${aws.s3.upload.pending-timeout-seconds:900}")
+    private long pendingTimeoutSeconds;
+
+    @Autowired
+    private StoredImageService storedImageService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EventDataVersion eventDataVersion;
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageUploadService.class);
+
+    private ThreadPoolExecutor executor;
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder ranOnCaller = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private volatile Timer uploadedTimer;
+    private volatile Timer failedTimer;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        RejectedExecutionHandler callerRuns = new ThreadPoolExecutor.CallerRunsPolicy();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                                               new ArrayBlockingQueue<>(queueCapacity),
+                                               runnable -> {
+                                                   Thread thread = new Thread(runnable, "image-upload-" + threadNumber.incrementAndGet());
+                                                   thread.setDaemon(true);
+                                                   return thread;
+                                               },
+                                               (runnable, pool) -> {
+                                                   ranOnCaller.increment();
+                                                   callerRuns.rejectedExecution(runnable, pool);
+                                               });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * The multipart part is deleted when the request ends, so it is handed to
+     * a private temp file first; for parts the container already spooled to
+     * disk this is a rename rather than a copy. Done before the event is
+     * saved, so a failure here leaves nothing behind.
+     */
+    public SpooledImage spool(MultipartFile image) throws IOException {
+        ImageSpoolJfrEvent jfrEvent = new ImageSpoolJfrEvent();
+        jfrEvent.begin();
+        Path spooled = Files.createTempFile("event-image-", ".upload");
+        try {
+            image.transferTo(spooled);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.fileName = image.getOriginalFilename();
+            jfrEvent.size = image.getSize();
+            jfrEvent.queueDepth = executor.getQueue().size();
+            jfrEvent.commit();
+        }
+        return new SpooledImage(spooled, image.getOriginalFilename(), image.getContentType());
+    }
+
+    public void submit(UUID eventId, SpooledImage image) {
+        long submittedAt = System.nanoTime();
+        logger.info("Start - ImageUploadService - submit - eventId: {}, queue depth: {}", eventId, executor.getQueue().size());
+
+        executor.execute(() -> this.upload(eventId, image.path(), image.originalFilename(), image.contentType(), submittedAt));
+    }
+
+    /**
+     * Deletes a spooled image whose event was never saved.
+     */
+    public void discard(SpooledImage image) {
+        try {
+            Files.deleteIfExists(image.path());
+        } catch (IOException e) {
+            logger.error("End - ImageUploadService - discard - could not delete spooled file: {}", image.path());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${aws.s3.upload.pending-sweep-interval-millis:300000}")
+    public void failStalePending() {
+        Date before = new Date(System.currentTimeMillis() - pendingTimeoutSeconds * 1000);
+        int failedEvents = eventRepository.failPendingImagesBefore(before);
+        if (failedEvents > 0) {
+            eventDataVersion.changed();
+            logger.warn("End - ImageUploadService - failStalePending - events marked FAILED: {}", failedEvents);
+        }
+    }
+
+    void upload(UUID eventId, Path spooled, String originalFilename, String contentType, long submittedAt) {
+        try {
+            for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+                try {
+                    StoredImage image = storedImageService.store(new FileSystemResource(spooled), Files.size(spooled), originalFilename, contentType);
+                    eventRepository.updateImage(eventId, image.getUrl(), image.getThumbnailUrl(), image.getMediumUrl(), ImageStatus.UPLOADED);
+                    eventPublisher.publishEvent(new EventImageUploaded(eventId, image.getUrl(), image.getThumbnailUrl(), image.getMediumUrl()));
+                    eventDataVersion.changed();
+                    this.recordLatency(submittedAt, true);
+                    completed.increment();
+                    logger.info("End - ImageUploadService - upload - eventId: {}, attempt: {}", eventId, attempt);
+                    return;
+                } catch (IOException | RuntimeException e) {
+                    logger.error("End - ImageUploadService - upload - eventId: {}, attempt: {}", eventId, attempt, e);
+                    if (attempt == maxAttempts || !this.backoff(attempt)) {
+                        break;
+                    }
+                    retried.increment();
+                }
+            }
+
+            eventRepository.updateImage(eventId, null, null, null, ImageStatus.FAILED);
+            this.recordLatency(submittedAt, false);
+            failed.increment();
+        } finally {
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException e) {
+                logger.error("End - ImageUploadService - upload - could not delete spooled file: {}", spooled);
+            }
+        }
+    }
+
+    public ImageUploadStatsDTO stats() {
+        long finished = completed.sum() + failed.sum();
+        return new ImageUploadStatsDTO(executor.getQueue().size(),
+                                       executor.getQueue().remainingCapacity(),
+                                       executor.getActiveCount(),
+                                       completed.sum(),
+                                       failed.sum(),
+                                       retried.sum(),
+                                       ranOnCaller.sum(),
+                                       finished == 0 ? 0 : totalLatencyNanos.sum() / 1_000_000.0 / finished,
+                                       maxLatencyNanos.get() / 1_000_000.0);
+    }
+
+    private boolean backoff(int attempt) {
+        try {
+            Thread.sleep(retryBackoffMillis << (attempt - 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("image.upload.queue.depth", executor, pool -> pool.getQueue().size())
+             .description("Image uploads waiting for a thread")
+             .register(registry);
+        Gauge.builder("image.upload.queue.remaining", executor, pool -> pool.getQueue().remainingCapacity())
+             .description("Image uploads that can still be queued before callers run them")
+             .register(registry);
+        Gauge.builder("image.upload.active", executor, ThreadPoolExecutor::getActiveCount)
+             .description("Image uploads in progress")
+             .register(registry);
+        FunctionCounter.builder("image.upload.retries", retried, LongAdder::sum)
+                       .description("Image upload attempts retried after a failure")
+                       .register(registry);
+        FunctionCounter.builder("image.upload.caller.runs", ranOnCaller, LongAdder::sum)
+                       .description("Image uploads run on the request thread because the queue was full")
+                       .register(registry);
+        this.uploadedTimer = this.latencyTimer(registry, "uploaded");
+        this.failedTimer = this.latencyTimer(registry, "failed");
+    }
+
+    private Timer latencyTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("image.upload")
+                    .description("Time from submit until the event image is uploaded or marked FAILED")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry);
+    }
+
+    private void recordLatency(long submittedAt, boolean uploaded) {
+        long latency = System.nanoTime() - submittedAt;
+        totalLatencyNanos.add(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        Timer timer = uploaded ? uploadedTimer : failedTimer;
+        if (timer != null) {
+            timer.record(latency, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public record SpooledImage(Path path, String originalFilename, String contentType) {
+    }
+}
@@ -0,0 +1,218 @@
+package com.eventostec.api.services;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+
+import com.eventostec.api.domain.image.ImageVariant;
+import com.eventostec.api.domain.image.ImageVariantUrls;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Generates the resized JPEG variants of an uploaded image on a dedicated
+ * pool. The source is decoded once with ImageIO subsampling sized for the
+ * largest variant, so the raster held per image is at most about twice that
+ * variant per side whatever the original resolution; every variant is then
+ * scaled, encoded and uploaded as its own task in parallel.
+ */
+@Service
+public class ImageVariantService {
+    @Value("${event.image.variants.enabled:true}")
+    private boolean enabled;
+
+    @Value("${event.image.variants.pool-size:2}")
+    private int poolSize;
+
+    @Value("${event.image.variants.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+
+    private static final int DECODE_DIMENSION = Arrays.stream(ImageVariant.values()).mapToInt(ImageVariant::maxDimension).max().orElseThrow();
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "image-variant-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Variants that cannot be produced (unreadable image, failed upload) come
+     * back as null URLs; clients then fall back to the original image. Variant
+     * keys are baseName plus the variant suffix.
+     */
+    public ImageVariantUrls generate(InputStreamSource source, String baseName) {
+        if (!enabled) {
+            return ImageVariantUrls.NONE;
+        }
+
+        // Pool tasks never block on each other, so a full pool cannot deadlock on its own subtasks.
+        CompletableFuture<BufferedImage> decoded = CompletableFuture.supplyAsync(() -> this.decode(source, DECODE_DIMENSION), executor);
+        Map<ImageVariant, CompletableFuture<String>> uploads = new EnumMap<>(ImageVariant.class);
+        for (ImageVariant variant : ImageVariant.values()) {
+            uploads.put(variant, decoded.thenApplyAsync(image -> this.createVariant(image, baseName, variant), executor));
+        }
+
+        return new ImageVariantUrls(this.join(uploads.get(ImageVariant.THUMBNAIL)), this.join(uploads.get(ImageVariant.MEDIUM)));
+    }
+
+    private String join(CompletableFuture<String> upload) {
+        try {
+            return upload.join();
+        } catch (CompletionException e) {
+            logger.error("End - ImageVariantService - generate", e.getCause());
+            return null;
+        }
+    }
+
+    private String createVariant(BufferedImage image, String baseName, ImageVariant variant) {
+        if (image == null) {
+            return null;
+        }
+
+        try {
+            byte[] jpeg = this.encode(this.scale(image, variant.maxDimension()));
+            String fileName = baseName + "-" + variant.suffix() + ".jpg";
+            return imageStorageService.upload(fileName, new ByteArrayInputStream(jpeg), jpeg.length, "image/jpeg");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the image scaled so its longest side is at most maxDimension,
+     * re-encoded as JPEG, or null when the source is not a readable image.
+     */
+    byte[] resize(InputStreamSource source, int maxDimension) throws IOException {
+        BufferedImage image = this.decode(source, maxDimension);
+        return image != null ? this.encode(this.scale(image, maxDimension)) : null;
+    }
+
+    /**
+     * Decodes with the largest subsampling that still leaves the longest side
+     * at or above maxDimension, or returns null when no ImageIO reader
+     * recognises the source.
+     */
+    private BufferedImage decode(InputStreamSource source, int maxDimension) {
+        try (InputStream inputStream = source.getInputStream();
+             ImageInputStream imageStream = new MemoryCacheImageInputStream(inputStream)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageStream);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageStream, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longestSide / maxDimension);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Bilinear drawing only samples neighbouring pixels, so large reductions
+     * are done in halving steps to avoid aliasing in the thumbnail.
+     */
+    private BufferedImage scale(BufferedImage image, int maxDimension) {
+        int longestSide = Math.max(image.getWidth(), image.getHeight());
+        while (longestSide / 2 >= maxDimension) {
+            image = this.draw(image, Math.max(1, image.getWidth() / 2), Math.max(1, image.getHeight() / 2));
+            longestSide /= 2;
+        }
+
+        double ratio = Math.min(1.0, (double) maxDimension / longestSide);
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        return this.draw(image, width, height);
+    }
+
+    private BufferedImage draw(BufferedImage image, int width, int height) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // JPEG has no alpha channel; transparent PNG areas become white instead of black.
+            graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ImageOutputStream imageStream = new MemoryCacheImageOutputStream(outputStream)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+
+            writer.setOutput(imageStream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return outputStream.toByteArray();
+    }
+}
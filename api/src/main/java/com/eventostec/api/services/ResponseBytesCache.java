@@ -0,0 +1,126 @@
+package com.eventostec.api.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.eventostec.api.domain.cache.CacheStatsDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Final response bodies of the hottest reads, kept as JSON bytes and as a
+ * gzip copy so a hit is written out without Jackson or a deflater. Entries are
+ * keyed by the request and the current EventDataVersion tag: a write or a
+ * time bucket rollover makes them unreachable, and they expire with the
+ * bucket, or earlier when the body itself goes stale with the clock, as event
+ * details do when a listed coupon expires. The cache is bounded by bytes;
+ * Caffeine's frequency-based admission keeps the pages that are actually hot.
+ */
+@Service
+public class ResponseBytesCache {
+    @Value("${event.cache.response.maximum-bytes:33554432}")
+    private long maximumBytes;
+
+    @Value("${event.etag.time-bucket-seconds:15}")
+    private long timeBucketSeconds;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Cache<Key, Entry> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = Caffeine.newBuilder()
+                             .maximumWeight(maximumBytes)
+                             .weigher((Key key, Entry entry) -> entry.json().length + entry.gzip().length)
+                             .expireAfter(new BodyExpiry(Duration.ofSeconds(timeBucketSeconds).toNanos()))
+                             .recordStats()
+                             .build();
+    }
+
+    public Entry get(Object request, String etag, Supplier<?> loader) {
+        return this.get(request, etag, loader, body -> Long.MAX_VALUE);
+    }
+
+    /**
+     * expiresAt gives the time the loaded body stops being current; the entry
+     * is never served past it, and callers fold it into their tag.
+     */
+    public <T> Entry get(Object request, String etag, Supplier<T> loader, ToLongFunction<? super T> expiresAt) {
+        return cache.get(new Key(request, etag), key -> {
+            T body = loader.get();
+            return this.serialize(body, expiresAt.applyAsLong(body));
+        });
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO("response-bytes",
+                                 cache.estimatedSize(),
+                                 stats.hitCount(),
+                                 stats.missCount(),
+                                 stats.evictionCount(),
+                                 0);
+    }
+
+    private Entry serialize(Object body, long expiresAt) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            return new Entry(json, compressed.toByteArray(), expiresAt);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record Entry(byte[] json, byte[] gzip, long expiresAt) {
+    }
+
+    private record Key(Object request, String etag) {
+    }
+
+    private static final class BodyExpiry implements Expiry<Key, Entry> {
+        private final long bucketNanos;
+
+        BodyExpiry(long bucketNanos) {
+            this.bucketNanos = bucketNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+            if (entry.expiresAt() == Long.MAX_VALUE) {
+                return bucketNanos;
+            }
+            long remainingNanos = Duration.ofMillis(Math.max(0, entry.expiresAt() - System.currentTimeMillis())).toNanos();
+            return Math.min(bucketNanos, remainingNanos);
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+            return this.expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
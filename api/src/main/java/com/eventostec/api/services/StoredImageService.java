@@ -0,0 +1,109 @@
+package com.eventostec.api.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.eventostec.api.domain.image.ImageVariantUrls;
+import com.eventostec.api.domain.image.StoredImage;
+import com.eventostec.api.repositories.StoredImageRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Content-addressed image storage. Objects are keyed by the SHA-256 of their
+ * bytes and recorded in stored_image, so re-uploading a known image costs one
+ * hashing pass and a primary key lookup instead of S3 uploads and variant
+ * generation.
+ */
+@Service
+public class StoredImageService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private StoredImageRepository storedImageRepository;
+
+    private static final Logger logger = LoggerFactory.getLogger(StoredImageService.class);
+
+    @Timed(value = "event.image.upload", description = "Hashing, deduplication and S3 upload of an event image", histogram = true)
+    public StoredImage store(MultipartFile multipartFile) throws IOException {
+        return this.store(multipartFile, multipartFile.getSize(), multipartFile.getOriginalFilename(), multipartFile.getContentType());
+    }
+
+    /**
+     * The source is read twice: once to hash it and, only for new content, once
+     * more to upload it. Both callers pass sources already on disk or in
+     * memory, so the second read does not touch the network.
+     */
+    @Timed(value = "event.image.upload", description = "Hashing, deduplication and S3 upload of an event image", histogram = true)
+    public StoredImage store(InputStreamSource source, long size, String originalFilename, String contentType) throws IOException {
+        String hash = this.hash(source);
+        Optional<StoredImage> existing = storedImageRepository.findById(hash);
+        if (existing.isPresent()) {
+            logger.info("End - StoredImageService - store - reused hash: {}", hash);
+            return existing.get();
+        }
+
+        String url;
+        try (InputStream inputStream = source.getInputStream()) {
+            url = imageStorageService.upload(hash + this.extension(originalFilename), inputStream, size, contentType);
+        }
+        ImageVariantUrls variants = imageVariantService.generate(source, hash);
+
+        StoredImage storedImage = new StoredImage(hash, url, variants.thumbnailUrl(), variants.mediumUrl(), size, contentType, new Date());
+        try {
+            return storedImageRepository.save(storedImage);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent upload of the same bytes won; it wrote the same keys, so either row is valid.
+            return storedImageRepository.findById(hash).orElse(storedImage);
+        }
+    }
+
+    String hash(InputStreamSource source) throws IOException {
+        MessageDigest digest = this.sha256();
+        try (InputStream inputStream = new DigestInputStream(source.getInputStream(), digest)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (inputStream.read(buffer) != -1) {
+                // DigestInputStream updates the digest as it is read.
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private String extension(String originalFilename) {
+        if (originalFilename == null) {
+            return "";
+        }
+        int dot = originalFilename.lastIndexOf('.');
+        String extension = dot >= 0 ? originalFilename.substring(dot).toLowerCase(Locale.ROOT) : "";
+        return extension.matches("\\.[a-z0-9]{1,5}") ? extension : "";
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
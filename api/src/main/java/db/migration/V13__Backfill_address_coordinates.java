@@ -0,0 +1,155 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Fills the coordinates added in V12 from a city centroid table. Lookups
+ * happen in Java, so names match with the same accent and case folding new
+ * addresses get; there are only as many updates as distinct city/uf pairs.
+ *
+ * The table and the name folding are copies of geo/city-centroids.csv and
+ * CityCentroids as they were when this migration was written, so later
+ * changes to either never change what it does.
+ */
+public class V13__Backfill_address_coordinates extends BaseJavaMigration {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private static final List<Centroid> CENTROIDS = List.of(
+        new Centroid("Rio Branco", "AC", -9.9747, -67.8100),
+        new Centroid("Maceió", "AL", -9.6658, -35.7350),
+        new Centroid("Arapiraca", "AL", -9.7525, -36.6611),
+        new Centroid("Macapá", "AP", 0.0349, -51.0694),
+        new Centroid("Manaus", "AM", -3.1190, -60.0217),
+        new Centroid("Salvador", "BA", -12.9714, -38.5014),
+        new Centroid("Feira de Santana", "BA", -12.2664, -38.9663),
+        new Centroid("Vitória da Conquista", "BA", -14.8615, -40.8442),
+        new Centroid("Fortaleza", "CE", -3.7319, -38.5267),
+        new Centroid("Caucaia", "CE", -3.7361, -38.6531),
+        new Centroid("Juazeiro do Norte", "CE", -7.2131, -39.3151),
+        new Centroid("Brasília", "DF", -15.7939, -47.8828),
+        new Centroid("Vitória", "ES", -20.3155, -40.3128),
+        new Centroid("Vila Velha", "ES", -20.3297, -40.2925),
+        new Centroid("Serra", "ES", -20.1211, -40.3074),
+        new Centroid("Cariacica", "ES", -20.2632, -40.4165),
+        new Centroid("Goiânia", "GO", -16.6869, -49.2648),
+        new Centroid("Aparecida de Goiânia", "GO", -16.8198, -49.2469),
+        new Centroid("Anápolis", "GO", -16.3281, -48.9530),
+        new Centroid("São Luís", "MA", -2.5307, -44.3068),
+        new Centroid("Imperatriz", "MA", -5.5264, -47.4917),
+        new Centroid("Cuiabá", "MT", -15.6014, -56.0979),
+        new Centroid("Várzea Grande", "MT", -15.6458, -56.1322),
+        new Centroid("Campo Grande", "MS", -20.4697, -54.6201),
+        new Centroid("Dourados", "MS", -22.2231, -54.8120),
+        new Centroid("Belo Horizonte", "MG", -19.9167, -43.9345),
+        new Centroid("Contagem", "MG", -19.9321, -44.0539),
+        new Centroid("Betim", "MG", -19.9677, -44.1983),
+        new Centroid("Uberlândia", "MG", -18.9186, -48.2772),
+        new Centroid("Juiz de Fora", "MG", -21.7642, -43.3496),
+        new Centroid("Montes Claros", "MG", -16.7350, -43.8617),
+        new Centroid("Belém", "PA", -1.4558, -48.4902),
+        new Centroid("Ananindeua", "PA", -1.3656, -48.3722),
+        new Centroid("Santarém", "PA", -2.4430, -54.7083),
+        new Centroid("João Pessoa", "PB", -7.1195, -34.8450),
+        new Centroid("Campina Grande", "PB", -7.2307, -35.8817),
+        new Centroid("Curitiba", "PR", -25.4284, -49.2733),
+        new Centroid("Londrina", "PR", -23.3045, -51.1696),
+        new Centroid("Maringá", "PR", -23.4205, -51.9333),
+        new Centroid("Ponta Grossa", "PR", -25.0916, -50.1668),
+        new Centroid("Cascavel", "PR", -24.9578, -53.4595),
+        new Centroid("Foz do Iguaçu", "PR", -25.5478, -54.5882),
+        new Centroid("Recife", "PE", -8.0476, -34.8770),
+        new Centroid("Jaboatão dos Guararapes", "PE", -8.1130, -35.0148),
+        new Centroid("Olinda", "PE", -8.0089, -34.8553),
+        new Centroid("Caruaru", "PE", -8.2760, -35.9819),
+        new Centroid("Petrolina", "PE", -9.3891, -40.5030),
+        new Centroid("Teresina", "PI", -5.0892, -42.8019),
+        new Centroid("Parnaíba", "PI", -2.9055, -41.7734),
+        new Centroid("Rio de Janeiro", "RJ", -22.9068, -43.1729),
+        new Centroid("Niterói", "RJ", -22.8832, -43.1034),
+        new Centroid("São Gonçalo", "RJ", -22.8268, -43.0634),
+        new Centroid("Duque de Caxias", "RJ", -22.7856, -43.3117),
+        new Centroid("Nova Iguaçu", "RJ", -22.7592, -43.4511),
+        new Centroid("Petrópolis", "RJ", -22.5046, -43.1823),
+        new Centroid("Campos dos Goytacazes", "RJ", -21.7545, -41.3244),
+        new Centroid("Natal", "RN", -5.7945, -35.2110),
+        new Centroid("Mossoró", "RN", -5.1878, -37.3442),
+        new Centroid("Porto Alegre", "RS", -30.0346, -51.2177),
+        new Centroid("Canoas", "RS", -29.9178, -51.1839),
+        new Centroid("Caxias do Sul", "RS", -29.1678, -51.1794),
+        new Centroid("Pelotas", "RS", -31.7654, -52.3376),
+        new Centroid("Santa Maria", "RS", -29.6842, -53.8069),
+        new Centroid("Porto Velho", "RO", -8.7612, -63.9004),
+        new Centroid("Ji-Paraná", "RO", -10.8777, -61.9322),
+        new Centroid("Boa Vista", "RR", 2.8235, -60.6758),
+        new Centroid("Florianópolis", "SC", -27.5954, -48.5480),
+        new Centroid("Joinville", "SC", -26.3045, -48.8487),
+        new Centroid("Blumenau", "SC", -26.9194, -49.0661),
+        new Centroid("São Paulo", "SP", -23.5505, -46.6333),
+        new Centroid("Guarulhos", "SP", -23.4543, -46.5337),
+        new Centroid("Campinas", "SP", -22.9099, -47.0626),
+        new Centroid("São Bernardo do Campo", "SP", -23.6914, -46.5646),
+        new Centroid("Santo André", "SP", -23.6639, -46.5383),
+        new Centroid("Osasco", "SP", -23.5329, -46.7917),
+        new Centroid("Santos", "SP", -23.9608, -46.3336),
+        new Centroid("Sorocaba", "SP", -23.5015, -47.4526),
+        new Centroid("Ribeirão Preto", "SP", -21.1775, -47.8103),
+        new Centroid("São José dos Campos", "SP", -23.2237, -45.9009),
+        new Centroid("São José do Rio Preto", "SP", -20.8113, -49.3758),
+        new Centroid("Jundiaí", "SP", -23.1857, -46.8978),
+        new Centroid("Piracicaba", "SP", -22.7338, -47.6476),
+        new Centroid("Bauru", "SP", -22.3246, -49.0871),
+        new Centroid("Aracaju", "SE", -10.9472, -37.0731),
+        new Centroid("Palmas", "TO", -10.1840, -48.3336),
+        new Centroid("Araguaína", "TO", -7.1911, -48.2072)
+    );
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Map<String, Centroid> centroids = new HashMap<>();
+        for (Centroid centroid : CENTROIDS) {
+            centroids.put(key(centroid.city(), centroid.uf()), centroid);
+        }
+        Connection connection = context.getConnection();
+
+        try (Statement select = connection.createStatement();
+             ResultSet cities = select.executeQuery("SELECT DISTINCT city, uf FROM address WHERE latitude IS NULL");
+             PreparedStatement update = connection.prepareStatement(
+                 "UPDATE address SET latitude = ?, longitude = ? WHERE city = ? AND uf = ? AND latitude IS NULL")) {
+            while (cities.next()) {
+                String city = cities.getString(1);
+                String uf = cities.getString(2);
+                Centroid centroid = city != null && uf != null ? centroids.get(key(city, uf)) : null;
+                if (centroid == null) {
+                    continue;
+                }
+                update.setDouble(1, centroid.latitude());
+                update.setDouble(2, centroid.longitude());
+                update.setString(3, city);
+                update.setString(4, uf);
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+    }
+
+    private static String key(String city, String uf) {
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(city, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(normalized.trim().toLowerCase(Locale.ROOT)).replaceAll(" ") + "|" + uf.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private record Centroid(String city, String uf, double latitude, double longitude) {
+    }
+}
@@ -0,0 +1,5 @@
+ALTER TABLE coupon ADD COLUMN max_uses INTEGER;
+ALTER TABLE coupon ADD COLUMN reserved_uses INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE coupon ADD COLUMN redeemed_uses INTEGER NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_coupon_event_code ON coupon (event_id, code);
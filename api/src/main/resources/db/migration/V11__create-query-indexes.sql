@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS idx_address_event_id ON address (event_id);
+CREATE INDEX IF NOT EXISTS idx_coupon_event_valid ON coupon (event_id, valid);
@@ -0,0 +1,4 @@
+ALTER TABLE address ADD COLUMN latitude DOUBLE PRECISION;
+ALTER TABLE address ADD COLUMN longitude DOUBLE PRECISION;
+
+CREATE INDEX IF NOT EXISTS idx_address_coordinates ON address (latitude, longitude) WHERE latitude IS NOT NULL;
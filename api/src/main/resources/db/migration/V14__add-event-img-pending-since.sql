@@ -0,0 +1,3 @@
+ALTER TABLE event ADD COLUMN img_pending_since TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_event_img_pending_since ON event (img_pending_since) WHERE img_status = 'PENDING';
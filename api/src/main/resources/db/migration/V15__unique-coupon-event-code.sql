@@ -0,0 +1,10 @@
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM coupon GROUP BY event_id, code HAVING count(*) > 1) THEN
+        RAISE EXCEPTION 'coupon has duplicate (event_id, code) pairs; resolve them before adding the unique index';
+    END IF;
+END $$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_coupon_event_code ON coupon (event_id, code);
+
+DROP INDEX IF EXISTS idx_coupon_event_code;
@@ -0,0 +1,3 @@
+ALTER TABLE coupon ADD COLUMN lease_expires_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_coupon_lease_expires_at ON coupon (lease_expires_at) WHERE reserved_uses > redeemed_uses;
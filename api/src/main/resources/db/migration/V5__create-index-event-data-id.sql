@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_event_data_id ON event (data, id);
@@ -0,0 +1,11 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE event ADD COLUMN search_vector tsvector
+	GENERATED ALWAYS AS (
+		setweight(to_tsvector('portuguese', coalesce(title, '')), 'A') ||
+		setweight(to_tsvector('portuguese', coalesce(description, '')), 'B')
+	) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_event_search_vector ON event USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_address_city_trgm ON address USING GIN (city gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_address_uf_lower ON address (lower(uf));
@@ -0,0 +1,2 @@
+ALTER TABLE event ADD COLUMN img_status VARCHAR(20);
+ALTER TABLE event ALTER COLUMN img_url DROP NOT NULL;
@@ -0,0 +1,2 @@
+ALTER TABLE event ADD COLUMN img_thumbnail_url VARCHAR(250);
+ALTER TABLE event ADD COLUMN img_medium_url VARCHAR(250);
@@ -0,0 +1,9 @@
+CREATE TABLE stored_image(
+	hash CHAR(64) PRIMARY KEY,
+	url VARCHAR(250) NOT NULL,
+	thumbnail_url VARCHAR(250),
+	medium_url VARCHAR(250),
+	size BIGINT NOT NULL,
+	content_type VARCHAR(100),
+	created_at TIMESTAMP NOT NULL
+);
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.eventostec.api.configuration;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import com.eventostec.api.repositories.EventRepository;
+import com.eventostec.api.repositories.SyntheticDatabase;
+import com.eventostec.api.services.EventDataVersion;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Two embedded PostgreSQL databases with different row counts stand in for
+ * the primary and a replica, so the count a query returns tells which one
+ * served it.
+ */
+public class ReplicaDataSourceConfigTests {
+    private static final int PRIMARY_EVENTS = 10;
+
+    private static final int REPLICA_EVENTS = 20;
+
+    private static EmbeddedPostgres primary;
+
+    private static EmbeddedPostgres replica;
+
+    private static ConfigurableApplicationContext context;
+
+    @BeforeAll
+    static void startDatabases() throws IOException, SQLException {
+        primary = SyntheticDatabase.start(PRIMARY_EVENTS, 0);
+        replica = SyntheticDatabase.start(REPLICA_EVENTS, 0);
+
+        // max-lag-seconds=0 also turns off the primary-after-write window.
+        context = new SpringApplicationBuilder(JpaSlice.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=" + primary.getJdbcUrl("postgres", "postgres"),
+                 "--spring.datasource.username=postgres",
+                 "--spring.datasource.password=postgres",
+                 "--datasource.replica.enabled=true",
+                 "--datasource.replica.urls=" + replica.getJdbcUrl("postgres", "postgres"),
+                 "--datasource.replica.max-lag-seconds=0",
+                 "--spring.flyway.enabled=false",
+                 "--spring.devtools.restart.enabled=false",
+                 "--spring.main.banner-mode=off");
+        context.getBean(ReplicaRoutingDataSource.class).checkLag();
+    }
+
+    @AfterAll
+    static void stopDatabases() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (replica != null) {
+            replica.close();
+        }
+        if (primary != null) {
+            primary.close();
+        }
+    }
+
+    @Test
+    void shouldServeReplicaReadsFromReplica() {
+        assertEquals(REPLICA_EVENTS, context.getBean(Reader.class).countFromReplica());
+    }
+
+    @Test
+    void shouldServeOtherQueriesFromPrimary() {
+        assertEquals(PRIMARY_EVENTS, context.getBean(EventRepository.class).count());
+        assertEquals(PRIMARY_EVENTS, context.getBean(Reader.class).count());
+    }
+
+    static class Reader {
+        private final EventRepository eventRepository;
+
+        Reader(EventRepository eventRepository) {
+            this.eventRepository = eventRepository;
+        }
+
+        @ReplicaRead
+        public long countFromReplica() {
+            return eventRepository.count();
+        }
+
+        public long count() {
+            return eventRepository.count();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableAutoConfiguration
+    @EntityScan(basePackages = "com.eventostec.api.domain")
+    @EnableJpaRepositories(basePackageClasses = EventRepository.class)
+    @Import({ReplicaDataSourceConfig.class, EventDataVersion.class, Reader.class})
+    static class JpaSlice {
+    }
+}
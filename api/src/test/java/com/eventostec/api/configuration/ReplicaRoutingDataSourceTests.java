@@ -0,0 +1,109 @@
+package com.eventostec.api.configuration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReplicaRoutingDataSourceTests {
+
+    private DataSource primary;
+
+    private Connection primaryConnection;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        ReplicaRoutingDataSource.REPLICA_READ.set(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReplicaRoutingDataSource.REPLICA_READ.remove();
+    }
+
+    @Test
+    void shouldBalanceReadsAcrossReplicasInSync() throws SQLException {
+        DataSource first = replica(0);
+        DataSource second = replica(1.5);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(first, second), 5, () -> 0L);
+        routing.checkLag();
+
+        assertSame(first.getConnection(), routing.getConnection());
+        assertSame(second.getConnection(), routing.getConnection());
+        assertSame(first.getConnection(), routing.getConnection());
+    }
+
+    @Test
+    void shouldReadFromPrimaryOutsideReplicaReads() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica(0)), 5, () -> 0L);
+        routing.checkLag();
+        ReplicaRoutingDataSource.REPLICA_READ.remove();
+
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void shouldSkipReplicasBehindTheLagLimit() throws SQLException {
+        DataSource lagging = replica(30);
+        DataSource inSync = replica(0);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(lagging, inSync), 5, () -> 0L);
+        routing.checkLag();
+
+        assertSame(inSync.getConnection(), routing.getConnection());
+        assertSame(inSync.getConnection(), routing.getConnection());
+    }
+
+    @Test
+    void shouldReadFromPrimaryUntilReplicasAreCheckedOrWhenAllLag() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica(30)), 5, () -> 0L);
+
+        assertSame(primaryConnection, routing.getConnection());
+        routing.checkLag();
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void shouldReadFromPrimaryRightAfterAWrite() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica(0)), 5, System::currentTimeMillis);
+        routing.checkLag();
+
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaRefusesConnections() throws SQLException {
+        DataSource replica = replica(0);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica), 5, () -> 0L);
+        routing.checkLag();
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        assertSame(primaryConnection, routing.getConnection());
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    private static DataSource replica(double lagSeconds) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(lagSeconds);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(ReplicaRoutingDataSource.LAG_QUERY)).thenReturn(resultSet);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
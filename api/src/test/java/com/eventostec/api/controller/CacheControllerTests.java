@@ -0,0 +1,55 @@
+package com.eventostec.api.controller;
+
+import static org.hamcrest.Matchers.is;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.eventostec.api.domain.cache.CacheStatsDTO;
+import com.eventostec.api.services.EventCountCache;
+import com.eventostec.api.services.EventDetailsCache;
+import com.eventostec.api.services.EventListingCache;
+import com.eventostec.api.services.ResponseBytesCache;
+
+@WebMvcTest(CacheController.class)
+public class CacheControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EventListingCache eventListingCache;
+
+    @MockBean
+    private EventDetailsCache eventDetailsCache;
+
+    @MockBean
+    private EventCountCache eventCountCache;
+
+    @MockBean
+    private ResponseBytesCache responseBytesCache;
+
+    @Test
+    public void getStatsShouldReturnCacheStats() throws Exception {
+        when(eventListingCache.stats()).thenReturn(new CacheStatsDTO("event-listing", 4, 10, 2, 1, 3));
+        when(eventDetailsCache.stats()).thenReturn(new CacheStatsDTO("event-details", 1, 5, 1, 0, 0));
+        when(eventCountCache.stats()).thenReturn(new CacheStatsDTO("event-count", 2, 7, 2, 0, 1));
+        when(responseBytesCache.stats()).thenReturn(new CacheStatsDTO("response-bytes", 3, 40, 3, 0, 0));
+
+        mockMvc.perform(get("/api/cache/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].name", is("event-listing")))
+            .andExpect(jsonPath("$[0].hitCount", is(10)))
+            .andExpect(jsonPath("$[0].evictionCount", is(1)))
+            .andExpect(jsonPath("$[1].name", is("event-details")))
+            .andExpect(jsonPath("$[1].hitCount", is(5)))
+            .andExpect(jsonPath("$[2].name", is("event-count")))
+            .andExpect(jsonPath("$[3].name", is("response-bytes")));
+    }
+}
@@ -1,20 +1,36 @@
 package com.eventostec.api.controller;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.eventostec.api.domain.coupon.Coupon;
+import com.eventostec.api.domain.coupon.CouponBatchProgressDTO;
+import com.eventostec.api.domain.coupon.CouponBatchRequestDTO;
+import com.eventostec.api.domain.coupon.CouponRedemptionDTO;
 import com.eventostec.api.domain.coupon.CouponRequestDTO;
+import com.eventostec.api.domain.coupon.CouponStatus;
+import com.eventostec.api.services.CouponRedemptionService;
 import com.eventostec.api.services.CouponService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -27,6 +43,9 @@ public class CouponControllerTests {
     @MockBean
     private CouponService couponService;
 
+    @MockBean
+    private CouponRedemptionService couponRedemptionService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -49,4 +68,62 @@ public class CouponControllerTests {
             .andExpect(jsonPath("$.code").value(coupon.getCode()))
             .andExpect(jsonPath("$.discount").value(coupon.getDiscount()));
     }
+
+    @Test
+    public void generateCouponsShouldStreamProgressAsNdjson() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        CouponBatchRequestDTO couponBatchRequestDTO = new CouponBatchRequestDTO(3, 10, 1718203231L, "PROMO", 6);
+        doAnswer(invocation -> {
+            Consumer<CouponBatchProgressDTO> progress = invocation.getArgument(2);
+            progress.accept(new CouponBatchProgressDTO(2, 3, List.of("PROMOAAAAAA", "PROMOBBBBBB")));
+            progress.accept(new CouponBatchProgressDTO(3, 3, List.of("PROMOCCCCCC")));
+            return null;
+        }).when(couponService).generateCoupons(eq(eventId), eq(couponBatchRequestDTO), any());
+
+        MvcResult result = mockMvc.perform(post("/api/coupon/event/{eventId}/batch", eventId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(couponBatchRequestDTO)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().string("{\"inserted\":2,\"total\":3,\"codes\":[\"PROMOAAAAAA\",\"PROMOBBBBBB\"]}\n"
+                                        + "{\"inserted\":3,\"total\":3,\"codes\":[\"PROMOCCCCCC\"]}\n"));
+        verify(couponService).validateBatch(eventId, couponBatchRequestDTO);
+    }
+
+    @Test
+    public void validateCouponShouldReturnOkWhenValid() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        when(couponRedemptionService.validate(eventId, "TEST20"))
+            .thenReturn(new CouponRedemptionDTO("TEST20", 20, null, CouponStatus.VALID));
+
+        mockMvc.perform(get("/api/coupon/event/{eventId}/code/{code}", eventId, "TEST20"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.discount").value(20))
+            .andExpect(jsonPath("$.status").value("VALID"));
+    }
+
+    @Test
+    public void validateCouponShouldReturnNotFoundForUnknownCode() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        when(couponRedemptionService.validate(eventId, "NOPE"))
+            .thenReturn(new CouponRedemptionDTO("NOPE", null, null, CouponStatus.NOT_FOUND));
+
+        mockMvc.perform(get("/api/coupon/event/{eventId}/code/{code}", eventId, "NOPE"))
+            .andExpect(status().isNotFound())
+            .andExpect(jsonPath("$.status").value("NOT_FOUND"));
+    }
+
+    @Test
+    public void redeemCouponShouldReturnConflictWhenExhausted() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        when(couponRedemptionService.redeem(eventId, "TEST20"))
+            .thenReturn(new CouponRedemptionDTO("TEST20", 20, null, CouponStatus.EXHAUSTED));
+
+        mockMvc.perform(post("/api/coupon/event/{eventId}/code/{code}/redeem", eventId, "TEST20"))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.status").value("EXHAUSTED"));
+    }
 }
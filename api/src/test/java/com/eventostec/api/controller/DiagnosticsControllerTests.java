@@ -0,0 +1,60 @@
+package com.eventostec.api.controller;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.eventostec.api.domain.diagnostics.RecordingStatusDTO;
+import com.eventostec.api.services.FlightRecordingService;
+
+@WebMvcTest(controllers = DiagnosticsController.class, properties = "diagnostics.recording.endpoint-enabled=true")
+public class DiagnosticsControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private FlightRecordingService flightRecordingService;
+
+    @Test
+    public void startShouldReturnRecordingStatus() throws Exception {
+        when(flightRecordingService.start()).thenReturn(new RecordingStatusDTO("eventostec", "RUNNING", "default", new Date(), 900, 1024, 0));
+
+        mockMvc.perform(post("/api/diagnostics/recording"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.state", is("RUNNING")));
+    }
+
+    @Test
+    public void dumpShouldStreamAndDeleteRecordingFile() throws Exception {
+        Path file = Files.createTempFile("eventostec-", ".jfr");
+        Files.write(file, new byte[] { 1, 2, 3 });
+        when(flightRecordingService.dump()).thenReturn(file);
+
+        MvcResult result = mockMvc.perform(get("/api/diagnostics/recording/dump"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().bytes(new byte[] { 1, 2, 3 }));
+        assertFalse(Files.exists(file));
+    }
+}
@@ -1,33 +1,66 @@
 package com.eventostec.api.controller;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.eventostec.api.domain.event.CountMode;
+import com.eventostec.api.domain.event.CursorPaginatedResponse;
 import com.eventostec.api.domain.event.Event;
 import com.eventostec.api.domain.event.EventDetailsDTO;
+import com.eventostec.api.domain.event.EventFacetsDTO;
+import com.eventostec.api.domain.event.EventImportResultDTO;
 import com.eventostec.api.domain.event.EventRequestDTO;
 import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.NearbyEventDTO;
 import com.eventostec.api.domain.event.PaginatedResponse;
+import com.eventostec.api.services.EventDataVersion;
+import com.eventostec.api.services.EventExportService;
+import com.eventostec.api.services.EventFeedService;
+import com.eventostec.api.services.EventImportService;
 import com.eventostec.api.services.EventService;
+import com.eventostec.api.services.ResponseBytesCache;
 
-@WebMvcTest(EventController.class)
+@WebMvcTest(controllers = EventController.class, properties = "event.etag.time-bucket-seconds=3600")
+@Import({EventDataVersion.class, ResponseBytesCache.class})
 public class EventControllerTests {
     
     @Autowired
@@ -36,6 +69,24 @@ public class EventControllerTests {
     @MockBean
     private EventService eventService;
 
+    @MockBean
+    private EventImportService eventImportService;
+
+    @MockBean
+    private EventExportService eventExportService;
+
+    @MockBean
+    private EventFeedService eventFeedService;
+
+    @Autowired
+    private EventDataVersion eventDataVersion;
+
+    @BeforeEach
+    public void setUp() {
+        // The context, and with it the response bytes cache, is shared by all tests.
+        eventDataVersion.changed();
+    }
+
     @Test
     public void createEventWhenSuccessful() throws Exception {
         EventRequestDTO eventRequestDTO = new EventRequestDTO("Event test",
@@ -91,7 +142,7 @@ public class EventControllerTests {
                                                                 "www.test.com.br");
         eventResponseDTOList.add(eventResponseDTO);
 
-        when(eventService.getUpcomingEvents(0, 10)).thenReturn(new PaginatedResponse<>(eventResponseDTOList, 1));
+        when(eventService.getUpcomingEvents(0, 10, CountMode.EXACT)).thenReturn(new PaginatedResponse<>(eventResponseDTOList, 1));
 
         mockMvc.perform(get("/api/event")
             .param("page", "0")
@@ -101,6 +152,110 @@ public class EventControllerTests {
             .andExpect(jsonPath("$.content[0].id").isNotEmpty());
     };
 
+    @Test
+    public void getEventsShouldOmitTotalPageWhenCountIsNone() throws Exception {
+        List<EventResponseDTO> eventResponseDTOList = new ArrayList<>();
+        eventResponseDTOList.add(new EventResponseDTO(UUID.randomUUID(),
+                                                      "Event test",
+                                                      "Event test",
+                                                      new Date(),
+                                                      "São Paulo",
+                                                      "SP",
+                                                      false,
+                                                      "www.test.com.br",
+                                                      "www.test.com.br"));
+
+        when(eventService.getUpcomingEvents(0, 10, CountMode.NONE)).thenReturn(PaginatedResponse.withoutCount(eventResponseDTOList, true));
+
+        mockMvc.perform(get("/api/event")
+            .param("count", "none")
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.hasNext").value(true))
+            .andExpect(jsonPath("$.totalPage").doesNotExist());
+    }
+
+    @Test
+    public void getEventsShouldAnswerNotModifiedWithoutLoadingWhenETagMatches() throws Exception {
+        when(eventService.getUpcomingEvents(0, 10, CountMode.EXACT)).thenReturn(new PaginatedResponse<>(new ArrayList<>(), 0));
+
+        String etag = mockMvc.perform(get("/api/event"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/event").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        verify(eventService, times(1)).getUpcomingEvents(0, 10, CountMode.EXACT);
+    }
+
+    @Test
+    public void getEventsShouldIgnoreIfModifiedSinceAlone() throws Exception {
+        when(eventService.getUpcomingEvents(0, 10, CountMode.EXACT)).thenReturn(new PaginatedResponse<>(new ArrayList<>(), 0));
+
+        mockMvc.perform(get("/api/event").header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 01 Jan 2100 00:00:00 GMT"))
+            .andExpect(status().isOk());
+        eventDataVersion.changed();
+        mockMvc.perform(get("/api/event").header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 01 Jan 2100 00:00:00 GMT"))
+            .andExpect(status().isOk());
+        verify(eventService, times(2)).getUpcomingEvents(0, 10, CountMode.EXACT);
+    }
+
+    @Test
+    public void getEventDetailsShouldReturnBodyAgainWhenDataChanged() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        when(eventService.getEventDetails(eventId)).thenReturn(new EventDetailsDTO(eventId, "Event test", "Event test", new Date(), "São Paulo", "SP", "img", null, null, "www.test.com.br", List.of()));
+
+        String etag = mockMvc.perform(get("/api/event/{eventId}", eventId))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        eventDataVersion.changed();
+
+        mockMvc.perform(get("/api/event/{eventId}", eventId).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Event test"));
+    }
+
+    @Test
+    public void getEventDetailsShouldReturnBodyAgainOnceACouponExpired() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        Date validUntil = new Date(System.currentTimeMillis() + 300);
+        EventDetailsDTO withCoupon = new EventDetailsDTO(eventId, "Event test", "Event test", new Date(), "São Paulo", "SP", "img", null, null, "www.test.com.br",
+                                                         List.of(new EventDetailsDTO.CouponDTO("TEST20", 20, validUntil)));
+        EventDetailsDTO withoutCoupon = new EventDetailsDTO(eventId, "Event test", "Event test", new Date(), "São Paulo", "SP", "img", null, null, "www.test.com.br", List.of());
+        when(eventService.getEventDetails(eventId)).thenReturn(withCoupon, withoutCoupon);
+
+        String etag = mockMvc.perform(get("/api/event/{eventId}", eventId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.coupons[0].code").value("TEST20"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/event/{eventId}", eventId).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+        Thread.sleep(validUntil.getTime() - System.currentTimeMillis() + 50);
+
+        mockMvc.perform(get("/api/event/{eventId}", eventId).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.coupons").isEmpty());
+    }
+
+    @Test
+    public void getEventsShouldServeRepeatedReadsFromResponseBytes() throws Exception {
+        when(eventService.getUpcomingEvents(0, 5, CountMode.EXACT)).thenReturn(new PaginatedResponse<>(new ArrayList<>(), 0));
+
+        mockMvc.perform(get("/api/event").param("size", "5")).andExpect(status().isOk());
+        byte[] compressed = mockMvc.perform(get("/api/event").param("size", "5").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.ETAG, endsWith("-gzip\"")))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream json = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals("{\"content\":[],\"totalPage\":0}", new String(json.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        verify(eventService, times(1)).getUpcomingEvents(0, 5, CountMode.EXACT);
+    }
+
     @Test
     public void filterEventsReturnAllEventsWithoutFilterWhenSuccessful() throws Exception {
         List<EventResponseDTO> eventResponseDTOList = new ArrayList<>();
@@ -115,7 +270,7 @@ public class EventControllerTests {
                                                                 "www.test.com.br");
         eventResponseDTOList.add(eventResponseDTO);
 
-        when(eventService.getFilteredEvents(0, 10, null, null, null, null, null))
+        when(eventService.getFilteredEvents(0, 10, null, null, null, null, null, null, CountMode.EXACT))
             .thenReturn(new PaginatedResponse<>(eventResponseDTOList, 1));
 
         mockMvc.perform(get("/api/event/filter")
@@ -129,6 +284,41 @@ public class EventControllerTests {
             .andExpect(jsonPath("$.content[0].uf", is("SP")));
     };
 
+    @Test
+    public void filterEventsShouldIncludeFacetsWhenRequested() throws Exception {
+        when(eventService.getFilteredEvents(0, 10, null, null, "SP", null, null, null, CountMode.EXACT))
+            .thenReturn(new PaginatedResponse<>(List.of(), 0));
+        when(eventService.getFilterFacets(null, null, "SP", null, null))
+            .thenReturn(new EventFacetsDTO(Map.of("SP", 3L), Map.of("Campinas", 2L, "Santos", 1L), Map.of("2024-05", 3L),
+                                           Map.of("remote", 0L, "inPerson", 3L)));
+
+        mockMvc.perform(get("/api/event/filter")
+            .param("uf", "SP")
+            .param("facets", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.facets.uf.SP", is(3)))
+            .andExpect(jsonPath("$.facets.city.Campinas", is(2)))
+            .andExpect(jsonPath("$.facets.month['2024-05']", is(3)))
+            .andExpect(jsonPath("$.facets.remote.inPerson", is(3)));
+    }
+
+    @Test
+    public void getNearbyEventsShouldReturnEventsWithDistance() throws Exception {
+        EventResponseDTO eventResponseDTO = new EventResponseDTO(UUID.randomUUID(), "Event test", "Event test", new Date(),
+                                                                 "Campinas", "SP", false, null, null);
+        when(eventService.getNearbyEvents(-23.55, -46.63, 100, 10))
+            .thenReturn(List.of(new NearbyEventDTO(eventResponseDTO, 84.2)));
+
+        mockMvc.perform(get("/api/event/nearby")
+            .param("latitude", "-23.55")
+            .param("longitude", "-46.63")
+            .param("radiusKm", "100"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].event.city", is("Campinas")))
+            .andExpect(jsonPath("$[0].distanceKm", is(84.2)));
+    }
+
     @Test
     public void getEventDetailsReturnWhenSuccessfull() throws Exception {
         UUID eventId = UUID.randomUUID();
@@ -172,7 +362,7 @@ public class EventControllerTests {
                                                                 "www.test.com.br");
         eventResponseDTOList.add(eventResponseDTO);
 
-        when(eventService.getOlderEvents(0, 10)).thenReturn(new PaginatedResponse<>(eventResponseDTOList, 1));
+        when(eventService.getOlderEvents(0, 10, CountMode.EXACT)).thenReturn(new PaginatedResponse<>(eventResponseDTOList, 1));
 
         mockMvc.perform(get("/api/event/history")
             .param("page", "0")
@@ -183,4 +373,102 @@ public class EventControllerTests {
             .andExpect(jsonPath("$.content[0].city", is("São Paulo")))
             .andExpect(jsonPath("$.content[0].uf", is("SP")));
     };
+
+    @Test
+    public void getEventsWithCursorShouldReturnNextCursorWhenSuccessful() throws Exception {
+        EventResponseDTO eventResponseDTO = new EventResponseDTO(UUID.randomUUID(),
+                                                                "Event test",
+                                                                "Event test",
+                                                                new Date(),
+                                                                "São Paulo",
+                                                                "SP",
+                                                                false,
+                                                                "www.test.com.br",
+                                                                "www.test.com.br");
+
+        when(eventService.getUpcomingEventsByCursor("", 10))
+            .thenReturn(new CursorPaginatedResponse<>(List.of(eventResponseDTO), "next-cursor"));
+
+        mockMvc.perform(get("/api/event")
+            .param("cursor", "")
+            .param("size", "10")
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].title", is("Event test")))
+            .andExpect(jsonPath("$.nextCursor", is("next-cursor")));
+    };
+
+    @Test
+    public void getOlderEventsWithCursorShouldReturnNextCursorWhenSuccessful() throws Exception {
+        when(eventService.getOlderEventsByCursor("abc", 5))
+            .thenReturn(new CursorPaginatedResponse<>(List.of(), null));
+
+        mockMvc.perform(get("/api/event/history")
+            .param("cursor", "abc")
+            .param("size", "5")
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(0)));
+    };
+
+    @Test
+    public void importEventsShouldReturnImportSummary() throws Exception {
+        EventImportResultDTO result = new EventImportResultDTO(2, 1, List.of(new EventImportResultDTO.RowErrorDTO(2, "title is required")));
+        when(eventImportService.importEvents(any())).thenReturn(result);
+
+        mockMvc.perform(post("/api/event/import")
+                .contentType("application/x-ndjson")
+                .content("{\"title\":\"A\"}\n{}\n{\"title\":\"B\"}\n"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported", is(2)))
+            .andExpect(jsonPath("$.failed", is(1)))
+            .andExpect(jsonPath("$.errors[0].line", is(2)))
+            .andExpect(jsonPath("$.errors[0].message", is("title is required")));
+    }
+
+    @Test
+    public void exportOlderEventsShouldStreamNdjson() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("{\"title\":\"A\"}\n".getBytes());
+            return 1L;
+        }).when(eventExportService).exportHistory(eq(true), any());
+
+        MvcResult result = mockMvc.perform(get("/api/event/history/export").param("includeCoupons", "true"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().string("{\"title\":\"A\"}\n"));
+    }
+
+    @Test
+    void streamShouldSubscribeWithLastEventId() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        emitter.send(SseEmitter.event().comment("heartbeat"));
+        when(eventFeedService.acceptsSubscribers()).thenReturn(true);
+        when(eventFeedService.subscribe("abc-3")).thenReturn(emitter);
+
+        mockMvc.perform(get("/api/event/stream").header("Last-Event-ID", "abc-3"))
+            .andExpect(request().asyncStarted())
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"))
+            .andExpect(content().string(":heartbeat\n\n"));
+
+        verify(eventFeedService).subscribe("abc-3");
+        emitter.complete();
+    }
+
+    @Test
+    void streamShouldRefuseSubscribersOverTheLimit() throws Exception {
+        when(eventFeedService.acceptsSubscribers()).thenReturn(false);
+
+        mockMvc.perform(get("/api/event/stream"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"));
+
+        verify(eventFeedService, times(0)).subscribe(any());
+    }
 }
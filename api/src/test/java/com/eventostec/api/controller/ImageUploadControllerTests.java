@@ -0,0 +1,36 @@
+package com.eventostec.api.controller;
+
+import static org.hamcrest.Matchers.is;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.eventostec.api.domain.image.ImageUploadStatsDTO;
+import com.eventostec.api.services.ImageUploadService;
+
+@WebMvcTest(ImageUploadController.class)
+public class ImageUploadControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ImageUploadService imageUploadService;
+
+    @Test
+    public void getStatsShouldReturnUploadPoolStats() throws Exception {
+        when(imageUploadService.stats()).thenReturn(new ImageUploadStatsDTO(3, 97, 4, 120, 2, 5, 1, 850.5, 4200.0));
+
+        mockMvc.perform(get("/api/image/upload/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.queueDepth", is(3)))
+            .andExpect(jsonPath("$.completed", is(120)))
+            .andExpect(jsonPath("$.ranOnCaller", is(1)));
+    }
+}
\ No newline at end of file
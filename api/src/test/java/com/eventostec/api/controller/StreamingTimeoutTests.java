@@ -0,0 +1,134 @@
+package com.eventostec.api.controller;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import com.eventostec.api.domain.coupon.CouponBatchProgressDTO;
+import com.eventostec.api.services.CouponRedemptionService;
+import com.eventostec.api.services.CouponService;
+import com.eventostec.api.services.EventDataVersion;
+import com.eventostec.api.services.EventExportService;
+import com.eventostec.api.services.EventFeedService;
+import com.eventostec.api.services.EventImportService;
+import com.eventostec.api.services.EventService;
+import com.eventostec.api.services.ResponseBytesCache;
+
+/**
+ * MockMvc never times out an async request, so the streaming endpoints run
+ * on a real Tomcat here, with a default async timeout far shorter than the
+ * bodies take.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                classes = StreamingTimeoutTests.WebSlice.class,
+                properties = {"spring.mvc.async.request-timeout=200",
+                              "event.export.timeout-millis=10000",
+                              "coupon.batch.timeout-millis=10000"})
+public class StreamingTimeoutTests {
+    private static final long BODY_MILLIS = 1000;
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private EventService eventService;
+
+    @MockBean
+    private EventImportService eventImportService;
+
+    @MockBean
+    private EventExportService eventExportService;
+
+    @MockBean
+    private EventFeedService eventFeedService;
+
+    @MockBean
+    private EventDataVersion eventDataVersion;
+
+    @MockBean
+    private ResponseBytesCache responseBytesCache;
+
+    @MockBean
+    private CouponService couponService;
+
+    @MockBean
+    private CouponRedemptionService couponRedemptionService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void exportShouldOutliveTheDefaultAsyncTimeout() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            Thread.sleep(BODY_MILLIS);
+            outputStream.write("{\"title\":\"A\"}\n".getBytes());
+            return 1L;
+        }).when(eventExportService).exportHistory(eq(false), any());
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(this.uri("/api/event/history/export")).build(),
+                                                    HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"title\":\"A\"}\n", response.body());
+    }
+
+    @Test
+    void couponBatchShouldOutliveTheDefaultAsyncTimeout() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        doAnswer(invocation -> {
+            Consumer<CouponBatchProgressDTO> progress = invocation.getArgument(2);
+            progress.accept(new CouponBatchProgressDTO(1, 2, List.of("PROMOAAAAAA")));
+            Thread.sleep(BODY_MILLIS);
+            progress.accept(new CouponBatchProgressDTO(2, 2, List.of("PROMOBBBBBB")));
+            return null;
+        }).when(couponService).generateCoupons(eq(eventId), any(), any());
+
+        HttpRequest request = HttpRequest.newBuilder(this.uri("/api/coupon/event/" + eventId + "/batch"))
+                                         .header("Content-Type", "application/json")
+                                         .POST(HttpRequest.BodyPublishers.ofString("{\"quantity\":2,\"discount\":10,\"valid\":1718203231,\"prefix\":\"PROMO\",\"codeLength\":6}"))
+                                         .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"inserted\":1,\"total\":2,\"codes\":[\"PROMOAAAAAA\"]}\n"
+                     + "{\"inserted\":2,\"total\":2,\"codes\":[\"PROMOBBBBBB\"]}\n", response.body());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class,
+                              DispatcherServletAutoConfiguration.class,
+                              WebMvcAutoConfiguration.class,
+                              HttpMessageConvertersAutoConfiguration.class,
+                              JacksonAutoConfiguration.class,
+                              TaskExecutionAutoConfiguration.class})
+    @Import({EventController.class, CouponController.class})
+    static class WebSlice {
+    }
+}
@@ -0,0 +1,287 @@
+package com.eventostec.api.repositories;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.eventostec.api.domain.event.ImageStatus;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Calls each repository query against a seeded PostgreSQL, records the SQL
+ * Hibernate sends together with its bound parameters, and fails when the
+ * plan of any of those statements falls back to a sequential scan on one of
+ * the large tables. Plans are written to target/query-plans for review.
+ *
+ * Every call runs in a transaction that is rolled back, so the updates leave
+ * the data as seeded. The few queries that read most of a table by design
+ * name the reason they may scan it.
+ *
+ * Tagged query-plan and excluded from the default build; run it with
+ * mvn test -Pquery-plan.
+ */
+@Tag("query-plan")
+public class QueryPlanTests {
+    private static final int EVENTS = 200_000;
+
+    private static final int COUPONS_PER_EVENT = 3;
+
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (event|address|coupon)\\b");
+
+    private static final Path PLAN_DIRECTORY = Path.of("target", "query-plans");
+
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private static EmbeddedPostgres postgres;
+
+    private static RecordingDataSource dataSource;
+
+    private static ConfigurableApplicationContext context;
+
+    private static UUID sampleEventId;
+
+    private static UUID sampleCouponId;
+
+    private static String sampleCouponCode;
+
+    private static List<UUID> sampleEventIds;
+
+    @BeforeAll
+    static void startDatabase() throws IOException, SQLException {
+        postgres = SyntheticDatabase.start(EVENTS, COUPONS_PER_EVENT);
+
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery("SELECT id FROM event WHERE NOT remote ORDER BY data DESC OFFSET 1000 LIMIT 1")) {
+                resultSet.next();
+                sampleEventId = resultSet.getObject(1, UUID.class);
+            }
+            try (ResultSet resultSet = statement.executeQuery("SELECT id, code FROM coupon WHERE event_id = '" + sampleEventId + "' LIMIT 1")) {
+                resultSet.next();
+                sampleCouponId = resultSet.getObject(1, UUID.class);
+                sampleCouponCode = resultSet.getString(2);
+            }
+            sampleEventIds = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery("SELECT id FROM event WHERE id >= '" + sampleEventId + "' ORDER BY id LIMIT 500")) {
+                while (resultSet.next()) {
+                    sampleEventIds.add(resultSet.getObject(1, UUID.class));
+                }
+            }
+        }
+        Files.createDirectories(PLAN_DIRECTORY);
+        try (Stream<Path> previous = Files.list(PLAN_DIRECTORY)) {
+            for (Path plan : previous.toList()) {
+                Files.delete(plan);
+            }
+        }
+
+        dataSource = new RecordingDataSource(postgres.getPostgresDatabase());
+        context = new SpringApplicationBuilder(JpaSlice.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.flyway.enabled=false",
+                 "--spring.devtools.restart.enabled=false",
+                 "--spring.main.banner-mode=off");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    static Stream<Arguments> repositoryQueries() {
+        Date now = new Date();
+        Date weekAgo = new Date(now.getTime() - 7 * DAY_MILLIS);
+        Date monthAgo = new Date(now.getTime() - 30 * DAY_MILLIS);
+        Date weekAhead = new Date(now.getTime() + 7 * DAY_MILLIS);
+        PageRequest page = PageRequest.of(0, 10);
+        PageRequest deepPage = PageRequest.of(100, 10);
+        PageRequest cursorPage = PageRequest.of(0, 11);
+        PageRequest batch = PageRequest.of(0, 1000);
+        UUID firstId = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+        return Stream.of(
+            // Page and slice listings, with the count query where there is one.
+            query("EventRepository.findUpComingEvents", r -> r.events().findUpComingEvents(now, page)),
+            query("EventRepository.findOlderEvents", r -> r.events().findOlderEvents(now, page),
+                  "its count covers every past event; listings use the cached count instead"),
+            query("EventRepository.findUpComingEventResponses", r -> r.events().findUpComingEventResponses(now, deepPage)),
+            query("EventRepository.findOlderEventResponses", r -> r.events().findOlderEventResponses(now, deepPage),
+                  "its count covers every past event; listings use the cached count instead"),
+            query("EventRepository.findUpComingEventSlice", r -> r.events().findUpComingEventSlice(now, deepPage)),
+            query("EventRepository.findOlderEventSlice", r -> r.events().findOlderEventSlice(now, deepPage)),
+            query("EventRepository.countUpComingEvents", r -> r.events().countUpComingEvents(now)),
+            query("EventRepository.countOlderEvents", r -> r.events().countOlderEvents(now),
+                  "counts every past event; served from EventCountCache"),
+
+            // Filtered listings: LIKE engine, full-text engine and their counts and facets.
+            query("EventRepository.findFilteredEvents", r -> r.events().findFilteredEvents("Event 42", "City 1", "SP", weekAgo, now, page)),
+            query("EventRepository.findFilteredEventResponses", r -> r.events().findFilteredEventResponses("Event 42", "City 1", "SP", weekAgo, now, page)),
+            query("EventRepository.findFilteredEventSlice", r -> r.events().findFilteredEventSlice("Event 42", "City 1", "SP", weekAgo, now, page)),
+            query("EventRepository.findFilteredEventSlice.dateOnly", r -> r.events().findFilteredEventSlice("", "", "", weekAgo, now, page),
+                  "an unordered first page; the scan stops at the first rows in range"),
+            query("EventRepository.countFilteredEvents", r -> r.events().countFilteredEvents("Event 42", "City 1", "SP", weekAgo, now)),
+            query("EventRepository.findFacetCells", r -> r.events().findFacetCells("Event 42", "", "", weekAgo, now)),
+            query("EventRepository.findFullTextFacetCells", r -> r.events().findFullTextFacetCells("Event 4242", "", "sp", monthAgo, now)),
+            query("EventRepository.findFullTextFilteredEvents.title", r -> r.events().findFullTextFilteredEvents("Event 4242", "", "", new Date(0), now, page)),
+            query("EventRepository.findFullTextFilteredEvents", r -> r.events().findFullTextFilteredEvents("Event 4242", "City 1", "sp", monthAgo, now, page)),
+            query("EventRepository.findFullTextFilteredEvents.city", r -> r.events().findFullTextFilteredEvents("", "City 42", "", monthAgo, now, page)),
+            query("EventRepository.findFullTextFilteredEventsByRank", r -> r.events().findFullTextFilteredEventsByRank("Event 4242", "City 1", "sp", monthAgo, now, page)),
+
+            // Cursor listings and the export stream.
+            query("EventRepository.findUpComingEventsFirst", r -> r.events().findUpComingEventsFirst(now, cursorPage)),
+            query("EventRepository.findUpComingEventsAfter", r -> r.events().findUpComingEventsAfter(now, new Date(now.getTime() + DAY_MILLIS), sampleEventId, cursorPage)),
+            query("EventRepository.findOlderEventsFirst", r -> r.events().findOlderEventsFirst(now, cursorPage)),
+            query("EventRepository.findOlderEventsBefore", r -> r.events().findOlderEventsBefore(now, monthAgo, sampleEventId, cursorPage)),
+            query("EventRepository.streamOlderEvents", r -> {
+                      try (Stream<?> events = r.events().streamOlderEvents(now)) {
+                          events.limit(10).forEach(event -> { });
+                      }
+                  },
+                  "the export reads every past event"),
+
+            // Details, index builds and the nearby search.
+            query("EventRepository.findById", r -> r.events().findById(sampleEventId)),
+            query("EventRepository.findEventDetailsRows", r -> r.events().findEventDetailsRows(sampleEventId, now)),
+            query("EventRepository.findIndexBatch", r -> r.events().findIndexBatch(firstId, batch)),
+            query("EventRepository.findFacetBatch", r -> r.events().findFacetBatch(sampleEventId, batch)),
+            query("EventRepository.findExistingIds", r -> r.events().findExistingIds(List.of(sampleEventId, firstId))),
+            query("EventRepository.findLocationBatch", r -> r.events().findLocationBatch(now, sampleEventId, batch),
+                  "a startup batch over every upcoming event; hashing address beats a probe per event"),
+            query("EventRepository.findLocationsWithin", r -> r.events().findLocationsWithin(weekAhead, -23.9, -23.1, -47.1, -46.2)),
+
+            // Updates.
+            query("EventRepository.updateImage", r -> r.events().updateImage(sampleEventId, "x", null, null, ImageStatus.UPLOADED)),
+            query("EventRepository.failPendingImagesBefore", r -> r.events().failPendingImagesBefore(now)),
+
+            // Coupons.
+            query("CouponRepository.findByEventIdAndValidAfter", r -> r.coupons().findByEventIdAndValidAfter(sampleEventId, now)),
+            query("CouponRepository.findCodesByEventId", r -> r.coupons().findCodesByEventId(sampleEventId)),
+            query("CouponRepository.findFirstByEventIdAndCode", r -> r.coupons().findFirstByEventIdAndCode(sampleEventId, sampleCouponCode)),
+            query("CouponRepository.findSummariesByEventIdIn", r -> r.coupons().findSummariesByEventIdIn(sampleEventIds)),
+            query("CouponRepository.reserveUses", r -> r.coupons().reserveUses(sampleCouponId, 50, weekAhead)),
+            query("CouponRepository.releaseUses", r -> r.coupons().releaseUses(sampleCouponId, 50)),
+            query("CouponRepository.addRedeemedUses", r -> r.coupons().addRedeemedUses(sampleCouponId, 1)),
+            query("CouponRepository.reconcileExpiredLeases", r -> r.coupons().reconcileExpiredLeases(now))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void shouldNotScanLargeTablesSequentially(String name, RepositoryCall call, String seqScanReason) throws IOException, SQLException {
+        Map<String, RecordingDataSource.RecordedStatement> statements = this.record(call);
+        assertFalse(statements.isEmpty(), () -> name + " ran no statement");
+
+        int index = 0;
+        for (RecordingDataSource.RecordedStatement statement : statements.values()) {
+            String plan = this.explain(statement);
+            String file = statements.size() == 1 ? name : name + "." + ++index;
+            String note = seqScanReason != null ? "-- sequential scan allowed: " + seqScanReason + "\n" : "";
+            Files.writeString(PLAN_DIRECTORY.resolve(file + ".txt"), note + statement.sql() + "\n\n" + plan);
+
+            if (seqScanReason == null) {
+                assertFalse(SEQ_SCAN.matcher(plan).find(), () -> name + " regressed to a sequential scan:\n" + statement.sql() + "\n" + plan);
+            }
+        }
+    }
+
+    /**
+     * Runs the call in a rolled-back transaction and returns the distinct
+     * statements it sent, keyed by their SQL.
+     */
+    private Map<String, RecordingDataSource.RecordedStatement> record(RepositoryCall call) {
+        Repositories repositories = new Repositories(context.getBean(EventRepository.class), context.getBean(CouponRepository.class));
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        dataSource.drain();
+        transaction.executeWithoutResult(status -> {
+            call.run(repositories);
+            status.setRollbackOnly();
+        });
+
+        Map<String, RecordingDataSource.RecordedStatement> statements = new LinkedHashMap<>();
+        for (RecordingDataSource.RecordedStatement statement : dataSource.drain()) {
+            statements.putIfAbsent(statement.sql(), statement);
+        }
+        return statements;
+    }
+
+    private String explain(RecordingDataSource.RecordedStatement recorded) throws SQLException {
+        // Plans only: EXPLAIN without ANALYZE does not run the UPDATE statements.
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + recorded.sql())) {
+            recorded.bind(statement);
+            List<String> lines = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    lines.add(resultSet.getString(1));
+                }
+            }
+            return String.join("\n", lines);
+        }
+    }
+
+    private static Arguments query(String name, RepositoryCall call) {
+        return Arguments.of(name, call, null);
+    }
+
+    private static Arguments query(String name, RepositoryCall call, String seqScanReason) {
+        return Arguments.of(name, call, seqScanReason);
+    }
+
+    interface RepositoryCall {
+        void run(Repositories repositories);
+    }
+
+    record Repositories(EventRepository events, CouponRepository coupons) {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableAutoConfiguration
+    @EntityScan(basePackages = "com.eventostec.api.domain")
+    @EnableJpaRepositories(basePackageClasses = EventRepository.class)
+    static class JpaSlice {
+        @Bean
+        DataSource dataSource() {
+            return dataSource;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.eventostec.api.repositories;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Records every prepared statement executed through it together with the
+ * parameter setter calls made on it, so the statement Hibernate actually
+ * generated can be replayed later, for example under EXPLAIN, with the same
+ * bound values.
+ */
+final class RecordingDataSource extends DelegatingDataSource {
+    private final List<RecordedStatement> statements = new ArrayList<>();
+
+    RecordingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return this.record(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return this.record(super.getConnection(username, password));
+    }
+
+    /**
+     * The statements executed since the last call, in order.
+     */
+    synchronized List<RecordedStatement> drain() {
+        List<RecordedStatement> drained = new ArrayList<>(statements);
+        statements.clear();
+        return drained;
+    }
+
+    private synchronized void add(RecordedStatement statement) {
+        statements.add(statement);
+    }
+
+    private Connection record(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof PreparedStatement prepared && method.getName().equals("prepareStatement")) {
+                return this.record(prepared, (String) args[0]);
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement record(PreparedStatement statement, String sql) {
+        List<ParameterCall> parameters = new ArrayList<>();
+        return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameters.add(new ParameterCall(method, args.clone()));
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if ((name.startsWith("execute") || name.equals("addBatch")) && (args == null || args.length == 0)) {
+                this.add(new RecordedStatement(sql, List.copyOf(parameters)));
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.invoke(target, method, args);
+        return type.cast(Proxy.newProxyInstance(RecordingDataSource.class.getClassLoader(), new Class<?>[] {type}, invocationHandler));
+    }
+
+    private interface Handler<T> {
+        Object invoke(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    record ParameterCall(Method method, Object[] args) {
+    }
+
+    record RecordedStatement(String sql, List<ParameterCall> parameters) {
+        /**
+         * Binds the recorded values to a statement with the same
+         * placeholders, such as the EXPLAIN of this one.
+         */
+        void bind(PreparedStatement statement) throws SQLException {
+            for (ParameterCall parameter : parameters) {
+                try {
+                    parameter.method().invoke(statement, parameter.args());
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof SQLException sqlException) {
+                        throw sqlException;
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.eventostec.api.repositories;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Starts an embedded PostgreSQL with every migration applied and a synthetic
+ * dataset shaped like production: about 1.5% of the events are upcoming, half
+ * of them are in person and every event has the same number of coupons.
+ * Shared by the query plan tests and the repository benchmarks.
+ */
+public final class SyntheticDatabase {
+
+    private SyntheticDatabase() {
+    }
+
+    public static EmbeddedPostgres start(int events, int couponsPerEvent) throws IOException, SQLException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        Flyway.configure()
+              .dataSource(postgres.getPostgresDatabase())
+              .locations("classpath:db/migration")
+              .callbacks(new QuotedColumnRenameCallback())
+              .load()
+              .migrate();
+
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO event (title, description, img_url, event_url, data, remote) "
+                            + "SELECT 'Event ' || g, 'Description ' || g, 'img', 'url', "
+                            + "now() + interval '2 days' - g * interval '1 minute', g % 2 = 0 "
+                            + "FROM generate_series(1, " + events + ") g");
+            statement.execute("INSERT INTO address (city, uf, event_id, latitude, longitude) "
+                            + "SELECT 'City ' || (random() * 500)::int, 'SP', id, -33 + random() * 28, -73 + random() * 38 "
+                            + "FROM event WHERE NOT remote");
+            statement.execute("INSERT INTO coupon (code, discount, valid, event_id, max_uses) "
+                            + "SELECT 'CODE' || g || substr(e.id::text, 1, 8), 10, e.data + g * interval '1 day', e.id, 100 "
+                            + "FROM event e CROSS JOIN generate_series(1, " + couponsPerEvent + ") g");
+            statement.execute("ANALYZE");
+        }
+        return postgres;
+    }
+
+    /**
+     * V1 creates imgUrl and eventUrl unquoted, so PostgreSQL folds them to
+     * lower case, while V4 renames the quoted camel-case names. Quoting the
+     * columns before V4 lets an empty database migrate without editing
+     * migrations that are already applied elsewhere.
+     */
+    private static final class QuotedColumnRenameCallback implements Callback {
+        @Override
+        public boolean supports(Event event, Context context) {
+            return event == Event.BEFORE_EACH_MIGRATE
+                && context.getMigrationInfo() != null
+                && "4".equals(context.getMigrationInfo().getVersion().getVersion());
+        }
+
+        @Override
+        public boolean canHandleInTransaction(Event event, Context context) {
+            return true;
+        }
+
+        @Override
+        public void handle(Event event, Context context) {
+            try (Statement statement = context.getConnection().createStatement()) {
+                statement.execute("ALTER TABLE event RENAME COLUMN imgurl TO \"imgUrl\"");
+                statement.execute("ALTER TABLE event RENAME COLUMN eventurl TO \"eventUrl\"");
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public String getCallbackName() {
+            return "quoted-column-rename";
+        }
+    }
+}
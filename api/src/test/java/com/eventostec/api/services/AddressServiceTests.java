@@ -10,6 +10,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
@@ -28,6 +29,9 @@ public class AddressServiceTests {
     @Mock
     private AddressRepository addressRepository;
 
+    @Spy
+    private CityCentroids cityCentroids = new CityCentroids();
+
     @Test
     void shouldCreateNewAddress() throws IOException {
         Address address = new Address();
@@ -63,4 +67,16 @@ public class AddressServiceTests {
         assertEquals("SP", address.getUf());
 
     }
+
+    @Test
+    void shouldLocateAddressAtCityCentroid() {
+        when(addressRepository.save(any(Address.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        EventRequestDTO eventRequestDTO = new EventRequestDTO("Test", "Test", 1L, "sao paulo", "sp", false, "www.test.com.br", null);
+
+        Address responseAddress = addressService.createAddress(eventRequestDTO, new Event());
+        assertNotNull(responseAddress.getLatitude());
+        assertEquals(-23.55, responseAddress.getLatitude(), 0.1);
+        assertEquals(-46.63, responseAddress.getLongitude(), 0.1);
+    }
 }
@@ -0,0 +1,252 @@
+package com.eventostec.api.services;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.eventostec.api.domain.coupon.Coupon;
+import com.eventostec.api.domain.coupon.CouponRedemptionDTO;
+import com.eventostec.api.domain.coupon.CouponStatus;
+import com.eventostec.api.repositories.CouponRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class CouponRedemptionServiceTests {
+    @InjectMocks
+    private CouponRedemptionService couponRedemptionService;
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    private final UUID eventId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(couponRedemptionService, "indexMaximumSize", 1000L);
+        ReflectionTestUtils.setField(couponRedemptionService, "leaseSize", 50);
+        ReflectionTestUtils.setField(couponRedemptionService, "exhaustedRecheckMillis", 60_000L);
+        ReflectionTestUtils.setField(couponRedemptionService, "leaseIdleMillis", 60_000L);
+        ReflectionTestUtils.setField(couponRedemptionService, "leaseTtlMillis", 300_000L);
+        couponRedemptionService.init();
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownCode() {
+        when(couponRepository.findFirstByEventIdAndCode(eventId, "NOPE")).thenReturn(Optional.empty());
+
+        assertEquals(CouponStatus.NOT_FOUND, couponRedemptionService.validate(eventId, "NOPE").status());
+        assertEquals(CouponStatus.NOT_FOUND, couponRedemptionService.redeem(eventId, "NOPE").status());
+    }
+
+    @Test
+    void shouldReturnExpiredForPastValidity() {
+        Coupon coupon = this.coupon("OLD", new Date(System.currentTimeMillis() - 1000), 10);
+        when(couponRepository.findFirstByEventIdAndCode(eventId, "OLD")).thenReturn(Optional.of(coupon));
+
+        CouponRedemptionDTO redemption = couponRedemptionService.redeem(eventId, "OLD");
+
+        assertEquals(CouponStatus.EXPIRED, redemption.status());
+        verify(couponRepository, never()).reserveUses(eq(coupon.getId()), anyInt(), any(Date.class));
+    }
+
+    @Test
+    void shouldRedeemUnlimitedCouponsWithoutReserving() {
+        Coupon coupon = this.coupon("FREE", this.tomorrow(), null);
+        when(couponRepository.findFirstByEventIdAndCode(eventId, "FREE")).thenReturn(Optional.of(coupon));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(CouponStatus.VALID, couponRedemptionService.redeem(eventId, "FREE").status());
+        }
+        couponRedemptionService.flushRedemptions();
+
+        verify(couponRepository, never()).reserveUses(eq(coupon.getId()), anyInt(), any(Date.class));
+        verify(couponRepository).addRedeemedUses(coupon.getId(), 3);
+    }
+
+    @Test
+    void shouldNeverOversellUnderConcurrentRedemptions() throws Exception {
+        int maxUses = 120;
+        Coupon coupon = this.coupon("LIMITED", this.tomorrow(), maxUses);
+        AtomicInteger reserved = new AtomicInteger();
+        when(couponRepository.findFirstByEventIdAndCode(eventId, "LIMITED")).thenReturn(Optional.of(coupon));
+        when(couponRepository.reserveUses(eq(coupon.getId()), anyInt(), any(Date.class))).thenAnswer(invocation -> {
+            int uses = invocation.getArgument(1);
+            synchronized (reserved) {
+                if (reserved.get() + uses > maxUses) {
+                    return 0;
+                }
+                reserved.addAndGet(uses);
+                return 1;
+            }
+        });
+        lenient().when(couponRepository.findById(coupon.getId())).thenAnswer(invocation ->
+            Optional.of(this.coupon(coupon.getId(), "LIMITED", coupon.getValid(), maxUses, reserved.get())));
+
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int redeemed = 0;
+                for (int i = 0; i < 20; i++) {
+                    if (couponRedemptionService.redeem(eventId, "LIMITED").status() == CouponStatus.VALID) {
+                        redeemed++;
+                    }
+                }
+                return redeemed;
+            }));
+        }
+        start.countDown();
+        int redeemed = 0;
+        for (Future<Integer> result : results) {
+            redeemed += result.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(maxUses, redeemed);
+        assertEquals(maxUses, reserved.get());
+        assertEquals(CouponStatus.EXHAUSTED, couponRedemptionService.validate(eventId, "LIMITED").status());
+
+        couponRedemptionService.flushRedemptions();
+        verify(couponRepository).addRedeemedUses(coupon.getId(), maxUses);
+    }
+
+    @Test
+    void shouldReleaseUnusedLeaseOnShutdown() {
+        Coupon coupon = this.coupon("LEASED", this.tomorrow(), 100);
+        when(couponRepository.findFirstByEventIdAndCode(eventId, "LEASED")).thenReturn(Optional.of(coupon));
+        when(couponRepository.reserveUses(eq(coupon.getId()), eq(50), any(Date.class))).thenReturn(1);
+
+        couponRedemptionService.redeem(eventId, "LEASED");
+        couponRedemptionService.redeem(eventId, "LEASED");
+        couponRedemptionService.shutdown();
+
+        verify(couponRepository, times(1)).reserveUses(eq(coupon.getId()), eq(50), any(Date.class));
+        verify(couponRepository).releaseUses(coupon.getId(), 48);
+        verify(couponRepository).addRedeemedUses(coupon.getId(), 2);
+    }
+
+    @Test
+    void shouldReportExhaustedWithoutLeasingWhenAlreadySoldOut() {
+        Coupon coupon = this.coupon(UUID.randomUUID(), "SOLD", this.tomorrow(), 10, 10);
+        when(couponRepository.findFirstByEventIdAndCode(eventId, "SOLD")).thenReturn(Optional.of(coupon));
+
+        assertEquals(CouponStatus.EXHAUSTED, couponRedemptionService.redeem(eventId, "SOLD").status());
+        verify(couponRepository, never()).reserveUses(eq(coupon.getId()), anyInt(), any(Date.class));
+    }
+
+    @Test
+    void shouldValidateWithoutReservingUses() {
+        Coupon open = this.coupon(UUID.randomUUID(), "OPEN", this.tomorrow(), 1, 0);
+        Coupon leased = this.coupon(UUID.randomUUID(), "LEASED", this.tomorrow(), 1, 1);
+        when(couponRepository.findFirstByEventIdAndCode(eventId, "OPEN")).thenReturn(Optional.of(open));
+        when(couponRepository.findFirstByEventIdAndCode(eventId, "LEASED")).thenReturn(Optional.of(leased));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(CouponStatus.VALID, couponRedemptionService.validate(eventId, "OPEN").status());
+            assertEquals(CouponStatus.EXHAUSTED, couponRedemptionService.validate(eventId, "LEASED").status());
+        }
+        couponRedemptionService.shutdown();
+
+        verify(couponRepository, never()).reserveUses(any(UUID.class), anyInt(), any(Date.class));
+        verify(couponRepository, never()).releaseUses(any(UUID.class), anyInt());
+    }
+
+    @Test
+    void shouldReleaseLeaseOnceItExpires() throws InterruptedException {
+        ReflectionTestUtils.setField(couponRedemptionService, "leaseTtlMillis", 50L);
+        Coupon coupon = this.coupon("SHORT", this.tomorrow(), 100);
+        when(couponRepository.findFirstByEventIdAndCode(eventId, "SHORT")).thenReturn(Optional.of(coupon));
+        when(couponRepository.reserveUses(eq(coupon.getId()), eq(50), any(Date.class))).thenReturn(1);
+
+        couponRedemptionService.redeem(eventId, "SHORT");
+        Thread.sleep(80);
+        couponRedemptionService.flushRedemptions();
+
+        verify(couponRepository).releaseUses(coupon.getId(), 49);
+        verify(couponRepository).addRedeemedUses(coupon.getId(), 1);
+    }
+
+    @Test
+    void shouldReconcileLeasesExpiredForAFullTtl() {
+        long before = System.currentTimeMillis() - 300_000L;
+
+        couponRedemptionService.reconcileExpiredLeases();
+
+        ArgumentCaptor<Date> cutoff = ArgumentCaptor.forClass(Date.class);
+        verify(couponRepository).reconcileExpiredLeases(cutoff.capture());
+        assertTrue(cutoff.getValue().getTime() >= before && cutoff.getValue().getTime() <= before + 1000);
+    }
+
+    @Test
+    void shouldNotLoseRedemptionsWhileEntriesAreRetired() throws Exception {
+        Coupon coupon = this.coupon("CHURN", this.tomorrow(), null);
+        AtomicInteger flushed = new AtomicInteger();
+        when(couponRepository.findFirstByEventIdAndCode(eventId, "CHURN")).thenReturn(Optional.of(coupon));
+        when(couponRepository.addRedeemedUses(eq(coupon.getId()), anyInt())).thenAnswer(invocation -> flushed.addAndGet(invocation.getArgument(1)));
+
+        int threads = 8;
+        int perThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    couponRedemptionService.redeem(eventId, "CHURN");
+                }
+                done.countDown();
+            });
+        }
+        Future<?> retirer = executor.submit(() -> {
+            while (done.getCount() > 0) {
+                couponRedemptionService.shutdown();
+            }
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        retirer.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+        couponRedemptionService.shutdown();
+
+        assertEquals(threads * perThread, flushed.get());
+    }
+
+    private Coupon coupon(String code, Date valid, Integer maxUses) {
+        return this.coupon(UUID.randomUUID(), code, valid, maxUses, 0);
+    }
+
+    private Coupon coupon(UUID id, String code, Date valid, Integer maxUses, int reservedUses) {
+        return new Coupon(id, code, 10, valid, maxUses, reservedUses, 0, null, null);
+    }
+
+    private Date tomorrow() {
+        return new Date(System.currentTimeMillis() + 86_400_000L);
+    }
+}
@@ -1,28 +1,50 @@
 package com.eventostec.api.services;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
 
 import com.eventostec.api.domain.address.Address;
 import com.eventostec.api.domain.coupon.Coupon;
+import com.eventostec.api.domain.coupon.CouponAdded;
+import com.eventostec.api.domain.coupon.CouponBatchProgressDTO;
+import com.eventostec.api.domain.coupon.CouponBatchRequestDTO;
 import com.eventostec.api.domain.coupon.CouponRequestDTO;
 import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.ImageStatus;
 import com.eventostec.api.repositories.CouponRepository;
 import com.eventostec.api.repositories.EventRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+
 @ExtendWith(MockitoExtension.class)
 public class CouponServiceTests {
     @InjectMocks
@@ -34,17 +56,32 @@ public class CouponServiceTests {
     @Mock
     private EventRepository eventRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EventDataVersion eventDataVersion;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
     @Test
     void shouldAddACouponToSomeEvent() {
         UUID eventId = UUID.randomUUID();
-        Event event = new Event(eventId,
-                                "Test",
-                                "Test",
-                                "www.test.com.br",
-                                "www.test.com.br",
-                                false,
-                                new Date(),
-                                new Address());
+        Event event = Event.builder()
+                           .id(eventId)
+                           .title("Test")
+                           .description("Test")
+                           .imgUrl("www.test.com.br")
+                           .eventUrl("www.test.com.br")
+                           .remote(false)
+                           .data(new Date())
+                           .imgStatus(ImageStatus.UPLOADED)
+                           .address(new Address())
+                           .build();
 
         when(eventRepository.findById(any())).thenReturn(Optional.of(event));
 
@@ -52,6 +89,10 @@ public class CouponServiceTests {
                                    "TEST20",
                                    20,
                                    new Date(),
+                                   null,
+                                   0,
+                                   0,
+                                   null,
                                    event);
         CouponRequestDTO couponRequestDTO = new CouponRequestDTO("TEST20",
                                                                 20,
@@ -63,6 +104,7 @@ public class CouponServiceTests {
         assertEquals(coupon.getCode(), responseCoupon.getCode());
         assertEquals(coupon.getDiscount(), responseCoupon.getDiscount());
         assertEquals(coupon.getEvent(), responseCoupon.getEvent());
+        verify(eventPublisher).publishEvent(new CouponAdded(eventId, "TEST20", new Date(1L)));
     }
 
     @Test
@@ -82,17 +124,20 @@ public class CouponServiceTests {
         UUID eventId = UUID.randomUUID();
         Date queryDate = new Date();
 
-        Event event = new Event(eventId, 
-                                "Test Event", 
-                                "Description", 
-                                "www.testevent.com", 
-                                "www.testevent.com", 
-                                false, 
-                                new Date(), 
-                                new Address());
-
-        Coupon coupon1 = new Coupon(UUID.randomUUID(), "TEST10", 10, new Date(queryDate.getTime() + 100000), event);
-        Coupon coupon2 = new Coupon(UUID.randomUUID(), "TEST20", 20, new Date(queryDate.getTime() + 200000), event);
+        Event event = Event.builder()
+                           .id(eventId)
+                           .title("Test Event")
+                           .description("Description")
+                           .imgUrl("www.testevent.com")
+                           .eventUrl("www.testevent.com")
+                           .remote(false)
+                           .data(new Date())
+                           .imgStatus(ImageStatus.UPLOADED)
+                           .address(new Address())
+                           .build();
+
+        Coupon coupon1 = new Coupon(UUID.randomUUID(), "TEST10", 10, new Date(queryDate.getTime() + 100000), null, 0, 0, null, event);
+        Coupon coupon2 = new Coupon(UUID.randomUUID(), "TEST20", 20, new Date(queryDate.getTime() + 200000), null, 0, 0, null, event);
         
         List<Coupon> coupons = Arrays.asList(coupon1, coupon2);
 
@@ -103,4 +148,112 @@ public class CouponServiceTests {
         assertEquals(2, resultCoupons.size());
         assertEquals(coupons, resultCoupons);
     }
+
+    @Test
+    void shouldGenerateUniqueCodesInChunks() {
+        UUID eventId = UUID.randomUUID();
+        ReflectionTestUtils.setField(couponService, "batchChunkSize", 400);
+        ReflectionTestUtils.setField(couponService, "batchMaxQuantity", 100000);
+        when(eventRepository.existsById(eventId)).thenReturn(true);
+        when(couponRepository.findCodesByEventId(eventId)).thenReturn(Set.of("PROMOAAAAAA"));
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        List<CouponBatchProgressDTO> progress = new ArrayList<>();
+
+        couponService.generateCoupons(eventId, new CouponBatchRequestDTO(1000, 15, 1L, "promo", 6), progress::add);
+
+        assertEquals(3, progress.size());
+        assertEquals(400, progress.get(0).inserted());
+        assertEquals(1000, progress.get(2).inserted());
+        assertEquals(1000, progress.get(2).total());
+        Set<String> codes = new HashSet<>();
+        progress.forEach(chunk -> codes.addAll(chunk.codes()));
+        assertEquals(1000, codes.size());
+        assertFalse(codes.contains("PROMOAAAAAA"));
+        assertTrue(codes.stream().allMatch(code -> code.matches("PROMO[A-Z2-9]{6}")));
+        verify(entityManager, times(1000)).persist(any(Coupon.class));
+        verify(entityManager, times(3)).clear();
+        verify(transactionManager, times(3)).commit(any());
+        verify(eventPublisher, times(3)).publishEvent(any(CouponAdded.class));
+    }
+
+    @Test
+    void shouldRegenerateChunkWhenACodeWasTakenConcurrently() {
+        UUID eventId = UUID.randomUUID();
+        ReflectionTestUtils.setField(couponService, "batchChunkSize", 400);
+        ReflectionTestUtils.setField(couponService, "batchMaxQuantity", 100000);
+        when(eventRepository.existsById(eventId)).thenReturn(true);
+        when(couponRepository.findCodesByEventId(eventId)).thenReturn(Set.of());
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        doThrow(new PersistenceException(new SQLException("duplicate key value violates unique constraint", "23505")))
+            .doNothing()
+            .when(entityManager).flush();
+        List<CouponBatchProgressDTO> progress = new ArrayList<>();
+
+        couponService.generateCoupons(eventId, new CouponBatchRequestDTO(10, 15, 1L, null, 6), progress::add);
+
+        assertEquals(1, progress.size());
+        assertEquals(10, progress.get(0).inserted());
+        verify(couponRepository, times(2)).findCodesByEventId(eventId);
+        verify(entityManager, times(20)).persist(any(Coupon.class));
+        verify(transactionManager).rollback(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void shouldNotRetryChunkOnOtherPersistenceErrors() {
+        UUID eventId = UUID.randomUUID();
+        ReflectionTestUtils.setField(couponService, "batchChunkSize", 400);
+        ReflectionTestUtils.setField(couponService, "batchMaxQuantity", 100000);
+        when(eventRepository.existsById(eventId)).thenReturn(true);
+        when(couponRepository.findCodesByEventId(eventId)).thenReturn(Set.of());
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        doThrow(new PersistenceException(new SQLException("connection lost", "08006"))).when(entityManager).flush();
+
+        assertThrows(PersistenceException.class,
+                     () -> couponService.generateCoupons(eventId, new CouponBatchRequestDTO(10, 15, 1L, null, 6), progress -> {}));
+        verify(entityManager, times(10)).persist(any(Coupon.class));
+    }
+
+    @Test
+    void shouldRejectDuplicateCouponCode() {
+        UUID eventId = UUID.randomUUID();
+        when(eventRepository.findById(eventId)).thenReturn(Optional.of(new Event()));
+        when(couponRepository.save(any(Coupon.class))).thenThrow(new DataIntegrityViolationException("duplicate key",
+            new SQLException("duplicate key value violates unique constraint", "23505")));
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> couponService.addCouponToEvent(eventId, new CouponRequestDTO("PROMO10", 10, 1L, null)));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void shouldNotReportOtherIntegrityViolationsAsDuplicateCode() {
+        UUID eventId = UUID.randomUUID();
+        when(eventRepository.findById(eventId)).thenReturn(Optional.of(new Event()));
+        when(couponRepository.save(any(Coupon.class))).thenThrow(new DataIntegrityViolationException("fk violation",
+            new SQLException("insert or update on table \"coupon\" violates foreign key constraint", "23503")));
+
+        assertThrows(DataIntegrityViolationException.class,
+                     () -> couponService.addCouponToEvent(eventId, new CouponRequestDTO("PROMO10", 10, 1L, null)));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void shouldRejectBatchAboveMaximumQuantity() {
+        ReflectionTestUtils.setField(couponService, "batchMaxQuantity", 100000);
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> couponService.validateBatch(UUID.randomUUID(), new CouponBatchRequestDTO(100001, 15, 1L, null, null)));
+    }
+
+    @Test
+    void shouldRejectBatchForUnknownEvent() {
+        ReflectionTestUtils.setField(couponService, "batchMaxQuantity", 100000);
+        UUID eventId = UUID.randomUUID();
+        when(eventRepository.existsById(eventId)).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> couponService.generateCoupons(eventId, new CouponBatchRequestDTO(10, 15, 1L, null, null), progress -> {}));
+        verify(entityManager, never()).persist(any());
+    }
 }
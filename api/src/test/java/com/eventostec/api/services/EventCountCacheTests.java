@@ -0,0 +1,59 @@
+package com.eventostec.api.services;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.eventostec.api.repositories.EventRepository;
+
+public class EventCountCacheTests {
+
+    @InjectMocks
+    private EventCountCache eventCountCache;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(eventCountCache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(eventCountCache, "refreshAfterSeconds", 60L);
+        ReflectionTestUtils.setField(eventCountCache, "expireAfterSeconds", 600L);
+        eventCountCache.init();
+    }
+
+    @Test
+    void shouldCountOncePerListing() {
+        when(eventRepository.countUpComingEvents(any())).thenReturn(42L);
+
+        assertEquals(42L, eventCountCache.upcoming());
+        assertEquals(42L, eventCountCache.upcoming());
+
+        verify(eventRepository, times(1)).countUpComingEvents(any());
+        assertEquals(1, eventCountCache.stats().hitCount());
+    }
+
+    @Test
+    void shouldKeyFilteredCountsByRequestedFilters() {
+        when(eventRepository.countFilteredEvents(eq("java"), eq(""), eq(""), any(), any())).thenReturn(3L);
+        when(eventRepository.countFilteredEvents(eq("spring"), eq(""), eq(""), any(), any())).thenReturn(5L);
+
+        assertEquals(3L, eventCountCache.filtered("java", null, null, null, null));
+        assertEquals(5L, eventCountCache.filtered("spring", null, null, null, null));
+        assertEquals(3L, eventCountCache.filtered("java", null, null, null, null));
+
+        verify(eventRepository, times(1)).countFilteredEvents(eq("java"), eq(""), eq(""), eq(new Date(0)), any());
+    }
+}
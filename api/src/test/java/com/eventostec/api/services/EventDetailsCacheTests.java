@@ -0,0 +1,75 @@
+package com.eventostec.api.services;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.eventostec.api.domain.coupon.CouponAdded;
+import com.eventostec.api.domain.event.EventDetailsDTO;
+
+public class EventDetailsCacheTests {
+
+    private EventDetailsCache eventDetailsCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() {
+        eventDetailsCache = new EventDetailsCache();
+        ReflectionTestUtils.setField(eventDetailsCache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(eventDetailsCache, "expireAfterSeconds", 300L);
+        eventDetailsCache.init();
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromCache() {
+        UUID eventId = UUID.randomUUID();
+        List<EventDetailsDTO.CouponDTO> coupons = List.of(new EventDetailsDTO.CouponDTO("TEST20", 20, new Date(System.currentTimeMillis() + 60_000)));
+
+        eventDetailsCache.get(eventId, id -> this.load(id, coupons));
+        eventDetailsCache.get(eventId, id -> this.load(id, coupons));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, eventDetailsCache.stats().hitCount());
+    }
+
+    @Test
+    void shouldExpireWhenEarliestCouponExpires() throws InterruptedException {
+        UUID eventId = UUID.randomUUID();
+        List<EventDetailsDTO.CouponDTO> coupons = List.of(
+            new EventDetailsDTO.CouponDTO("SOON", 10, new Date(System.currentTimeMillis() + 50)),
+            new EventDetailsDTO.CouponDTO("LATER", 20, new Date(System.currentTimeMillis() + 60_000)));
+
+        eventDetailsCache.get(eventId, id -> this.load(id, coupons));
+        eventDetailsCache.get(eventId, id -> this.load(id, coupons));
+        Thread.sleep(100);
+        eventDetailsCache.get(eventId, id -> this.load(id, coupons));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldInvalidateWhenCouponIsAdded() {
+        UUID eventId = UUID.randomUUID();
+        UUID otherEventId = UUID.randomUUID();
+
+        eventDetailsCache.get(eventId, id -> this.load(id, List.of()));
+        eventDetailsCache.get(otherEventId, id -> this.load(id, List.of()));
+        eventDetailsCache.onCouponAdded(new CouponAdded(eventId, "TEST20", new Date()));
+        eventDetailsCache.get(eventId, id -> this.load(id, List.of()));
+        eventDetailsCache.get(otherEventId, id -> this.load(id, List.of()));
+
+        assertEquals(3, loads.get());
+    }
+
+    private EventDetailsDTO load(UUID eventId, List<EventDetailsDTO.CouponDTO> coupons) {
+        loads.incrementAndGet();
+        return new EventDetailsDTO(eventId, "Event test", "Event test", new Date(), "", "", "", "", coupons);
+    }
+}
@@ -0,0 +1,148 @@
+package com.eventostec.api.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.eventostec.api.domain.address.Address;
+import com.eventostec.api.domain.coupon.EventCouponSummary;
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.repositories.CouponRepository;
+import com.eventostec.api.repositories.EventRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+public class EventExportServiceTests {
+
+    @InjectMocks
+    private EventExportService eventExportService;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(eventExportService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(eventExportService, "chunkSize", 2);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+    }
+
+    @Test
+    void shouldStreamEveryEventAndClearPerChunk() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Event> events = Stream.of(event("One", "São Paulo"), event("Two", null), event("Three", "Recife"))
+                                     .onClose(() -> closed.set(true));
+        when(eventRepository.streamOlderEvents(any())).thenReturn(events);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long exported = eventExportService.exportHistory(false, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, exported);
+        assertEquals(3, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("One", first.get("title").asText());
+        assertEquals("São Paulo", first.get("city").asText());
+        assertTrue(first.get("coupons").isNull());
+        assertEquals("", objectMapper.readTree(lines[1]).get("city").asText());
+        assertTrue(closed.get());
+        verify(entityManager, times(2)).clear();
+        verify(couponRepository, never()).findSummariesByEventIdIn(anyCollection());
+    }
+
+    @Test
+    void shouldLoadCouponsOncePerChunk() throws IOException {
+        Event one = event("One", null);
+        Event two = event("Two", null);
+        Event three = event("Three", null);
+        when(eventRepository.streamOlderEvents(any())).thenReturn(Stream.of(one, two, three));
+        when(couponRepository.findSummariesByEventIdIn(List.of(one.getId(), two.getId())))
+            .thenReturn(List.of(summary(one.getId(), "A10"), summary(one.getId(), "B20")));
+        when(couponRepository.findSummariesByEventIdIn(List.of(three.getId()))).thenReturn(List.of());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        eventExportService.exportHistory(true, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, objectMapper.readTree(lines[0]).get("coupons").size());
+        assertEquals("A10", objectMapper.readTree(lines[0]).get("coupons").get(0).get("code").asText());
+        assertEquals(0, objectMapper.readTree(lines[1]).get("coupons").size());
+        assertFalse(objectMapper.readTree(lines[2]).get("coupons").isNull());
+        verify(couponRepository, times(2)).findSummariesByEventIdIn(anyCollection());
+    }
+
+    private static Event event(String title, String city) {
+        Event event = Event.builder()
+                           .id(UUID.randomUUID())
+                           .title(title)
+                           .description("Description")
+                           .eventUrl("www.test.com.br")
+                           .data(new Date(1724950031000L))
+                           .remote(city == null)
+                           .build();
+        if (city != null) {
+            Address address = new Address();
+            address.setCity(city);
+            address.setUf("SP");
+            event.setAddress(address);
+        }
+        return event;
+    }
+
+    private static EventCouponSummary summary(UUID eventId, String code) {
+        return new EventCouponSummary() {
+            public UUID getEventId() {
+                return eventId;
+            }
+
+            public String getCode() {
+                return code;
+            }
+
+            public Integer getDiscount() {
+                return 10;
+            }
+
+            public Date getValid() {
+                return new Date(1724950031000L);
+            }
+        };
+    }
+}
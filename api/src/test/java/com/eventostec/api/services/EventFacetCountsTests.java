@@ -0,0 +1,240 @@
+package com.eventostec.api.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.eventostec.api.domain.event.EventCreated;
+import com.eventostec.api.domain.event.EventFacetCell;
+import com.eventostec.api.domain.event.EventFacetRow;
+import com.eventostec.api.domain.event.EventFacetsDTO;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.EventsImported;
+import com.eventostec.api.repositories.EventRepository;
+
+public class EventFacetCountsTests {
+    private static final int NEXT_YEAR = LocalDate.now().getYear() + 1;
+
+    @InjectMocks
+    private EventFacetCounts eventFacetCounts;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EventSearchIndex eventSearchIndex;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(eventFacetCounts, "cityLimit", 50);
+        ReflectionTestUtils.setField(eventFacetCounts, "searchEngine", "like");
+        when(eventRepository.findFacetBatch(any(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void shouldCountEveryFacetFromTheCounters() {
+        eventFacetCounts.build();
+        eventFacetCounts.add(date(2024, 5, 10), "São Paulo", "SP", false);
+        eventFacetCounts.add(date(2024, 5, 20), "Campinas", "SP", false);
+        eventFacetCounts.add(date(2024, 6, 1), "São Paulo", "SP", false);
+        eventFacetCounts.add(date(2024, 6, 2), "Recife", "PE", false);
+        eventFacetCounts.add(date(2024, 6, 3), "", "", true);
+
+        EventFacetsDTO facets = eventFacetCounts.facets(null, null, null, null, date(2025, 1, 1));
+
+        assertEquals(Map.of("SP", 3L, "PE", 1L), facets.uf());
+        assertEquals(List.of("São Paulo", "Campinas", "Recife"), List.copyOf(facets.city().keySet()));
+        assertEquals(2L, facets.city().get("São Paulo"));
+        assertEquals(Map.of("2024-05", 2L, "2024-06", 3L), facets.month());
+        assertEquals(Map.of("remote", 1L, "inPerson", 4L), facets.remote());
+        verify(eventRepository, never()).findFacetCells(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldCountEventsCreatedDuringTheBuildOnce() {
+        EventResponseDTO inSnapshot = new EventResponseDTO(UUID.randomUUID(), "Event", "", date(2024, 5, 10), "Recife", "PE", false, null, null);
+        EventResponseDTO afterSnapshot = new EventResponseDTO(UUID.randomUUID(), "Event", "", date(2024, 5, 11), "Olinda", "PE", false, null, null);
+        eventFacetCounts.onEventCreated(new EventCreated(inSnapshot));
+        eventFacetCounts.onEventCreated(new EventCreated(afterSnapshot));
+        when(eventRepository.findFacetBatch(any(), any())).thenReturn(List.of(
+            new EventFacetRow(inSnapshot.id(), inSnapshot.date(), inSnapshot.city(), inSnapshot.uf(), inSnapshot.remote())));
+        when(eventRepository.findExistingIds(any())).thenReturn(List.of(inSnapshot.id()));
+
+        eventFacetCounts.build();
+
+        assertEquals(2, eventFacetCounts.size());
+        assertEquals(Map.of("PE", 2L), eventFacetCounts.facets(null, null, null, null, date(2025, 1, 1)).uf());
+        verify(eventRepository).findExistingIds(List.of(inSnapshot.id(), afterSnapshot.id()));
+    }
+
+    @Test
+    void shouldCountEventsCreatedAfterTheBuild() {
+        eventFacetCounts.build();
+        EventResponseDTO event = new EventResponseDTO(UUID.randomUUID(), "Event", "", date(2024, 5, 10), "Recife", "PE", false, null, null);
+
+        eventFacetCounts.onEventCreated(new EventCreated(event));
+
+        assertEquals(1, eventFacetCounts.size());
+        verify(eventRepository, never()).findExistingIds(any());
+    }
+
+    @Test
+    void shouldCountEveryEventOfAnImportedChunk() {
+        eventFacetCounts.build();
+
+        eventFacetCounts.onEventsImported(new EventsImported(List.of(
+            new EventResponseDTO(UUID.randomUUID(), "One", "", date(2024, 5, 10), "Recife", "PE", false, null, null),
+            new EventResponseDTO(UUID.randomUUID(), "Two", "", date(2024, 5, 11), "", "", true, null, null))));
+
+        assertEquals(2, eventFacetCounts.size());
+        assertEquals(Map.of("remote", 1L, "inPerson", 1L), eventFacetCounts.facets(null, null, null, null, date(2025, 1, 1)).remote());
+    }
+
+    @Test
+    void shouldApplyCityUfAndExactDateBoundaries() {
+        eventFacetCounts.build();
+        eventFacetCounts.add(date(NEXT_YEAR, 5, 10), "São Paulo", "SP", false);
+        eventFacetCounts.add(date(NEXT_YEAR, 5, 20), "São Paulo", "SP", false);
+        eventFacetCounts.add(date(NEXT_YEAR, 6, 15), "São Paulo", "SP", false);
+        eventFacetCounts.add(date(NEXT_YEAR, 7, 5), "São Paulo", "SP", false);
+        eventFacetCounts.add(date(NEXT_YEAR, 6, 15), "São José", "SC", false);
+
+        EventFacetsDTO facets = eventFacetCounts.facets("", "São", "SP", date(NEXT_YEAR, 5, 15), date(NEXT_YEAR, 7, 5));
+
+        assertEquals(Map.of("SP", 3L), facets.uf());
+        assertEquals(Map.of(month(5), 1L, month(6), 1L, month(7), 1L), facets.month());
+        verify(eventRepository, never()).findFacetCells(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldReadOnlyTheCutMonthWhenItWasCompacted() {
+        eventFacetCounts.build();
+        eventFacetCounts.add(date(2024, 5, 10), "São Paulo", "SP", false);
+        eventFacetCounts.add(date(2024, 6, 15), "São Paulo", "SP", false);
+        when(eventRepository.findFacetCells(any(), any(), any(), any(), any())).thenReturn(List.of(
+            new EventFacetCell("São Paulo", "SP", false, 2024, 5, 4L)));
+
+        EventFacetsDTO facets = eventFacetCounts.facets(null, null, "SP", date(2024, 5, 15), date(2024, 7, 1));
+
+        assertEquals(Map.of("2024-05", 4L, "2024-06", 1L), facets.month());
+        verify(eventRepository).findFacetCells(eq(""), eq(""), eq("SP"), eq(date(2024, 5, 15)), any());
+        verify(eventRepository, times(1)).findFacetCells(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldDropTheDatesOfMonthsThatAreOver() {
+        ReflectionTestUtils.setField(eventFacetCounts, "openMonth", 0);
+        eventFacetCounts.build();
+        eventFacetCounts.add(date(2024, 5, 10), "Recife", "PE", false);
+        eventFacetCounts.add(date(2024, 5, 20), "Recife", "PE", false);
+
+        assertEquals(Map.of("2024-05", 1L), eventFacetCounts.facets(null, null, null, date(2024, 5, 15), date(2025, 1, 1)).month());
+        verify(eventRepository, never()).findFacetCells(any(), any(), any(), any(), any());
+
+        eventFacetCounts.compact();
+
+        assertEquals(Map.of(), eventFacetCounts.facets(null, null, null, date(2024, 5, 15), date(2025, 1, 1)).month());
+        assertEquals(Map.of("2024-05", 2L), eventFacetCounts.facets(null, null, null, null, date(2025, 1, 1)).month());
+        verify(eventRepository).findFacetCells(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldMatchCityAndUfLikeTheFullTextEngine() {
+        ReflectionTestUtils.setField(eventFacetCounts, "searchEngine", "fulltext");
+        eventFacetCounts.build();
+        eventFacetCounts.add(date(NEXT_YEAR, 5, 10), "São Paulo", "SP", false);
+        eventFacetCounts.add(date(NEXT_YEAR, 5, 20), "Recife", "PE", false);
+        eventFacetCounts.add(date(NEXT_YEAR, 5, 25), "São Paulo", "ESP", false);
+
+        EventFacetsDTO facets = eventFacetCounts.facets(null, "são", "sp", null, date(NEXT_YEAR + 1, 1, 1));
+
+        assertEquals(Map.of("SP", 1L), facets.uf());
+    }
+
+    @Test
+    void shouldMatchCityAndUfLikeTheMemoryEngine() {
+        ReflectionTestUtils.setField(eventFacetCounts, "searchEngine", "memory");
+        when(eventSearchIndex.isReady()).thenReturn(true);
+        eventFacetCounts.build();
+        eventFacetCounts.add(date(NEXT_YEAR, 5, 10), "São Paulo", "SP", false);
+        eventFacetCounts.add(date(NEXT_YEAR, 5, 20), "São José dos Campos", "SP", false);
+        eventFacetCounts.add(date(NEXT_YEAR, 5, 25), "Paulo Afonso", "BA", false);
+
+        assertEquals(Map.of("São Paulo", 1L), eventFacetCounts.facets(null, "sao paulo", null, null, date(NEXT_YEAR + 1, 1, 1)).city());
+        assertEquals(Map.of("SP", 2L), eventFacetCounts.facets(null, "sao", "s", null, date(NEXT_YEAR + 1, 1, 1)).uf());
+        assertEquals(Map.of(), eventFacetCounts.facets(null, "aulo", null, null, date(NEXT_YEAR + 1, 1, 1)).city());
+    }
+
+    @Test
+    void shouldReadIndexCellsWhenFilteringByTitleWithTheMemoryEngine() {
+        ReflectionTestUtils.setField(eventFacetCounts, "searchEngine", "memory");
+        when(eventSearchIndex.isReady()).thenReturn(true);
+        eventFacetCounts.build();
+        when(eventSearchIndex.facetCells(any(), any(), any(), any(), any())).thenReturn(List.of(
+            new EventFacetCell("Recife", "PE", false, 2024, 5, 3L)));
+
+        EventFacetsDTO facets = eventFacetCounts.facets("java", "recife", null, null, null);
+
+        assertEquals(Map.of("PE", 3L), facets.uf());
+        verify(eventSearchIndex).facetCells(eq("java"), eq("recife"), eq(""), any(), any());
+        verify(eventRepository, never()).findFacetCells(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldReadFullTextCellsWhenFilteringByTitle() {
+        ReflectionTestUtils.setField(eventFacetCounts, "searchEngine", "fulltext");
+        eventFacetCounts.build();
+        when(eventRepository.findFullTextFacetCells(any(), any(), any(), any(), any())).thenReturn(List.of(
+            new EventFacetCell("Recife", "PE", false, 2024, 5, 3L)));
+
+        EventFacetsDTO facets = eventFacetCounts.facets("java", null, null, null, null);
+
+        assertEquals(Map.of("PE", 3L), facets.uf());
+        verify(eventRepository, never()).findFacetCells(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldReadGroupedCellsWhenFilteringByTitle() {
+        eventFacetCounts.build();
+        when(eventRepository.findFacetCells(any(), any(), any(), any(), any())).thenReturn(List.of(
+            new EventFacetCell("Recife", "PE", false, 2024, 5, 3L),
+            new EventFacetCell(null, null, true, 2024, 12, 2L)));
+
+        EventFacetsDTO facets = eventFacetCounts.facets("java", null, null, null, null);
+
+        assertEquals(Map.of("PE", 3L), facets.uf());
+        assertEquals(Map.of("2024-05", 3L, "2024-12", 2L), facets.month());
+        assertEquals(Map.of("remote", 2L, "inPerson", 3L), facets.remote());
+    }
+
+    private static String month(int month) {
+        return String.format("%04d-%02d", NEXT_YEAR, month);
+    }
+
+    private static Date date(int year, int month, int day) {
+        return Date.from(LocalDateTime.of(year, month, day, 12, 0).atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
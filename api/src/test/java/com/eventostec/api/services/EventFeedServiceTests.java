@@ -0,0 +1,228 @@
+package com.eventostec.api.services;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.eventostec.api.domain.event.EventCreated;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.EventsImported;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class EventFeedServiceTests {
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+
+    private CountDownLatch sendGate;
+
+    private EventFeedService eventFeedService;
+
+    @BeforeEach
+    public void setUp() {
+        eventFeedService = new EventFeedService() {
+            @Override
+            SseEmitter createEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter(sendGate);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(eventFeedService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(eventFeedService, "replaySize", 4);
+        ReflectionTestUtils.setField(eventFeedService, "subscriberBufferSize", 4);
+        ReflectionTestUtils.setField(eventFeedService, "maxSubscribers", 10);
+        ReflectionTestUtils.setField(eventFeedService, "timeoutMillis", 60_000L);
+        ReflectionTestUtils.setField(eventFeedService, "dispatchThreads", 2);
+        eventFeedService.init();
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        if (sendGate != null) {
+            sendGate.countDown();
+        }
+        eventFeedService.shutdown();
+    }
+
+    @Test
+    void shouldPushCreatedEventsToEverySubscriber() throws InterruptedException {
+        eventFeedService.subscribe(null);
+        eventFeedService.subscribe(null);
+
+        eventFeedService.onEventCreated(created("Java Meetup"));
+
+        for (RecordingEmitter emitter : emitters) {
+            String message = emitter.next();
+            assertTrue(message.startsWith("id:"));
+            assertTrue(message.contains("event:event-created\n"));
+            assertTrue(message.contains("\"title\":\"Java Meetup\""));
+        }
+        assertEquals(2, eventFeedService.subscriberCount());
+    }
+
+    @Test
+    void shouldPushAnImportedChunkAsOneMessage() throws InterruptedException {
+        eventFeedService.subscribe(null);
+
+        eventFeedService.onEventsImported(new EventsImported(List.of(created("One").event(), created("Two").event())));
+
+        String message = emitters.get(0).next();
+        assertTrue(message.contains("event:events-imported\n"));
+        assertTrue(message.contains("\"title\":\"One\""));
+        assertTrue(message.contains("\"title\":\"Two\""));
+        assertNull(emitters.get(0).sent.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shouldReplayEventsMissedSinceLastEventId() throws InterruptedException {
+        eventFeedService.subscribe(null);
+        eventFeedService.onEventCreated(created("First"));
+        String lastEventId = idOf(emitters.get(0).next());
+        eventFeedService.onEventCreated(created("Second"));
+        eventFeedService.onEventCreated(created("Third"));
+
+        eventFeedService.subscribe(lastEventId);
+        eventFeedService.onEventCreated(created("Fourth"));
+
+        RecordingEmitter resumed = emitters.get(1);
+        assertTrue(resumed.next().contains("\"title\":\"Second\""));
+        assertTrue(resumed.next().contains("\"title\":\"Third\""));
+        assertTrue(resumed.next().contains("\"title\":\"Fourth\""));
+        assertNull(resumed.sent.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shouldSendResetWhenLastEventIdCannotBeResumed() throws InterruptedException {
+        eventFeedService.subscribe(null);
+        eventFeedService.onEventCreated(created("First"));
+        String lastEventId = idOf(emitters.get(0).next());
+        for (int i = 0; i < 5; i++) {
+            eventFeedService.onEventCreated(created("Later " + i));
+        }
+
+        eventFeedService.subscribe(lastEventId);
+        eventFeedService.subscribe("previous-run-7");
+
+        assertTrue(emitters.get(1).next().contains("event:reset\n"));
+        assertTrue(emitters.get(2).next().contains("event:reset\n"));
+    }
+
+    @Test
+    void shouldDisconnectSubscribersThatFallTooFarBehind() throws InterruptedException {
+        sendGate = new CountDownLatch(1);
+        eventFeedService.subscribe(null);
+
+        for (int i = 0; i < 6; i++) {
+            eventFeedService.onEventCreated(created("Event " + i));
+        }
+
+        assertEquals(0, eventFeedService.subscriberCount());
+        assertTrue(eventFeedService.acceptsSubscribers());
+        sendGate.countDown();
+        emitters.get(0).awaitCompleted();
+    }
+
+    @Test
+    void shouldDisconnectStalledSubscribersWithoutPinningDispatchThreads() throws InterruptedException {
+        ReflectionTestUtils.setField(eventFeedService, "writeTimeoutMillis", 50L);
+        sendGate = new CountDownLatch(1);
+        eventFeedService.subscribe(null);
+        eventFeedService.subscribe(null);
+        eventFeedService.onEventCreated(created("Stuck"));
+        sendGate = null;
+        eventFeedService.subscribe(null);
+        RecordingEmitter healthy = emitters.get(2);
+        emitters.get(0).awaitSending();
+        emitters.get(1).awaitSending();
+
+        eventFeedService.onEventCreated(created("Next"));
+        Thread.sleep(100);
+        eventFeedService.expireStalledWrites();
+
+        assertTrue(healthy.next().contains("\"title\":\"Next\""));
+        assertEquals(1, eventFeedService.subscriberCount());
+        assertFalse(emitters.get(0).completed);
+
+        emitters.get(0).gate.countDown();
+        emitters.get(0).awaitCompleted();
+        emitters.get(1).awaitCompleted();
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(eventFeedService, "executor");
+        assertEquals(2, executor.getCorePoolSize());
+    }
+
+    private static EventCreated created(String title) {
+        return new EventCreated(new EventResponseDTO(UUID.randomUUID(), title, "", new Date(), "São Paulo", "SP", false, null, null));
+    }
+
+    private static String idOf(String message) {
+        return message.substring("id:".length(), message.indexOf('\n'));
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        final CountDownLatch gate;
+        final CountDownLatch sending = new CountDownLatch(1);
+        volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) {
+            sending.countDown();
+            try {
+                if (gate != null) {
+                    gate.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StringBuilder message = new StringBuilder();
+            for (DataWithMediaType item : items) {
+                message.append(item.getData());
+            }
+            sent.add(message.toString());
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        void awaitSending() throws InterruptedException {
+            assertTrue(sending.await(5, TimeUnit.SECONDS), "no send started");
+        }
+
+        void awaitCompleted() throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!completed && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(completed, "emitter not completed");
+        }
+
+        String next() throws InterruptedException {
+            String message = sent.poll(5, TimeUnit.SECONDS);
+            assertTrue(message != null, "no message sent");
+            return message;
+        }
+    }
+}
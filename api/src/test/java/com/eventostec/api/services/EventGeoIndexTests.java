@@ -0,0 +1,126 @@
+package com.eventostec.api.services;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import org.mockito.Spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+
+import com.eventostec.api.domain.event.EventCreated;
+import com.eventostec.api.domain.event.EventLocationRow;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.EventsImported;
+import com.eventostec.api.domain.event.NearbyEventDTO;
+import com.eventostec.api.repositories.EventRepository;
+
+public class EventGeoIndexTests {
+
+    @InjectMocks
+    private EventGeoIndex eventGeoIndex;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Spy
+    private CityCentroids cityCentroids = new CityCentroids();
+
+    private static final Date NOW = new Date(1_000_000L);
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(eventRepository.findLocationBatch(any(), any(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void shouldReturnEventsWithinRadiusNearestFirst() {
+        eventGeoIndex.build();
+        eventGeoIndex.add(event("Campinas", 2_000_000L), -22.9056, -47.0608);
+        eventGeoIndex.add(event("São Paulo", 2_000_000L), -23.5505, -46.6333);
+        eventGeoIndex.add(event("Rio de Janeiro", 2_000_000L), -22.9068, -43.1729);
+
+        List<NearbyEventDTO> nearby = eventGeoIndex.nearby(-23.5505, -46.6333, 150, 10, NOW);
+
+        assertEquals(2, nearby.size());
+        assertEquals("São Paulo", nearby.get(0).event().city());
+        assertEquals(0, nearby.get(0).distanceKm(), 0.001);
+        assertEquals("Campinas", nearby.get(1).event().city());
+        assertEquals(84, nearby.get(1).distanceKm(), 5);
+    }
+
+    @Test
+    void shouldKeepOnlyTheNearestSizeEventsAndSkipPastOnes() {
+        eventGeoIndex.build();
+        eventGeoIndex.add(event("Past", 500_000L), -23.5505, -46.6333);
+        eventGeoIndex.add(event("Near", 2_000_000L), -23.56, -46.64);
+        eventGeoIndex.add(event("Far", 2_000_000L), -23.9608, -46.3336);
+        eventGeoIndex.add(event("Farther", 2_000_000L), -22.9056, -47.0608);
+
+        List<NearbyEventDTO> nearby = eventGeoIndex.nearby(-23.5505, -46.6333, 500, 2, NOW);
+
+        assertEquals(List.of("Near", "Far"), nearby.stream().map(item -> item.event().city()).toList());
+    }
+
+    @Test
+    void shouldFindEventsAcrossCellBoundaries() {
+        eventGeoIndex.build();
+        eventGeoIndex.add(event("East", 2_000_000L), 0.01, 0.01);
+        eventGeoIndex.add(event("West", 2_000_000L), -0.01, -0.01);
+
+        assertEquals(2, eventGeoIndex.nearby(0, 0, 5, 10, NOW).size());
+    }
+
+    @Test
+    void shouldIndexCreatedInPersonEventsAtTheirCityCentroid() {
+        eventGeoIndex.build();
+        eventGeoIndex.onEventCreated(new EventCreated(event("Sao Paulo", 2_000_000L)));
+        eventGeoIndex.onEventCreated(new EventCreated(new EventResponseDTO(UUID.randomUUID(), "Online", "", new Date(2_000_000L),
+                                                                           "", "", true, "url", null)));
+
+        assertEquals(1, eventGeoIndex.size());
+        assertEquals(1, eventGeoIndex.nearby(-23.55, -46.63, 10, 10, NOW).size());
+    }
+
+    @Test
+    void shouldIndexAnImportedChunkAtItsCityCentroids() {
+        eventGeoIndex.build();
+
+        eventGeoIndex.onEventsImported(new EventsImported(List.of(
+            event("Sao Paulo", 2_000_000L),
+            event("Nowhere", 2_000_000L),
+            new EventResponseDTO(UUID.randomUUID(), "Online", "", new Date(2_000_000L), "", "", true, "url", null))));
+
+        assertEquals(1, eventGeoIndex.size());
+        assertEquals(1, eventGeoIndex.nearby(-23.55, -46.63, 10, 10, NOW).size());
+    }
+
+    @Test
+    void shouldQueryTheDatabaseUntilTheIndexIsBuilt() {
+        EventResponseDTO event = event("São Paulo", 2_000_000L);
+        when(eventRepository.findLocationsWithin(any(), anyDouble(), anyDouble(), anyDouble(), anyDouble())).thenReturn(List.of(
+            new EventLocationRow(event.id(), event.title(), event.description(), event.date(), event.city(), event.uf(), false,
+                                 null, null, null, null, -23.5505, -46.6333)));
+
+        List<NearbyEventDTO> nearby = eventGeoIndex.nearby(-23.5, -46.6, 50, 10, NOW);
+
+        assertFalse(eventGeoIndex.isReady());
+        assertEquals(1, nearby.size());
+        verify(eventRepository, never()).findLocationBatch(any(), any(), any());
+    }
+
+    private static EventResponseDTO event(String city, long date) {
+        return new EventResponseDTO(UUID.randomUUID(), "Event in " + city, "", new Date(date), city, "SP", false, null, null);
+    }
+}
@@ -0,0 +1,153 @@
+package com.eventostec.api.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.eventostec.api.domain.address.Address;
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventCreated;
+import com.eventostec.api.domain.event.EventImportResultDTO;
+import com.eventostec.api.domain.event.EventImportRowDTO;
+import com.eventostec.api.domain.event.EventsImported;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+
+public class EventImportServiceTests {
+
+    @InjectMocks
+    private EventImportService eventImportService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EventDataVersion eventDataVersion;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private CityCentroids cityCentroids;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(eventImportService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(eventImportService, "chunkSize", 2);
+        ReflectionTestUtils.setField(eventImportService, "maxReportedErrors", 1000);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        doAnswer(invocation -> {
+            Object entity = invocation.getArgument(0);
+            if (entity instanceof Event event) {
+                if ("bad".equals(event.getTitle())) {
+                    throw new PersistenceException("value too long");
+                }
+                event.setId(UUID.randomUUID());
+            }
+            return null;
+        }).when(entityManager).persist(any());
+    }
+
+    @Test
+    void shouldImportRowsInChunkedTransactions() throws IOException {
+        EventImportResultDTO result = eventImportService.importEvents(ndjson(
+            row("One", false), row("Two", true), row("Three", false), row("Four", false), row("Five", true)));
+
+        assertEquals(5, result.imported());
+        assertEquals(0, result.failed());
+        verify(transactionManager, times(3)).commit(any());
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+        verify(entityManager, times(3)).persist(any(Address.class));
+        verify(eventPublisher).publishEvent(argThat((Object published) -> published instanceof EventsImported imported
+                                                                           && imported.events().size() == 2
+                                                                           && imported.events().get(0).title().equals("One")
+                                                                           && imported.events().get(0).city().equals("São Paulo")));
+        verify(eventPublisher, times(3)).publishEvent(any(EventsImported.class));
+        verify(eventPublisher, never()).publishEvent(any(EventCreated.class));
+    }
+
+    @Test
+    void shouldReportInvalidRowsWithoutAbortingTheImport() throws IOException {
+        EventImportResultDTO result = eventImportService.importEvents(ndjson(
+            row("One", false),
+            "{not json",
+            "",
+            "{\"title\":\"No date\",\"description\":\"d\",\"eventUrl\":\"u\",\"remote\":true}",
+            row("Two", false)));
+
+        assertEquals(2, result.imported());
+        assertEquals(2, result.failed());
+        assertEquals(2, result.errors().get(0).line());
+        assertTrue(result.errors().get(0).message().startsWith("Invalid JSON"));
+        assertEquals(4, result.errors().get(1).line());
+        assertEquals("date is required", result.errors().get(1).message());
+    }
+
+    @Test
+    void shouldReplayFailedChunkRowByRow() throws IOException {
+        EventImportResultDTO result = eventImportService.importEvents(ndjson(row("Good", false), row("bad", false), row("Other", true)));
+
+        assertEquals(2, result.imported());
+        assertEquals(1, result.failed());
+        assertEquals(2, result.errors().get(0).line());
+        assertEquals("value too long", result.errors().get(0).message());
+        verify(transactionManager, times(2)).rollback(any());
+        verify(eventPublisher, times(2)).publishEvent(any(EventsImported.class));
+    }
+
+    @Test
+    void shouldCapReportedErrorsButCountEveryFailure() throws IOException {
+        ReflectionTestUtils.setField(eventImportService, "maxReportedErrors", 1);
+
+        EventImportResultDTO result = eventImportService.importEvents(ndjson("{}", "{}", "{}"));
+
+        assertEquals(3, result.failed());
+        assertEquals(1, result.errors().size());
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    void shouldRequireAddressOnlyForInPersonEvents() {
+        assertNull(eventImportService.validate(new EventImportRowDTO("Title", "Description", 1L, null, null, true, "url", null)));
+        assertEquals("city is required", eventImportService.validate(new EventImportRowDTO("Title", "Description", 1L, null, "SP", false, "url", null)));
+        assertEquals("title must have at most 100 characters",
+                     eventImportService.validate(new EventImportRowDTO("x".repeat(101), "Description", 1L, "City", "SP", false, "url", null)));
+    }
+
+    private static String row(String title, boolean remote) {
+        return "{\"title\":\"" + title + "\",\"description\":\"Description\",\"date\":1724950031000,"
+             + "\"city\":\"São Paulo\",\"uf\":\"SP\",\"remote\":" + remote + ",\"eventUrl\":\"www.test.com.br\"}";
+    }
+
+    private static ByteArrayInputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,159 @@
+package com.eventostec.api.services;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.eventostec.api.domain.cache.CacheStatsDTO;
+import com.eventostec.api.domain.coupon.CouponAdded;
+import com.eventostec.api.domain.event.EventCreated;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.EventsImported;
+import com.eventostec.api.domain.event.PaginatedResponse;
+
+public class EventListingCacheTests {
+
+    private EventListingCache eventListingCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() {
+        eventListingCache = new EventListingCache();
+        ReflectionTestUtils.setField(eventListingCache, "maximumSize", 2L);
+        ReflectionTestUtils.setField(eventListingCache, "expireAfterSeconds", 60L);
+        ReflectionTestUtils.setField(eventListingCache, "refreshAfterSeconds", 60L);
+        ReflectionTestUtils.setField(eventListingCache, "refreshExecutor", (Executor) Runnable::run);
+        eventListingCache.init();
+    }
+
+    @Test
+    void shouldLoadOnceAndCountHitsAndMisses() {
+        EventListingCache.Key key = EventListingCache.Key.upcoming(0, 10);
+
+        eventListingCache.get(key, this::load);
+        eventListingCache.get(key, this::load);
+        eventListingCache.get(key, this::load);
+
+        CacheStatsDTO stats = eventListingCache.stats();
+        assertEquals(1, loads.get());
+        assertEquals(2, stats.hitCount());
+        assertEquals(1, stats.missCount());
+    }
+
+    @Test
+    void shouldEvictWhenMaximumSizeIsReached() {
+        for (int page = 0; page < 5; page++) {
+            eventListingCache.get(EventListingCache.Key.upcoming(page, 10), this::load);
+        }
+
+        CacheStatsDTO stats = eventListingCache.stats();
+        assertEquals(2, stats.size());
+        assertEquals(3, stats.evictionCount());
+    }
+
+    @Test
+    void shouldServeStaleEntryWhileRefreshing() {
+        EventListingCache.Key key = EventListingCache.Key.upcoming(0, 10);
+
+        PaginatedResponse<EventResponseDTO> first = eventListingCache.get(key, this::load);
+        ReflectionTestUtils.setField(eventListingCache, "refreshAfterSeconds", 0L);
+        PaginatedResponse<EventResponseDTO> stale = eventListingCache.get(key, this::load);
+        PaginatedResponse<EventResponseDTO> refreshed = eventListingCache.get(key, this::load);
+
+        assertEquals(1, first.getTotalPage());
+        assertEquals(1, stale.getTotalPage());
+        assertEquals(2, refreshed.getTotalPage());
+        assertEquals(2, eventListingCache.stats().refreshCount());
+    }
+
+    @Test
+    void shouldNotKeepPageLoadedWhileAnInvalidationRan() {
+        EventListingCache.Key key = EventListingCache.Key.upcoming(0, 10);
+
+        eventListingCache.get(key, missing -> {
+            eventListingCache.invalidateEvent(UUID.randomUUID());
+            return this.load(missing);
+        });
+        eventListingCache.get(key, this::load);
+        eventListingCache.get(key, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldInvalidateOnlyPagesThatMayContainCreatedEvent() {
+        EventListingCache.Key upcoming = EventListingCache.Key.upcoming(0, 10);
+        EventListingCache.Key otherUf = EventListingCache.Key.filtered(0, 10, null, null, "RJ", null, null, null);
+        ReflectionTestUtils.setField(eventListingCache, "maximumSize", 10L);
+        eventListingCache.init();
+        eventListingCache.get(upcoming, this::load);
+        eventListingCache.get(otherUf, this::load);
+
+        eventListingCache.onEventCreated(new EventCreated(event(UUID.randomUUID(), new Date(System.currentTimeMillis() + 60_000), "São Paulo", "SP")));
+        eventListingCache.get(upcoming, this::load);
+        eventListingCache.get(otherUf, this::load);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void shouldKeepUpcomingPagesWhenCreatedEventIsInThePast() {
+        EventListingCache.Key upcoming = EventListingCache.Key.upcoming(0, 10);
+        EventListingCache.Key history = EventListingCache.Key.filtered(0, 10, null, "paulo", null, null, null, null);
+        ReflectionTestUtils.setField(eventListingCache, "maximumSize", 10L);
+        eventListingCache.init();
+        eventListingCache.get(upcoming, this::load);
+        eventListingCache.get(history, this::load);
+
+        eventListingCache.onEventCreated(new EventCreated(event(UUID.randomUUID(), new Date(1000L), "São Paulo", "SP")));
+        eventListingCache.get(upcoming, this::load);
+        eventListingCache.get(history, this::load);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void shouldDropEveryPageOnceForAnImportedChunk() {
+        EventListingCache.Key upcoming = EventListingCache.Key.upcoming(0, 10);
+        EventListingCache.Key otherUf = EventListingCache.Key.filtered(0, 10, null, null, "RJ", null, null, null);
+        ReflectionTestUtils.setField(eventListingCache, "maximumSize", 10L);
+        eventListingCache.init();
+        eventListingCache.get(upcoming, this::load);
+        eventListingCache.get(otherUf, this::load);
+
+        eventListingCache.onEventsImported(new EventsImported(List.of(event(UUID.randomUUID(), new Date(1000L), "São Paulo", "SP"))));
+        eventListingCache.get(upcoming, this::load);
+        eventListingCache.get(otherUf, this::load);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void shouldInvalidatePagesListingEventWhenCouponIsAdded() {
+        UUID eventId = UUID.randomUUID();
+        EventListingCache.Key key = EventListingCache.Key.upcoming(0, 10);
+        eventListingCache.get(key, ignored -> new PaginatedResponse<>(List.of(event(eventId, new Date(), "", "")), 1));
+
+        eventListingCache.onCouponAdded(new CouponAdded(UUID.randomUUID(), "OTHER", new Date()));
+        assertEquals(1, eventListingCache.stats().size());
+
+        eventListingCache.onCouponAdded(new CouponAdded(eventId, "TEST20", new Date()));
+        assertEquals(0, eventListingCache.stats().size());
+    }
+
+    private PaginatedResponse<EventResponseDTO> load(EventListingCache.Key key) {
+        return new PaginatedResponse<>(List.of(), loads.incrementAndGet());
+    }
+
+    private static EventResponseDTO event(UUID id, Date date, String city, String uf) {
+        return new EventResponseDTO(id, "Event test", "Event test", date, city, uf, false, "www.test.com.br", "www.test.com.br");
+    }
+}
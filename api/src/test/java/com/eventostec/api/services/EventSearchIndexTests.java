@@ -0,0 +1,164 @@
+package com.eventostec.api.services;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.eventostec.api.domain.address.Address;
+import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventFacetCell;
+import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.EventsImported;
+import com.eventostec.api.domain.event.PaginatedResponse;
+import com.eventostec.api.repositories.EventRepository;
+
+public class EventSearchIndexTests {
+
+    @InjectMocks
+    private EventSearchIndex eventSearchIndex;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private static final Date START = new Date(0);
+    private static final Date END = new Date(Long.MAX_VALUE);
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(eventSearchIndex, "searchEngine", "memory");
+    }
+
+    @Test
+    void shouldRankTitleMatchesAboveDescriptionMatches() {
+        eventSearchIndex.add(event("Meetup de Java", "Encontro mensal", "São Paulo", "SP", 1000L));
+        eventSearchIndex.add(event("Meetup de Python", "Falaremos de Java também", "Recife", "PE", 2000L));
+        eventSearchIndex.add(event("Workshop de Go", "Concorrência", "Salvador", "BA", 3000L));
+
+        PaginatedResponse<EventResponseDTO> response = eventSearchIndex.search(0, 10, "java", "", "", START, END, "relevance");
+
+        assertEquals(2, response.getContent().size());
+        assertEquals("Meetup de Java", response.getContent().get(0).title());
+        assertEquals("Meetup de Python", response.getContent().get(1).title());
+    }
+
+    @Test
+    void shouldIntersectTermsAndMatchLastTermAsPrefix() {
+        eventSearchIndex.add(event("Conferência de Java", "Palestras", "São Paulo", "SP", 1000L));
+        eventSearchIndex.add(event("Conferência de Kotlin", "Palestras", "São Paulo", "SP", 2000L));
+
+        PaginatedResponse<EventResponseDTO> response = eventSearchIndex.search(0, 10, "conferencia ja", "", "", START, END, null);
+
+        assertEquals(1, response.getContent().size());
+        assertEquals("Conferência de Java", response.getContent().get(0).title());
+    }
+
+    @Test
+    void shouldFilterByCityUfAndDate() {
+        eventSearchIndex.add(event("Java", "", "São Paulo", "SP", 1000L));
+        eventSearchIndex.add(event("Java", "", "São José dos Campos", "SP", 2000L));
+        eventSearchIndex.add(event("Java", "", "São Luís", "MA", 3000L));
+        eventSearchIndex.add(event("Java", "", "São Paulo", "SP", 9000L));
+
+        PaginatedResponse<EventResponseDTO> response = eventSearchIndex.search(0, 10, "", "sao", "sp", START, new Date(5000L), null);
+
+        assertEquals(2, response.getContent().size());
+        assertEquals("São Paulo", response.getContent().get(0).city());
+        assertEquals("São José dos Campos", response.getContent().get(1).city());
+    }
+
+    @Test
+    void shouldPaginateByDate() {
+        for (int i = 0; i < 25; i++) {
+            eventSearchIndex.add(event("Evento " + i, "", "", "", 1000L * (25 - i)));
+        }
+
+        PaginatedResponse<EventResponseDTO> response = eventSearchIndex.search(2, 10, "evento", "", "", START, END, null);
+
+        assertEquals(3, response.getTotalPage());
+        assertEquals(5, response.getContent().size());
+        assertEquals("Evento 4", response.getContent().get(0).title());
+    }
+
+    @Test
+    void shouldReturnAnEmptyPagePastTheEndWithoutOverflowing() {
+        eventSearchIndex.add(event("Evento", "", "", "", 1000L));
+
+        PaginatedResponse<EventResponseDTO> response = eventSearchIndex.search(Integer.MAX_VALUE / 2, 100, "", "", "", START, END, null);
+
+        assertEquals(0, response.getContent().size());
+        assertEquals(1, response.getTotalPage());
+    }
+
+    @Test
+    void shouldBuildFromRepositoryInBatches() {
+        Event event = Event.builder()
+                            .id(UUID.randomUUID())
+                            .title("Java")
+                            .description("Meetup")
+                            .data(new Date(1000L))
+                            .address(Address.builder().city("Recife").uf("PE").build())
+                            .remote(false)
+                            .build();
+        when(eventRepository.findIndexBatch(any(), any())).thenReturn(List.of(event));
+
+        eventSearchIndex.build();
+        eventSearchIndex.add(event("Java", "", "", "", 2000L));
+
+        assertTrue(eventSearchIndex.isReady());
+        assertEquals(2, eventSearchIndex.size());
+        assertEquals(1, eventSearchIndex.search(0, 10, "", "recife", "", START, END, null).getContent().size());
+    }
+
+    @Test
+    void shouldIndexEveryEventOfAnImportedChunk() {
+        EventResponseDTO first = event("Java", "", "Recife", "PE", 1000L);
+
+        eventSearchIndex.onEventsImported(new EventsImported(List.of(first, event("Kotlin", "", "Recife", "PE", 2000L), first)));
+
+        assertEquals(2, eventSearchIndex.size());
+        assertEquals(2, eventSearchIndex.search(0, 10, "", "recife", "", START, END, null).getContent().size());
+    }
+
+    @Test
+    void shouldGroupFacetCellsOfTheDocumentsASearchWouldList() {
+        eventSearchIndex.add(event("Meetup de Java", "", "São Paulo", "SP", 1000L));
+        eventSearchIndex.add(event("Java Day", "", "São Paulo", "SP", 2000L));
+        eventSearchIndex.add(event("Java Online", "", "", "", 3000L));
+        eventSearchIndex.add(event("Meetup de Go", "", "São Paulo", "SP", 4000L));
+
+        List<EventFacetCell> cells = eventSearchIndex.facetCells("java", "", "", START, END);
+
+        assertEquals(2, cells.size());
+        assertEquals(2L, cells.stream().filter(cell -> "São Paulo".equals(cell.city())).findFirst().orElseThrow().count());
+        assertEquals(1L, cells.stream().filter(EventFacetCell::remote).findFirst().orElseThrow().count());
+    }
+
+    @Test
+    void shouldIgnoreEventsWhenEngineIsNotMemory() {
+        ReflectionTestUtils.setField(eventSearchIndex, "searchEngine", "like");
+
+        eventSearchIndex.add(event("Java", "", "", "", 1000L));
+        eventSearchIndex.build();
+
+        assertEquals(0, eventSearchIndex.size());
+        verifyNoInteractions(eventRepository);
+    }
+
+    private static EventResponseDTO event(String title, String description, String city, String uf, long date) {
+        return new EventResponseDTO(UUID.randomUUID(), title, description, new Date(date), city, uf, city.isEmpty(),
+                                    "www.test.com.br", "www.test.com.br");
+    }
+}
@@ -1,9 +1,8 @@
 package com.eventostec.api.services;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URL;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -11,39 +10,53 @@ import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.amazonaws.services.s3.AmazonS3;
 import com.eventostec.api.domain.address.Address;
 import com.eventostec.api.domain.coupon.Coupon;
+import com.eventostec.api.domain.event.CountMode;
+import com.eventostec.api.domain.event.CursorPaginatedResponse;
 import com.eventostec.api.domain.event.Event;
+import com.eventostec.api.domain.event.EventCreated;
+import com.eventostec.api.domain.event.EventCursor;
 import com.eventostec.api.domain.event.EventDetailsDTO;
+import com.eventostec.api.domain.event.EventDetailsRow;
 import com.eventostec.api.domain.event.EventRequestDTO;
 import com.eventostec.api.domain.event.EventResponseDTO;
+import com.eventostec.api.domain.event.ImageStatus;
 import com.eventostec.api.domain.event.PaginatedResponse;
+import com.eventostec.api.domain.image.StoredImage;
 import com.eventostec.api.repositories.EventRepository;
 
 @TestPropertySource("classpath:application-test.properties")
@@ -62,12 +75,46 @@ public class EventServiceTests {
     private AddressService addressService;
 
     @Mock
-    private AmazonS3 s3Client;
+    private StoredImageService storedImageService;
+
+    @Mock
+    private ImageUploadService imageUploadService;
+
+    @Mock
+    private EventSearchIndex eventSearchIndex;
+
+    @Mock
+    private EventListingCache eventListingCache;
+
+    @Mock
+    private EventDetailsCache eventDetailsCache;
+
+    @Mock
+    private EventCountCache eventCountCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EventDataVersion eventDataVersion;
+
+    @Mock
+    private EventGeoIndex eventGeoIndex;
+
+    @Mock
+    private EventFacetCounts eventFacetCounts;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        ReflectionTestUtils.setField(eventService, "bucketName", "bucket");
+        when(eventListingCache.get(any(), any())).thenAnswer(invocation -> {
+            Function<EventListingCache.Key, PaginatedResponse<EventResponseDTO>> loader = invocation.getArgument(1);
+            return loader.apply(invocation.getArgument(0));
+        });
+        when(eventDetailsCache.get(any(), any())).thenAnswer(invocation -> {
+            Function<UUID, EventDetailsDTO> loader = invocation.getArgument(1);
+            return loader.apply(invocation.getArgument(0));
+        });
     }
 
     @Test
@@ -96,8 +143,7 @@ public class EventServiceTests {
         );
 
         String s3Url = "https://s3.amazonaws.com/bucket/image-test.jpg";
-        when(s3Client.putObject(anyString(), anyString(), any(File.class))).thenReturn(null);
-        when(s3Client.getUrl(anyString(), anyString())).thenReturn(new URL(s3Url));
+        when(storedImageService.store(mockFile)).thenReturn(new StoredImage("hash", s3Url, "thumbnail-url", "medium-url", 3L, "image/jpeg", new Date()));
 
         when(eventRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -107,8 +153,10 @@ public class EventServiceTests {
         assertEquals(requestDTO.title(), createdEvent.getTitle());
         assertEquals(requestDTO.description(), createdEvent.getDescription());
         assertEquals(s3Url, createdEvent.getImgUrl());
+        assertEquals("thumbnail-url", createdEvent.getImgThumbnailUrl());
+        assertEquals("medium-url", createdEvent.getImgMediumUrl());
 
-        verify(s3Client).putObject(anyString(), anyString(), any(File.class));
+        verify(storedImageService).store(mockFile);
         verify(eventRepository).save(any(Event.class));
     }
 
@@ -411,7 +459,7 @@ public class EventServiceTests {
                             .eventUrl("www.test.com.br")
                             .imgUrl("www.test.com.br")
                             .build();
-        List<Coupon> coupons = Collections.singletonList(new Coupon(UUID.randomUUID(), "TEST20", 20, new Date(), event));
+        List<Coupon> coupons = Collections.singletonList(new Coupon(UUID.randomUUID(), "TEST20", 20, new Date(), null, 0, 0, null, event));
         System.out.println(coupons);
 
         when(eventRepository.findById(eventId)).thenReturn(Optional.of(event));
@@ -456,4 +504,321 @@ public class EventServiceTests {
         assertEquals("", response.city());
         assertEquals("", response.uf());
     }
+
+    @Test
+    public void getUpcomingEventsByCursorShouldReturnNextCursorWhenMoreRowsExist() {
+        Event first = Event.builder().id(UUID.randomUUID()).title("First").data(new Date(1000L)).remote(true).build();
+        Event second = Event.builder().id(UUID.randomUUID()).title("Second").data(new Date(2000L)).remote(true).build();
+
+        when(eventRepository.findUpComingEventsFirst(any(Date.class), eq(PageRequest.of(0, 2))))
+            .thenReturn(List.of(first, second));
+
+        CursorPaginatedResponse<EventResponseDTO> response = eventService.getUpcomingEventsByCursor(null, 1);
+
+        assertEquals(1, response.getContent().size());
+        assertEquals("First", response.getContent().get(0).title());
+        assertEquals(EventCursor.of(first), EventCursor.decode(response.getNextCursor()));
+    }
+
+    @Test
+    public void getUpcomingEventsByCursorShouldSeekAfterCursor() {
+        UUID cursorId = UUID.randomUUID();
+        String cursor = new EventCursor(new Date(1000L), cursorId).encode();
+        Event next = Event.builder().id(UUID.randomUUID()).title("Next").data(new Date(2000L)).remote(true).build();
+
+        when(eventRepository.findUpComingEventsAfter(any(Date.class), eq(new Date(1000L)), eq(cursorId), eq(PageRequest.of(0, 11))))
+            .thenReturn(List.of(next));
+
+        CursorPaginatedResponse<EventResponseDTO> response = eventService.getUpcomingEventsByCursor(cursor, 10);
+
+        assertEquals(1, response.getContent().size());
+        assertEquals("Next", response.getContent().get(0).title());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    public void getOlderEventsByCursorShouldSeekBeforeCursor() {
+        UUID cursorId = UUID.randomUUID();
+        String cursor = new EventCursor(new Date(5000L), cursorId).encode();
+        Event older = Event.builder().id(UUID.randomUUID()).title("Older").data(new Date(4000L))
+                            .address(Address.builder().city("City").uf("UF").build()).remote(false).build();
+
+        when(eventRepository.findOlderEventsBefore(any(Date.class), eq(new Date(5000L)), eq(cursorId), eq(PageRequest.of(0, 11))))
+            .thenReturn(List.of(older));
+
+        CursorPaginatedResponse<EventResponseDTO> response = eventService.getOlderEventsByCursor(cursor, 10);
+
+        assertEquals(1, response.getContent().size());
+        assertEquals("City", response.getContent().get(0).city());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    public void getOlderEventsByCursorShouldRejectInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> eventService.getOlderEventsByCursor("not-a-cursor", 10));
+    }
+
+    @Test
+    public void cursorListingsShouldRejectSizeBelowOne() {
+        assertThrows(IllegalArgumentException.class, () -> eventService.getUpcomingEventsByCursor(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> eventService.getOlderEventsByCursor(null, 0));
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    public void getFilteredEventsShouldRejectNegativePageAndSizeBelowOne() {
+        ReflectionTestUtils.setField(eventService, "searchEngine", "memory");
+
+        assertThrows(IllegalArgumentException.class, () -> eventService.getFilteredEvents(-1, 10, "", "", "", null, null));
+        assertThrows(IllegalArgumentException.class, () -> eventService.getFilteredEvents(0, 0, "", "", "", null, null));
+        verifyNoInteractions(eventRepository, eventSearchIndex);
+    }
+
+    @Test
+    public void getFilteredEventsShouldUseFullTextQueryWhenEngineIsFullText() {
+        ReflectionTestUtils.setField(eventService, "searchEngine", "fulltext");
+        Event event = Event.builder().id(UUID.randomUUID()).title("Java Conference").data(new Date()).remote(true).build();
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(eventRepository.findFullTextFilteredEvents(eq("java"), eq(""), eq(""), any(), any(), eq(pageable)))
+            .thenReturn(new PageImpl<>(List.of(event), pageable, 1));
+
+        PaginatedResponse<EventResponseDTO> response = eventService.getFilteredEvents(0, 10, "java", null, null, null, null);
+
+        assertEquals(1, response.getContent().size());
+        assertEquals("Java Conference", response.getContent().get(0).title());
+        verify(eventRepository, never()).findFilteredEvents(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void getFilteredEventsShouldRankByRelevanceWhenRequested() {
+        ReflectionTestUtils.setField(eventService, "searchEngine", "fulltext");
+        Event event = Event.builder().id(UUID.randomUUID()).title("Java Conference").data(new Date()).remote(true).build();
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(eventRepository.findFullTextFilteredEventsByRank(eq("java"), eq(""), eq("SP"), any(), any(), eq(pageable)))
+            .thenReturn(new PageImpl<>(List.of(event), pageable, 1));
+
+        PaginatedResponse<EventResponseDTO> response = eventService.getFilteredEvents(0, 10, "java", null, "SP", null, null, "relevance");
+
+        assertEquals(1, response.getContent().size());
+        assertEquals(1, response.getTotalPage());
+    }
+
+    @Test
+    public void getFilteredEventsShouldUseSearchIndexWhenEngineIsMemory() {
+        ReflectionTestUtils.setField(eventService, "searchEngine", "memory");
+        PaginatedResponse<EventResponseDTO> indexed = new PaginatedResponse<>(List.of(), 0);
+
+        when(eventSearchIndex.isReady()).thenReturn(true);
+        when(eventSearchIndex.search(eq(0), eq(10), eq("java"), eq(""), eq(""), any(), any(), eq("relevance"))).thenReturn(indexed);
+
+        PaginatedResponse<EventResponseDTO> response = eventService.getFilteredEvents(0, 10, "java", null, null, null, null, "relevance");
+
+        assertEquals(indexed, response);
+        verify(eventRepository, never()).findFilteredEvents(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void createEventShouldPublishEventCreated() throws IOException {
+        EventRequestDTO requestDTO = new EventRequestDTO("Event test", "Description test", System.currentTimeMillis(),
+                                                         "São Paulo", "SP", false, "www.test.com.br", null);
+        when(eventRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(addressService.createAddress(any(), any())).thenReturn(Address.builder().city("São Paulo").uf("SP").build());
+
+        eventService.createEvent(requestDTO);
+
+        verify(eventPublisher).publishEvent(argThat((Object published) -> published instanceof EventCreated created
+                                                                        && "São Paulo".equals(created.event().city())
+                                                                        && "Event test".equals(created.event().title())));
+    }
+
+    @Test
+    public void getUpcomingEventsShouldBeServedThroughListingCache() {
+        PaginatedResponse<EventResponseDTO> cached = new PaginatedResponse<>(List.of(), 3);
+        doReturn(cached).when(eventListingCache).get(eq(EventListingCache.Key.upcoming(1, 5)), any());
+
+        PaginatedResponse<EventResponseDTO> response = eventService.getUpcomingEvents(1, 5);
+
+        assertEquals(cached, response);
+        verify(eventRepository, never()).findUpComingEvents(any(), any());
+    }
+
+    @Test
+    public void getEventDetailsShouldBeServedThroughDetailsCache() {
+        UUID eventId = UUID.randomUUID();
+        EventDetailsDTO cached = new EventDetailsDTO(eventId, "Cached", "", new Date(), "", "", "", "", List.of());
+        doReturn(cached).when(eventDetailsCache).get(eq(eventId), any());
+
+        EventDetailsDTO response = eventService.getEventDetails(eventId);
+
+        assertEquals(cached, response);
+        verify(eventRepository, never()).findById(any());
+        verify(couponService, never()).consultCoupons(any(), any());
+    }
+
+    @Test
+    public void createEventShouldSubmitImageAfterSaveWhenUploadIsAsync() throws IOException {
+        MultipartFile mockFile = new MockMultipartFile("image", "image-test.jpg", "image/jpeg", new byte[] {1, 2, 3});
+        EventRequestDTO requestDTO = new EventRequestDTO("Event test", "Description test", System.currentTimeMillis(),
+                                                         "São Paulo", "SP", true, "www.test.com.br", mockFile);
+        UUID eventId = UUID.randomUUID();
+        ImageUploadService.SpooledImage spooled = new ImageUploadService.SpooledImage(Path.of("spooled"), "image-test.jpg", "image/jpeg");
+        when(imageUploadService.isAsync()).thenReturn(true);
+        when(imageUploadService.spool(mockFile)).thenReturn(spooled);
+        when(eventRepository.save(any())).thenAnswer(invocation -> {
+            Event saved = invocation.getArgument(0);
+            saved.setId(eventId);
+            return saved;
+        });
+
+        Event createdEvent = eventService.createEvent(requestDTO);
+
+        assertNull(createdEvent.getImgUrl());
+        assertEquals(ImageStatus.PENDING, createdEvent.getImgStatus());
+        assertNotNull(createdEvent.getImgPendingSince());
+        verify(imageUploadService).submit(eventId, spooled);
+        verify(storedImageService, never()).store(any(MultipartFile.class));
+    }
+
+    @Test
+    public void createEventShouldNotSaveWhenImageCannotBeSpooled() throws IOException {
+        MultipartFile mockFile = new MockMultipartFile("image", "image-test.jpg", "image/jpeg", new byte[] {1, 2, 3});
+        EventRequestDTO requestDTO = new EventRequestDTO("Event test", "Description test", System.currentTimeMillis(),
+                                                         "São Paulo", "SP", true, "www.test.com.br", mockFile);
+        when(imageUploadService.isAsync()).thenReturn(true);
+        when(imageUploadService.spool(mockFile)).thenThrow(new IOException("disk full"));
+
+        assertThrows(IOException.class, () -> eventService.createEvent(requestDTO));
+
+        verify(eventRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void createEventShouldMarkImageFailedWhenAddressCannotBeSaved() throws IOException {
+        MultipartFile mockFile = new MockMultipartFile("image", "image-test.jpg", "image/jpeg", new byte[] {1, 2, 3});
+        EventRequestDTO requestDTO = new EventRequestDTO("Event test", "Description test", System.currentTimeMillis(),
+                                                         "São Paulo", "SP", false, "www.test.com.br", mockFile);
+        ImageUploadService.SpooledImage spooled = new ImageUploadService.SpooledImage(Path.of("spooled"), "image-test.jpg", "image/jpeg");
+        UUID eventId = UUID.randomUUID();
+        when(imageUploadService.isAsync()).thenReturn(true);
+        when(imageUploadService.spool(mockFile)).thenReturn(spooled);
+        when(eventRepository.save(any())).thenAnswer(invocation -> {
+            Event saved = invocation.getArgument(0);
+            saved.setId(eventId);
+            return saved;
+        });
+        when(addressService.createAddress(any(), any())).thenThrow(new IllegalStateException("connection lost"));
+
+        assertThrows(IllegalStateException.class, () -> eventService.createEvent(requestDTO));
+
+        verify(imageUploadService).discard(spooled);
+        verify(eventRepository).updateImage(eventId, null, null, null, ImageStatus.FAILED);
+        verify(imageUploadService, never()).submit(any(), any());
+    }
+
+    @Test
+    public void getUpcomingEventsShouldUseProjectionWhenEnabled() {
+        ReflectionTestUtils.setField(eventService, "projectionEnabled", true);
+        EventResponseDTO dto = new EventResponseDTO(UUID.randomUUID(), "Event", "Description", new Date(), "City", "SP", false, "url", "img");
+        when(eventRepository.findUpComingEventResponses(any(), any())).thenReturn(new PageImpl<>(List.of(dto), PageRequest.of(0, 10), 11));
+
+        PaginatedResponse<EventResponseDTO> response = eventService.getUpcomingEvents(0, 10);
+
+        assertEquals(List.of(dto), response.getContent());
+        assertEquals(2, response.getTotalPage());
+        verify(eventRepository, never()).findUpComingEvents(any(), any());
+    }
+
+    @Test
+    public void getFilteredEventsShouldUseProjectionWhenEnabled() {
+        ReflectionTestUtils.setField(eventService, "projectionEnabled", true);
+        when(eventRepository.findFilteredEventResponses(eq("Event"), eq(""), eq(""), any(), any(), any()))
+            .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0));
+
+        PaginatedResponse<EventResponseDTO> response = eventService.getFilteredEvents(0, 10, "Event", null, null, null, null);
+
+        assertTrue(response.getContent().isEmpty());
+        verify(eventRepository, never()).findFilteredEvents(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void getEventDetailsShouldFoldProjectionRowsIntoCoupons() {
+        ReflectionTestUtils.setField(eventService, "projectionEnabled", true);
+        UUID eventId = UUID.randomUUID();
+        Date date = new Date();
+        when(eventRepository.findEventDetailsRows(eq(eventId), any())).thenReturn(List.of(
+            new EventDetailsRow(eventId, "Event", "Description", date, "City", "SP", "img", null, null, "url", "TEST10", 10, date),
+            new EventDetailsRow(eventId, "Event", "Description", date, "City", "SP", "img", null, null, "url", "TEST20", 20, date)));
+
+        EventDetailsDTO details = eventService.getEventDetails(eventId);
+
+        assertEquals("City", details.city());
+        assertEquals(2, details.coupons().size());
+        assertEquals("TEST20", details.coupons().get(1).code());
+        verify(eventRepository, never()).findById(any());
+        verify(couponService, never()).consultCoupons(any(), any());
+    }
+
+    @Test
+    public void getEventDetailsProjectionShouldHandleEventsWithoutCoupons() {
+        ReflectionTestUtils.setField(eventService, "projectionEnabled", true);
+        UUID eventId = UUID.randomUUID();
+        when(eventRepository.findEventDetailsRows(eq(eventId), any())).thenReturn(List.of(
+            new EventDetailsRow(eventId, "Event", "Description", new Date(), "", "", "img", null, null, "url", null, null, null)));
+
+        assertTrue(eventService.getEventDetails(eventId).coupons().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> eventService.getEventDetails(UUID.randomUUID()));
+    }
+
+    @Test
+    public void getUpcomingEventsShouldSkipCountWhenCountIsNone() {
+        EventResponseDTO dto = new EventResponseDTO(UUID.randomUUID(), "Event", "Description", new Date(), "City", "SP", false, "url", "img");
+        when(eventRepository.findUpComingEventSlice(any(), any())).thenReturn(new SliceImpl<>(List.of(dto), PageRequest.of(0, 1), true));
+
+        PaginatedResponse<EventResponseDTO> response = eventService.getUpcomingEvents(0, 1, CountMode.NONE);
+
+        assertEquals(List.of(dto), response.getContent());
+        assertNull(response.getTotalPage());
+        assertTrue(response.getHasNext());
+        verify(eventRepository, never()).findUpComingEvents(any(), any());
+        verify(eventCountCache, never()).upcoming();
+    }
+
+    @Test
+    public void getOlderEventsShouldUseCachedCountWhenCountIsApproximate() {
+        EventResponseDTO dto = new EventResponseDTO(UUID.randomUUID(), "Event", "Description", new Date(), "City", "SP", false, "url", "img");
+        when(eventRepository.findOlderEventSlice(any(), any())).thenReturn(new SliceImpl<>(List.of(dto), PageRequest.of(0, 10), false));
+        when(eventCountCache.older()).thenReturn(35L);
+
+        PaginatedResponse<EventResponseDTO> response = eventService.getOlderEvents(0, 10, CountMode.APPROXIMATE);
+
+        assertEquals(4, response.getTotalPage());
+        assertTrue(response.getApproximate());
+        verify(eventRepository, never()).findOlderEvents(any(), any());
+    }
+
+    @Test
+    public void getFilteredEventsShouldNotReportFewerPagesThanSeenWhenCountIsStale() {
+        EventResponseDTO dto = new EventResponseDTO(UUID.randomUUID(), "Event", "Description", new Date(), "City", "SP", false, "url", "img");
+        when(eventRepository.findFilteredEventSlice(eq("Event"), eq(""), eq(""), any(), any(), any()))
+            .thenReturn(new SliceImpl<>(List.of(dto), PageRequest.of(4, 1), true));
+        when(eventCountCache.filtered("Event", null, null, null, null)).thenReturn(2L);
+
+        PaginatedResponse<EventResponseDTO> response = eventService.getFilteredEvents(4, 1, "Event", null, null, null, null, null, CountMode.APPROXIMATE);
+
+        assertEquals(6, response.getTotalPage());
+        verify(eventRepository, never()).findFilteredEvents(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void getNearbyEventsShouldRejectRadiusAboveMaximum() {
+        ReflectionTestUtils.setField(eventService, "maxRadiusKm", 500.0);
+
+        assertThrows(IllegalArgumentException.class, () -> eventService.getNearbyEvents(-23.55, -46.63, 501, 10));
+        assertThrows(IllegalArgumentException.class, () -> eventService.getNearbyEvents(-23.55, -46.63, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> eventService.getNearbyEvents(91, -46.63, 50, 10));
+        verifyNoInteractions(eventGeoIndex);
+    }
 }
@@ -0,0 +1,71 @@
+package com.eventostec.api.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.eventostec.api.domain.diagnostics.CouponJfrEvent;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class FlightRecordingServiceTests {
+
+    private FlightRecordingService flightRecordingService;
+
+    @BeforeEach
+    public void setUp() {
+        flightRecordingService = new FlightRecordingService();
+        ReflectionTestUtils.setField(flightRecordingService, "settings", "default");
+        ReflectionTestUtils.setField(flightRecordingService, "maxAgeSeconds", 60L);
+        ReflectionTestUtils.setField(flightRecordingService, "maxSizeBytes", 10L * 1024 * 1024);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        flightRecordingService.close();
+    }
+
+    @Test
+    void shouldDumpCustomEventsWhileRecording() throws IOException {
+        assertEquals("RUNNING", flightRecordingService.start().state());
+
+        CouponJfrEvent jfrEvent = new CouponJfrEvent();
+        jfrEvent.begin();
+        jfrEvent.operation = "consultCoupons";
+        jfrEvent.rows = 3;
+        jfrEvent.commit();
+
+        Path file = flightRecordingService.dump();
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                                                      .filter(event -> event.getEventType().getName().equals("eventostec.Coupon"))
+                                                      .toList();
+            assertEquals(1, events.size());
+            assertEquals("consultCoupons", events.get(0).getString("operation"));
+            assertEquals(3, events.get(0).getInt("rows"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        assertEquals("RUNNING", flightRecordingService.status().state());
+    }
+
+    @Test
+    void shouldRejectDumpWithoutRecording() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> flightRecordingService.dump());
+
+        flightRecordingService.start();
+        flightRecordingService.stop();
+
+        assertEquals("NEW", flightRecordingService.status().state());
+        assertThrows(IllegalArgumentException.class, () -> flightRecordingService.dump());
+    }
+}
@@ -0,0 +1,124 @@
+package com.eventostec.api.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ImageStorageServiceTests {
+
+    @InjectMocks
+    private ImageStorageService imageStorageService;
+
+    @Mock
+    private AmazonS3 s3Client;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(imageStorageService, "bucketName", "bucket");
+        ReflectionTestUtils.setField(imageStorageService, "multipartThreshold", 16L * 1024 * 1024);
+        ReflectionTestUtils.setField(imageStorageService, "partSize", 5 * 1024 * 1024);
+        when(s3Client.getUrl(anyString(), anyString())).thenReturn(new URL("https://s3.amazonaws.com/bucket/image-test.jpg"));
+    }
+
+    @Test
+    void shouldStreamSmallImageWithKnownContentLength() throws IOException {
+        InputStream imageStream = getClass().getClassLoader().getResourceAsStream("images/image-test.jpg");
+        assertNotNull(imageStream);
+        MockMultipartFile mockFile = new MockMultipartFile("image", "imagem-test.jpg", "image/jpeg", imageStream);
+
+        String s3Url = imageStorageService.upload(mockFile);
+
+        ArgumentCaptor<ObjectMetadata> metadata = ArgumentCaptor.forClass(ObjectMetadata.class);
+        verify(s3Client).putObject(eq("bucket"), anyString(), any(InputStream.class), metadata.capture());
+        assertEquals(mockFile.getSize(), metadata.getValue().getContentLength());
+        assertEquals("image/jpeg", metadata.getValue().getContentType());
+        assertEquals("https://s3.amazonaws.com/bucket/image-test.jpg", s3Url);
+    }
+
+    @Test
+    void shouldUseMultipartUploadAboveThreshold() throws IOException {
+        ReflectionTestUtils.setField(imageStorageService, "multipartThreshold", 10L);
+        ReflectionTestUtils.setField(imageStorageService, "partSize", 4);
+        InitiateMultipartUploadResult initiated = new InitiateMultipartUploadResult();
+        initiated.setUploadId("upload-id");
+        when(s3Client.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiated);
+        when(s3Client.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+            UploadPartResult result = new UploadPartResult();
+            result.setPartNumber(invocation.<UploadPartRequest>getArgument(0).getPartNumber());
+            result.setETag("etag");
+            return result;
+        });
+        MockMultipartFile mockFile = new MockMultipartFile("image", "big.jpg", "image/jpeg", "0123456789ab".getBytes());
+
+        imageStorageService.upload(mockFile);
+
+        ArgumentCaptor<UploadPartRequest> parts = ArgumentCaptor.forClass(UploadPartRequest.class);
+        verify(s3Client, times(3)).uploadPart(parts.capture());
+        List<UploadPartRequest> sent = parts.getAllValues();
+        assertEquals(4, sent.get(2).getPartSize());
+        ArgumentCaptor<CompleteMultipartUploadRequest> complete = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client).completeMultipartUpload(complete.capture());
+        assertEquals(3, complete.getValue().getPartETags().size());
+        verify(s3Client, never()).putObject(anyString(), anyString(), any(InputStream.class), any(ObjectMetadata.class));
+    }
+
+    @Test
+    void shouldAbortMultipartUploadWhenPartFails() {
+        ReflectionTestUtils.setField(imageStorageService, "multipartThreshold", 1L);
+        InitiateMultipartUploadResult initiated = new InitiateMultipartUploadResult();
+        initiated.setUploadId("upload-id");
+        when(s3Client.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiated);
+        when(s3Client.uploadPart(any(UploadPartRequest.class))).thenThrow(new IllegalStateException("S3 unavailable"));
+        MockMultipartFile mockFile = new MockMultipartFile("image", "big.jpg", "image/jpeg", "0123456789".getBytes());
+
+        assertThrows(IllegalStateException.class, () -> imageStorageService.upload(mockFile));
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    @Test
+    void shouldRecordUploadLatencyThroughTimedAspect() throws IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(imageStorageService);
+        proxyFactory.addAspect(new TimedAspect(registry));
+        ImageStorageService timed = proxyFactory.getProxy();
+
+        timed.upload("image.jpg", new ByteArrayInputStream(new byte[] { 1, 2, 3 }), 3, "image/jpeg");
+
+        assertEquals(1, registry.get("s3.upload").timer().count());
+    }
+}
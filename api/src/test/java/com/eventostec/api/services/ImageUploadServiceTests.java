@@ -0,0 +1,205 @@
+package com.eventostec.api.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.eventostec.api.domain.event.EventImageUploaded;
+import com.eventostec.api.domain.event.ImageStatus;
+import com.eventostec.api.domain.image.ImageUploadStatsDTO;
+import com.eventostec.api.domain.image.StoredImage;
+import com.eventostec.api.repositories.EventRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ImageUploadServiceTests {
+
+    @InjectMocks
+    private ImageUploadService imageUploadService;
+
+    @Mock
+    private StoredImageService storedImageService;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EventDataVersion eventDataVersion;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(imageUploadService, "async", true);
+        ReflectionTestUtils.setField(imageUploadService, "poolSize", 2);
+        ReflectionTestUtils.setField(imageUploadService, "queueCapacity", 10);
+        ReflectionTestUtils.setField(imageUploadService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(imageUploadService, "retryBackoffMillis", 1L);
+        ReflectionTestUtils.setField(imageUploadService, "pendingTimeoutSeconds", 900L);
+        imageUploadService.init();
+    }
+
+    @Test
+    void shouldUploadInBackgroundAndMarkEventUploaded() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        String s3Url = "https://s3.amazonaws.com/bucket/image-test.jpg";
+        when(storedImageService.store(any(), eq(3L), eq("image-test.jpg"), eq("image/jpeg"))).thenReturn(storedImage(s3Url));
+
+        imageUploadService.submit(eventId, imageUploadService.spool(new MockMultipartFile("image", "image-test.jpg", "image/jpeg", new byte[] {1, 2, 3})));
+        imageUploadService.shutdown();
+
+        verify(eventRepository).updateImage(eventId, s3Url, "thumbnail-url", "medium-url", ImageStatus.UPLOADED);
+        verify(eventPublisher).publishEvent(new EventImageUploaded(eventId, s3Url, "thumbnail-url", "medium-url"));
+        ImageUploadStatsDTO stats = imageUploadService.stats();
+        assertEquals(1, stats.completed());
+        assertEquals(0, stats.failed());
+    }
+
+    @Test
+    void shouldRetryAndMarkEventFailedWhenEveryAttemptFails() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        when(storedImageService.store(any(), anyLong(), any(), any())).thenThrow(new RuntimeException("S3 unavailable"));
+
+        imageUploadService.submit(eventId, imageUploadService.spool(new MockMultipartFile("image", "image-test.jpg", "image/jpeg", new byte[] {1, 2, 3})));
+        imageUploadService.shutdown();
+
+        verify(storedImageService, times(3)).store(any(), anyLong(), any(), any());
+        verify(eventRepository).updateImage(eq(eventId), isNull(), isNull(), isNull(), eq(ImageStatus.FAILED));
+        verify(eventPublisher, never()).publishEvent(any());
+        ImageUploadStatsDTO stats = imageUploadService.stats();
+        assertEquals(1, stats.failed());
+        assertEquals(2, stats.retried());
+    }
+
+    @Test
+    void shouldRecoverWhenALaterAttemptSucceeds() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        when(storedImageService.store(any(), anyLong(), any(), any()))
+            .thenThrow(new IOException("connection reset"))
+            .thenReturn(storedImage("https://s3.amazonaws.com/bucket/image-test.jpg"));
+
+        imageUploadService.submit(eventId, imageUploadService.spool(new MockMultipartFile("image", "image-test.jpg", "image/jpeg", new byte[] {1, 2, 3})));
+        imageUploadService.shutdown();
+
+        verify(eventRepository).updateImage(eventId, "https://s3.amazonaws.com/bucket/image-test.jpg", "thumbnail-url", "medium-url", ImageStatus.UPLOADED);
+        assertEquals(1, imageUploadService.stats().retried());
+    }
+
+    @Test
+    void shouldDeleteSpooledFileAfterUpload() throws Exception {
+        Path spooled = Files.createTempFile("event-image-", ".upload");
+        Files.write(spooled, new byte[] {1, 2, 3});
+        when(storedImageService.store(any(), anyLong(), any(), any())).thenReturn(storedImage("url"));
+
+        ReflectionTestUtils.invokeMethod(imageUploadService, "upload", UUID.randomUUID(), spooled, "image-test.jpg", "image/jpeg", System.nanoTime());
+
+        assertFalse(Files.exists(spooled));
+    }
+
+    @Test
+    void shouldRunUploadOnCallerWhenQueueIsFull() throws Exception {
+        imageUploadService.shutdown();
+        ReflectionTestUtils.setField(imageUploadService, "poolSize", 1);
+        ReflectionTestUtils.setField(imageUploadService, "queueCapacity", 1);
+        imageUploadService.init();
+
+        CountDownLatch release = new CountDownLatch(1);
+        Thread caller = Thread.currentThread();
+        when(storedImageService.store(any(), anyLong(), any(), any())).thenAnswer(invocation -> {
+            if (Thread.currentThread() != caller) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return storedImage("url");
+        });
+
+        for (int i = 0; i < 3; i++) {
+            imageUploadService.submit(UUID.randomUUID(), imageUploadService.spool(new MockMultipartFile("image", "image-test.jpg", "image/jpeg", new byte[] {1})));
+        }
+        release.countDown();
+        imageUploadService.shutdown();
+
+        ImageUploadStatsDTO stats = imageUploadService.stats();
+        assertTrue(stats.ranOnCaller() >= 1);
+        assertEquals(3, stats.completed());
+    }
+
+    @Test
+    void shouldDeleteSpooledFileWhenTransferFails() throws Exception {
+        MultipartFile image = mock(MultipartFile.class);
+        doThrow(new IOException("disk full")).when(image).transferTo(any(Path.class));
+
+        assertThrows(IOException.class, () -> imageUploadService.spool(image));
+
+        ArgumentCaptor<Path> spooled = ArgumentCaptor.forClass(Path.class);
+        verify(image).transferTo(spooled.capture());
+        assertFalse(Files.exists(spooled.getValue()));
+    }
+
+    @Test
+    void shouldMarkEventsPendingForTooLongAsFailed() {
+        when(eventRepository.failPendingImagesBefore(any())).thenReturn(2);
+        long before = System.currentTimeMillis() - 900_000L;
+
+        imageUploadService.failStalePending();
+
+        verify(eventRepository).failPendingImagesBefore(argThat(date -> Math.abs(date.getTime() - before) < 5_000));
+        verify(eventDataVersion).changed();
+    }
+
+    @Test
+    void shouldLeaveDataVersionAloneWhenNothingIsStale() {
+        imageUploadService.failStalePending();
+
+        verify(eventDataVersion, never()).changed();
+    }
+
+    @Test
+    void shouldExposeQueueDepthAndUploadLatencyAsMeters() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        imageUploadService.bindTo(registry);
+        when(storedImageService.store(any(), anyLong(), any(), any())).thenReturn(storedImage("url"));
+
+        imageUploadService.submit(UUID.randomUUID(), imageUploadService.spool(new MockMultipartFile("image", "image-test.jpg", "image/jpeg", new byte[] {1})));
+        imageUploadService.shutdown();
+
+        assertEquals(0, registry.get("image.upload.queue.depth").gauge().value());
+        assertEquals(1, registry.get("image.upload").tag("outcome", "uploaded").timer().count());
+        assertEquals(0, registry.get("image.upload").tag("outcome", "failed").timer().count());
+    }
+
+    private StoredImage storedImage(String url) {
+        return new StoredImage("hash", url, "thumbnail-url", "medium-url", 3L, "image/jpeg", new Date());
+    }
+}
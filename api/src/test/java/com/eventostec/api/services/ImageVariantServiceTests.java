@@ -0,0 +1,109 @@
+package com.eventostec.api.services;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.eventostec.api.domain.image.ImageVariant;
+import com.eventostec.api.domain.image.ImageVariantUrls;
+
+public class ImageVariantServiceTests {
+
+    @InjectMocks
+    private ImageVariantService imageVariantService;
+
+    @Mock
+    private ImageStorageService imageStorageService;
+
+    private final Map<String, byte[]> uploads = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(imageVariantService, "enabled", true);
+        ReflectionTestUtils.setField(imageVariantService, "poolSize", 2);
+        ReflectionTestUtils.setField(imageVariantService, "jpegQuality", 0.8f);
+        imageVariantService.init();
+        when(imageStorageService.upload(anyString(), any(InputStream.class), anyLong(), anyString())).thenAnswer(invocation -> {
+            String fileName = invocation.getArgument(0);
+            InputStream inputStream = invocation.getArgument(1);
+            uploads.put(fileName, inputStream.readAllBytes());
+            return "https://s3.amazonaws.com/bucket/" + fileName;
+        });
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        imageVariantService.shutdown();
+    }
+
+    @Test
+    void shouldGenerateEveryVariantWithinItsMaximumSize() throws IOException {
+        ImageVariantUrls urls = imageVariantService.generate(new ClassPathResource("images/image-test.jpg"), "hash");
+
+        assertEquals("https://s3.amazonaws.com/bucket/hash-thumbnail.jpg", urls.thumbnailUrl());
+        assertEquals("https://s3.amazonaws.com/bucket/hash-medium.jpg", urls.mediumUrl());
+        assertEquals(2, uploads.size());
+        for (Map.Entry<String, byte[]> upload : uploads.entrySet()) {
+            ImageVariant variant = upload.getKey().endsWith("-thumbnail.jpg") ? ImageVariant.THUMBNAIL : ImageVariant.MEDIUM;
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(upload.getValue()));
+            assertNotNull(image);
+            assertTrue(Math.max(image.getWidth(), image.getHeight()) <= variant.maxDimension());
+        }
+    }
+
+    @Test
+    void shouldNotScaleSmallImagesUp() throws IOException {
+        BufferedImage small = new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(small, "png", png);
+
+        byte[] jpeg = imageVariantService.resize(new ByteArrayResource(png.toByteArray()), ImageVariant.MEDIUM.maxDimension());
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(jpeg));
+        assertEquals(40, image.getWidth());
+        assertEquals(20, image.getHeight());
+    }
+
+    @Test
+    void shouldSkipVariantsWhenSourceIsNotAnImage() throws IOException {
+        ImageVariantUrls urls = imageVariantService.generate(new ByteArrayResource("not an image".getBytes()), "hash");
+
+        assertNull(urls.thumbnailUrl());
+        assertNull(urls.mediumUrl());
+        verify(imageStorageService, never()).upload(anyString(), any(InputStream.class), anyLong(), anyString());
+    }
+
+    @Test
+    void shouldReturnNoVariantsWhenDisabled() {
+        ReflectionTestUtils.setField(imageVariantService, "enabled", false);
+
+        assertEquals(ImageVariantUrls.NONE, imageVariantService.generate(new ClassPathResource("images/image-test.jpg"), "hash"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.eventostec.api.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.eventostec.api.domain.image.ImageVariantUrls;
+import com.eventostec.api.domain.image.StoredImage;
+import com.eventostec.api.repositories.StoredImageRepository;
+
+public class StoredImageServiceTests {
+
+    // SHA-256 of the bytes {1, 2, 3}.
+    private static final String HASH = "039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81";
+
+    @InjectMocks
+    private StoredImageService storedImageService;
+
+    @Mock
+    private ImageStorageService imageStorageService;
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    @Mock
+    private StoredImageRepository storedImageRepository;
+
+    private final MockMultipartFile image = new MockMultipartFile("image", "Banner.JPG", "image/jpeg", new byte[] {1, 2, 3});
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void shouldUploadNewImageUnderItsContentHash() throws IOException {
+        when(storedImageRepository.findById(HASH)).thenReturn(Optional.empty());
+        when(imageStorageService.upload(eq(HASH + ".jpg"), any(InputStream.class), eq(3L), eq("image/jpeg")))
+            .thenReturn("https://s3.amazonaws.com/bucket/" + HASH + ".jpg");
+        when(imageVariantService.generate(any(), eq(HASH))).thenReturn(new ImageVariantUrls("thumbnail-url", "medium-url"));
+        when(storedImageRepository.save(any(StoredImage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        StoredImage stored = storedImageService.store(image);
+
+        assertEquals(HASH, stored.getHash());
+        assertEquals("https://s3.amazonaws.com/bucket/" + HASH + ".jpg", stored.getUrl());
+        assertEquals("thumbnail-url", stored.getThumbnailUrl());
+        assertEquals("medium-url", stored.getMediumUrl());
+        verify(storedImageRepository).save(any(StoredImage.class));
+    }
+
+    @Test
+    void shouldReuseKnownImageWithoutUploading() throws IOException {
+        StoredImage known = new StoredImage(HASH, "url", "thumbnail-url", "medium-url", 3L, "image/jpeg", new Date());
+        when(storedImageRepository.findById(HASH)).thenReturn(Optional.of(known));
+
+        StoredImage stored = storedImageService.store(image);
+
+        assertSame(known, stored);
+        verify(imageStorageService, never()).upload(anyString(), any(InputStream.class), anyLong(), any());
+        verify(imageVariantService, never()).generate(any(), any());
+        verify(storedImageRepository, never()).save(any(StoredImage.class));
+    }
+
+    @Test
+    void shouldReturnWinningRowWhenConcurrentUploadInsertedFirst() throws IOException {
+        StoredImage winner = new StoredImage(HASH, "url", "thumbnail-url", "medium-url", 3L, "image/jpeg", new Date());
+        when(storedImageRepository.findById(HASH)).thenReturn(Optional.empty()).thenReturn(Optional.of(winner));
+        when(imageStorageService.upload(anyString(), any(InputStream.class), anyLong(), any())).thenReturn("url");
+        when(imageVariantService.generate(any(), any())).thenReturn(ImageVariantUrls.NONE);
+        when(storedImageRepository.save(any(StoredImage.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        StoredImage stored = storedImageService.store(image);
+
+        assertSame(winner, stored);
+    }
+}